@@ -0,0 +1,90 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.components.LifeFeatureComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameEngine;
+import com.gameengine.core.GameObject;
+import com.gameengine.graphics.RenderBackend;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+
+import java.util.Random;
+
+/**
+ * 基准测试公用的场景构造
+ * 实体分布在 1600x1200 的地图上，组件组合与 GameScene 中的玩家、敌人、技能一致
+ */
+final class BenchmarkFixtures {
+    static final float WORLD_WIDTH = 1600;
+    static final float WORLD_HEIGHT = 1200;
+    static final float TICK = 1.0f / 60.0f;
+    static final int PLAYER_SKILLS = 2;
+    static final int ENEMY_SKILLS = 5;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * 无窗口引擎，供 GameLogic 与场景使用
+     */
+    static GameEngine headlessEngine() {
+        return new GameEngine((int) WORLD_WIDTH, (int) WORLD_HEIGHT, "benchmark", RenderBackend.HEADLESS);
+    }
+
+    /**
+     * 构造一个包含1个玩家、enemyCount个敌人以及玩家/敌人技能的场景，并完成对象的加入
+     */
+    static Scene populatedScene(int enemyCount, long seed) {
+        return populatedScene(enemyCount, PLAYER_SKILLS, ENEMY_SKILLS, seed);
+    }
+
+    /**
+     * 与 populatedScene(enemyCount, seed) 相同，但指定玩家技能与敌人技能的数量
+     */
+    static Scene populatedScene(int enemyCount, int playerSkills, int enemySkills, long seed) {
+        Random random = new Random(seed);
+        Scene scene = new Scene("Benchmark");
+        scene.ensureCapacity(1 + enemyCount + playerSkills + enemySkills);
+
+        GameObject player = createEntity("Player", 800, 600, 100, random);
+        player.setPlayer();
+        scene.addGameObject(player);
+
+        for (int i = 0; i < enemyCount; i++) {
+            GameObject enemy = createEntity("EnemySoldier",
+                    random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT, 100, random);
+            enemy.setEnemy();
+            scene.addGameObject(enemy);
+        }
+        for (int i = 0; i < playerSkills; i++) {
+            GameObject skill = createEntity("Attacking SkillJ " + i,
+                    random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT, 1, random);
+            skill.setPlayerSkill();
+            scene.addGameObject(skill);
+        }
+        for (int i = 0; i < enemySkills; i++) {
+            GameObject skill = createEntity("Attacking Skill " + i,
+                    random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT, 1, random);
+            skill.setEnemySkill();
+            scene.addGameObject(skill);
+        }
+
+        scene.initialize();
+        // 第一次 update 把待加入的对象放入场景
+        scene.update(0.0f);
+        return scene;
+    }
+
+    static GameObject createEntity(String name, float x, float y, int blood, Random random) {
+        GameObject obj = new GameObject(name);
+        obj.addComponent(new TransformComponent(new Vector2(x, y)));
+        PhysicsComponent physics = obj.addComponent(new PhysicsComponent(0.5f));
+        physics.setVelocity(new Vector2(
+                (random.nextFloat() - 0.5f) * 100,
+                (random.nextFloat() - 0.5f) * 100));
+        physics.setFriction(0.98f);
+        obj.addComponent(new LifeFeatureComponent(blood));
+        return obj;
+    }
+}
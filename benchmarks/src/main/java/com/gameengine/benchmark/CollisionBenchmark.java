@@ -0,0 +1,80 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.core.GameEngine;
+import com.gameengine.core.GameLogic;
+import com.gameengine.core.GameObject;
+import com.gameengine.scene.Scene;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameLogic.checkAiCollisions 的串行与并行路径
+ * broadphase 为碰撞粗筛方式：NESTED_LOOPS 逐个比较，SPATIAL_HASH 空间哈希网格（按数量自动选择），SWEEP_AND_PRUNE 扫掠剪枝
+ * skillCount 为玩家技能与敌人技能各自的数量，技能多时敌人与技能的比较才会成为瓶颈
+ * 命中会改变血量与位置，测量的是多次调用后的稳定状态
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CollisionBenchmark {
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int entityCount;
+
+    @Param({"NESTED_LOOPS", "SPATIAL_HASH", "SWEEP_AND_PRUNE"})
+    public GameLogic.Broadphase broadphase;
+
+    @Param({"5", "500"})
+    public int skillCount;
+
+    private GameEngine engine;
+    private GameLogic gameLogic;
+    private List<GameObject> players;
+    private List<GameObject> enemies;
+    private List<GameObject> playerSkills;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        engine = BenchmarkFixtures.headlessEngine();
+        Scene scene = BenchmarkFixtures.populatedScene(entityCount, skillCount, skillCount, 42L);
+        gameLogic = new GameLogic(scene, engine);
+        gameLogic.setBroadphase(broadphase);
+        players = gameLogic.getPlayers();
+        enemies = gameLogic.getEnemies();
+        playerSkills = gameLogic.getSkills();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.getJobSystem().shutdown();
+    }
+
+    @Benchmark
+    public void checkAiCollisions() {
+        gameLogic.checkAiCollisions(BenchmarkFixtures.TICK);
+    }
+
+    @Benchmark
+    public void serial() {
+        gameLogic.checkAiCollisionsSerial(players, enemies, playerSkills);
+    }
+
+    @Benchmark
+    public void parallel() {
+        gameLogic.checkAiCollisionsParallel(players, enemies, playerSkills);
+    }
+
+    /**
+     * 对象移动一帧后再检测：扫掠剪枝的排序在帧之间只有少量变化
+     */
+    @Benchmark
+    public void serialMoving() {
+        gameLogic.updatePhysics(BenchmarkFixtures.TICK);
+        gameLogic.checkAiCollisionsSerial(players, enemies, playerSkills);
+    }
+}
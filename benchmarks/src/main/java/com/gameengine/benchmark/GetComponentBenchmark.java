@@ -0,0 +1,62 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.components.LifeFeatureComponent;
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.GameObject;
+import com.gameengine.scene.Scene;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * GameObject.getComponent：单次查找，以及每帧对所有实体取 TransformComponent 的开销
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class GetComponentBenchmark {
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int entityCount;
+
+    private GameObject entity;
+    private List<GameObject> entities;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        // Transform 在最前，LifeFeature 在最后
+        entity = BenchmarkFixtures.createEntity("Entity", 100, 100, 100, new Random(42L));
+        Scene scene = BenchmarkFixtures.populatedScene(entityCount, 42L);
+        entities = scene.getGameObjects();
+    }
+
+    @Benchmark
+    public TransformComponent firstComponent() {
+        return entity.getComponent(TransformComponent.class);
+    }
+
+    @Benchmark
+    public LifeFeatureComponent lastComponent() {
+        return entity.getComponent(LifeFeatureComponent.class);
+    }
+
+    @Benchmark
+    public RenderComponent missingComponent() {
+        return entity.getComponent(RenderComponent.class);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public void transformPerEntity(Blackhole blackhole) {
+        for (int i = 0; i < entities.size(); i++) {
+            blackhole.consume(entities.get(i).getComponent(TransformComponent.class));
+        }
+    }
+}
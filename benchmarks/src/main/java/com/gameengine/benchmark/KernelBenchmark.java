@@ -0,0 +1,105 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.core.PhysicsSystem;
+import com.gameengine.math.Kernels;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kernels：在连续 float 数组上的物理积分、边界反弹与粒子更新，对比标量与向量实现
+ * 每组参数开始时输出 lanes（每次运算处理的 float 数量）与 laneUtilization（按整条向量处理的元素比例）
+ * 向量实现不可用时 kernel=vector 退回标量实现，输出中 kernel=scalar、lanes=1
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class KernelBenchmark {
+
+    @Param({"1000", "50000", "100000"})
+    public int count;
+
+    @Param({"scalar", "vector"})
+    public String kernel;
+
+    private Kernels kernels;
+    private float[] x;
+    private float[] y;
+    private float[] vx;
+    private float[] vy;
+    private float[] ax;
+    private float[] ay;
+    private float[] gx;
+    private float[] gy;
+    private float[] friction;
+    private float[] life;
+    private float[] maxLife;
+    private float[] alpha;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Kernels vector = Kernels.vector();
+        kernels = "vector".equals(kernel) && vector != null ? vector : Kernels.scalar();
+        System.out.printf("kernel=%s lanes=%d laneUtilization=%.4f%n",
+                kernels.getName(), kernels.getLaneCount(), kernels.getLaneUtilization(count));
+
+        Random random = new Random(42L);
+        x = new float[count];
+        y = new float[count];
+        vx = new float[count];
+        vy = new float[count];
+        ax = new float[count];
+        ay = new float[count];
+        gx = new float[count];
+        gy = new float[count];
+        friction = new float[count];
+        life = new float[count];
+        maxLife = new float[count];
+        alpha = new float[count];
+        for (int i = 0; i < count; i++) {
+            x[i] = random.nextFloat() * BenchmarkFixtures.WORLD_WIDTH;
+            y[i] = random.nextFloat() * BenchmarkFixtures.WORLD_HEIGHT;
+            gy[i] = (i & 1) == 0 ? 9.8f : 0f;
+            friction[i] = 1.0f;
+            // 足够长的寿命，使粒子在测量期间一直存活
+            life[i] = 1.0e9f;
+            maxLife[i] = 1.0e9f;
+            alpha[i] = 1.0f;
+        }
+        resetVelocities();
+    }
+
+    /**
+     * 每次迭代前重新给出速度，避免速度衰减到零后测量的是特殊情况
+     */
+    @Setup(Level.Iteration)
+    public void resetVelocities() {
+        Random random = new Random(7L);
+        for (int i = 0; i < count; i++) {
+            vx[i] = random.nextFloat() * 200 - 100;
+            vy[i] = random.nextFloat() * 200 - 100;
+        }
+    }
+
+    @Benchmark
+    public void integrate() {
+        kernels.integrate(x, y, vx, vy, ax, ay, gx, gy, friction, count, BenchmarkFixtures.TICK,
+                PhysicsSystem.REST_VELOCITY);
+    }
+
+    @Benchmark
+    public void resolveBounds() {
+        kernels.resolveBounds(x, y, vx, vy, count, 0, 0,
+                BenchmarkFixtures.WORLD_WIDTH - 15, BenchmarkFixtures.WORLD_HEIGHT - 15);
+    }
+
+    @Benchmark
+    public void updateParticles() {
+        kernels.updateParticles(x, y, vx, vy, life, maxLife, alpha, count, BenchmarkFixtures.TICK, 0.98f,
+                PhysicsSystem.REST_VELOCITY);
+    }
+}
@@ -0,0 +1,60 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.core.ParticleSystem;
+import com.gameengine.graphics.HeadlessRenderer;
+import com.gameengine.math.Kernels;
+import com.gameengine.math.Vector2;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ParticleSystem.update 与 burst
+ * update 使用足够长的寿命与极低的生成频率，使粒子数量在测量期间保持不变
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class ParticleBenchmark {
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int particleCount;
+
+    @Param({"scalar", "vector"})
+    public String kernel;
+
+    private ParticleSystem steady;
+    private ParticleSystem bursting;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        HeadlessRenderer renderer = new HeadlessRenderer(1600, 1200, "benchmark");
+
+        ParticleSystem.Config steadyConfig = ParticleSystem.Config.defaultPlayer();
+        steadyConfig.initialCount = particleCount;
+        steadyConfig.spawnRate = Float.MAX_VALUE;
+        steadyConfig.lifeMin = 1.0e9f;
+        steadyConfig.lifeMax = 1.0e9f;
+        steady = new ParticleSystem(renderer, new Vector2(800, 600), steadyConfig);
+        Kernels vector = Kernels.vector();
+        steady.setKernels("vector".equals(kernel) && vector != null ? vector : Kernels.scalar());
+
+        ParticleSystem.Config burstConfig = ParticleSystem.Config.defaultPlayer();
+        burstConfig.initialCount = 0;
+        bursting = new ParticleSystem(renderer, new Vector2(800, 600), burstConfig);
+    }
+
+    @Benchmark
+    public void update() {
+        steady.update(BenchmarkFixtures.TICK);
+    }
+
+    @Benchmark
+    public void burst() {
+        bursting.clear();
+        bursting.burst(particleCount);
+    }
+}
@@ -0,0 +1,55 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.core.GameEngine;
+import com.gameengine.core.PhysicsSystem;
+import com.gameengine.math.Kernels;
+import com.gameengine.scene.Scene;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PhysicsSystem.update：积分、摩擦与边界反弹在同一次批量遍历中完成
+ * parallel=false 为串行路径，true 时数量超过阈值按块并行；kernel 选择块内数组计算的标量或向量实现
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class PhysicsBenchmark {
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int entityCount;
+
+    @Param({"false", "true"})
+    public boolean parallel;
+
+    @Param({"scalar", "vector"})
+    public String kernel;
+
+    private GameEngine engine;
+    private PhysicsSystem physicsSystem;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        engine = BenchmarkFixtures.headlessEngine();
+        Scene scene = BenchmarkFixtures.populatedScene(entityCount, 42L);
+        physicsSystem = new PhysicsSystem(scene, engine.getJobSystem());
+        physicsSystem.setBounds(0, 0, BenchmarkFixtures.WORLD_WIDTH - 15, BenchmarkFixtures.WORLD_HEIGHT - 15);
+        physicsSystem.setParallel(parallel);
+        Kernels vector = Kernels.vector();
+        physicsSystem.setKernels("vector".equals(kernel) && vector != null ? vector : Kernels.scalar());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        engine.getJobSystem().shutdown();
+    }
+
+    @Benchmark
+    public void updatePhysics() {
+        physicsSystem.update(BenchmarkFixtures.TICK);
+    }
+}
@@ -0,0 +1,73 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.Archetype;
+import com.gameengine.core.EntityQuery;
+import com.gameengine.core.GameObject;
+import com.gameengine.scene.Scene;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transform+Physics 的遍历：逐对象 getComponent 与按原型列遍历的对比
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class QueryBenchmark {
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int entityCount;
+
+    private List<GameObject> entities;
+    private EntityQuery query;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        Scene scene = BenchmarkFixtures.populatedScene(entityCount, 42L);
+        entities = scene.getGameObjects();
+        query = scene.query(TransformComponent.class, PhysicsComponent.class);
+    }
+
+    @Benchmark
+    public void getComponentPerEntity(Blackhole blackhole) {
+        for (int i = 0; i < entities.size(); i++) {
+            GameObject entity = entities.get(i);
+            TransformComponent transform = entity.getComponent(TransformComponent.class);
+            PhysicsComponent physics = entity.getComponent(PhysicsComponent.class);
+            if (transform != null && physics != null) {
+                blackhole.consume(transform);
+                blackhole.consume(physics);
+            }
+        }
+    }
+
+    @Benchmark
+    public void archetypeColumns(Blackhole blackhole) {
+        List<Archetype> archetypes = query.getArchetypes();
+        for (int i = 0; i < archetypes.size(); i++) {
+            Archetype archetype = archetypes.get(i);
+            TransformComponent[] transforms = archetype.getColumn(TransformComponent.class);
+            PhysicsComponent[] physics = archetype.getColumn(PhysicsComponent.class);
+            for (int row = 0; row < archetype.size(); row++) {
+                blackhole.consume(transforms[row]);
+                blackhole.consume(physics[row]);
+            }
+        }
+    }
+
+    @Benchmark
+    public void queryForEach(Blackhole blackhole) {
+        query.forEach(TransformComponent.class, PhysicsComponent.class, (entity, transform, physics) -> {
+            blackhole.consume(transform);
+            blackhole.consume(physics);
+        });
+    }
+}
@@ -0,0 +1,68 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.app.RecordingScene;
+import com.gameengine.core.GameEngine;
+import com.gameengine.core.GameLogic;
+import com.gameengine.scene.Scene;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RecordingScene 的帧解析
+ * 录像文件由 GameLogic.updateRecords 生成，与游戏中录制的格式一致
+ * render 会解析并绘制当前帧，update 会切换并解析下一帧的时间
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecordingParseBenchmark {
+    private static final int FRAMES = 5;
+
+    @Param({"10", "1000", "10000"})
+    public int entityCount;
+
+    private File recordingFile;
+    private RecordingScene recordingScene;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        GameEngine engine = BenchmarkFixtures.headlessEngine();
+        Scene scene = BenchmarkFixtures.populatedScene(entityCount, 42L);
+        GameLogic gameLogic = new GameLogic(scene, engine);
+
+        recordingFile = File.createTempFile("recording_benchmark_", ".txt");
+        try (FileWriter writer = new FileWriter(recordingFile)) {
+            float keyTimer = 0f;
+            for (int i = 0; i < FRAMES; i++) {
+                scene.update(BenchmarkFixtures.TICK);
+                keyTimer += BenchmarkFixtures.TICK;
+                gameLogic.updateRecords(keyTimer, writer);
+            }
+        }
+        engine.getJobSystem().shutdown();
+
+        recordingScene = new RecordingScene(engine, recordingFile.getAbsolutePath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        recordingFile.delete();
+    }
+
+    @Benchmark
+    public void parseAndRenderFrame() {
+        recordingScene.render();
+    }
+
+    @Benchmark
+    public void advanceFrame() {
+        recordingScene.update(BenchmarkFixtures.TICK);
+    }
+}
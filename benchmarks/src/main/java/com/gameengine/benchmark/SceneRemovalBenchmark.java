@@ -0,0 +1,45 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.core.GameObject;
+import com.gameengine.core.Tag;
+import com.gameengine.scene.Scene;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 一帧内大量敌人死亡时 Scene.update 的移除开销（一半敌人不活跃）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SceneRemovalBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    public int entityCount;
+
+    @Param({"STABLE", "SWAP"})
+    public Scene.RemovalMode removalMode;
+
+    private Scene scene;
+
+    @Setup(Level.Invocation)
+    public void setup() {
+        scene = BenchmarkFixtures.populatedScene(entityCount, 42L);
+        scene.setRemovalMode(removalMode);
+        List<GameObject> enemies = scene.findGameObjectsByTag(Tag.ENEMY);
+        for (int i = 0; i < enemies.size(); i += 2) {
+            enemies.get(i).setActive(false);
+        }
+    }
+
+    @Benchmark
+    public Scene removeHalf() {
+        scene.update(BenchmarkFixtures.TICK);
+        return scene;
+    }
+}
@@ -0,0 +1,33 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.scene.Scene;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scene.update：逐个对象更新组件（物理积分已移到 PhysicsSystem，见 PhysicsBenchmark）
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SceneUpdateBenchmark {
+
+    @Param({"10", "1000", "10000", "100000"})
+    public int entityCount;
+
+    private Scene scene;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        scene = BenchmarkFixtures.populatedScene(entityCount, 42L);
+    }
+
+    @Benchmark
+    public void update() {
+        scene.update(BenchmarkFixtures.TICK);
+    }
+}
@@ -0,0 +1,138 @@
+package com.gameengine.benchmark;
+
+import com.gameengine.components.TransformComponent;
+import com.gameengine.core.DynamicAabbTree;
+import com.gameengine.core.GameObject;
+import com.gameengine.core.Tag;
+import com.gameengine.scene.Scene;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DynamicAabbTree 的查询与逐个遍历场景对象的对比
+ * 每次调用做 QUERIES 次查询（查询点预先随机生成）；sync 测量所有对象小幅移动后的同步开销
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SpatialQueryBenchmark {
+    private static final int QUERIES = 64;
+    private static final float BLAST_RADIUS = 60;
+
+    @Param({"1000", "10000", "100000"})
+    public int entityCount;
+
+    private Scene scene;
+    private List<GameObject> entities;
+    private DynamicAabbTree tree;
+    private final List<GameObject> result = new ArrayList<>();
+    private final DynamicAabbTree.RayHit hit = new DynamicAabbTree.RayHit();
+    private float[] queryX;
+    private float[] queryY;
+    private float step;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        scene = BenchmarkFixtures.populatedScene(entityCount, 42L);
+        entities = scene.getGameObjects();
+        tree = new DynamicAabbTree();
+        tree.sync(scene);
+
+        Random random = new Random(7L);
+        queryX = new float[QUERIES * 2];
+        queryY = new float[QUERIES * 2];
+        for (int i = 0; i < queryX.length; i++) {
+            queryX[i] = random.nextFloat() * BenchmarkFixtures.WORLD_WIDTH;
+            queryY[i] = random.nextFloat() * BenchmarkFixtures.WORLD_HEIGHT;
+        }
+    }
+
+    /**
+     * 所有对象移动 1 个单位后同步（来回移动，位置不会漂移）
+     */
+    @Benchmark
+    public void sync() {
+        step = step > 0 ? -1 : 1;
+        for (int i = 0; i < entities.size(); i++) {
+            TransformComponent transform = entities.get(i).getComponent(TransformComponent.class);
+            transform.setXY(transform.getX() + step, transform.getY());
+        }
+        tree.sync(scene);
+    }
+
+    @Benchmark
+    public void nearestEnemyTree(Blackhole blackhole) {
+        for (int i = 0; i < QUERIES; i++) {
+            blackhole.consume(tree.findNearest(queryX[i], queryY[i], Tag.ENEMY));
+        }
+    }
+
+    @Benchmark
+    public void nearestEnemyScan(Blackhole blackhole) {
+        for (int i = 0; i < QUERIES; i++) {
+            GameObject nearest = null;
+            float best = Float.POSITIVE_INFINITY;
+            for (int j = 0; j < entities.size(); j++) {
+                GameObject entity = entities.get(j);
+                if (!entity.isActive() || !entity.hasTag(Tag.ENEMY)) {
+                    continue;
+                }
+                TransformComponent transform = entity.getComponent(TransformComponent.class);
+                float dx = transform.getX() - queryX[i];
+                float dy = transform.getY() - queryY[i];
+                float distance = dx * dx + dy * dy;
+                if (distance < best) {
+                    best = distance;
+                    nearest = entity;
+                }
+            }
+            blackhole.consume(nearest);
+        }
+    }
+
+    @Benchmark
+    public void blastRadiusTree(Blackhole blackhole) {
+        for (int i = 0; i < QUERIES; i++) {
+            blackhole.consume(tree.queryRadius(queryX[i], queryY[i], BLAST_RADIUS, Tag.ENEMY, result));
+        }
+    }
+
+    @Benchmark
+    public void blastRadiusScan(Blackhole blackhole) {
+        for (int i = 0; i < QUERIES; i++) {
+            result.clear();
+            for (int j = 0; j < entities.size(); j++) {
+                GameObject entity = entities.get(j);
+                if (!entity.isActive() || !entity.hasTag(Tag.ENEMY)) {
+                    continue;
+                }
+                TransformComponent transform = entity.getComponent(TransformComponent.class);
+                float dx = transform.getX() - queryX[i];
+                float dy = transform.getY() - queryY[i];
+                if (dx * dx + dy * dy <= BLAST_RADIUS * BLAST_RADIUS) {
+                    result.add(entity);
+                }
+            }
+            blackhole.consume(result.size());
+        }
+    }
+
+    /**
+     * 随机两点之间的视线检测（第一个被挡住的位置）
+     */
+    @Benchmark
+    public void raycastTree(Blackhole blackhole) {
+        for (int i = 0; i < QUERIES; i++) {
+            blackhole.consume(tree.raycast(queryX[i], queryY[i], queryX[i + QUERIES], queryY[i + QUERIES],
+                    Tag.ENEMY, null, hit));
+        }
+    }
+}
@@ -18,7 +18,7 @@ for /r "src\main\java" %%f in (*.java) do (
 
 rem 编译
 echo Compiling Java sources...
-javac -encoding UTF-8 -d build\classes -cp "%LWJGL_CP%" %SOURCES%
+javac -encoding UTF-8 --add-modules jdk.incubator.vector -d build\classes -cp "%LWJGL_CP%" %SOURCES%
 if errorlevel 1 (
   echo Compilation failed!
   exit /b 1
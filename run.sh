@@ -9,7 +9,8 @@ if [ -d "lib/lwjgl" ]; then
   LWJGL_CP=".:lib/lwjgl/*"
 fi
 SOURCES=$(find src/main/java -type f -name "*.java")
-javac -d build/classes -cp "$LWJGL_CP" $SOURCES
+# 向量计算使用孵化模块 jdk.incubator.vector（运行时不加该模块则使用标量实现）
+javac --add-modules jdk.incubator.vector -d build/classes -cp "$LWJGL_CP" $SOURCES
 
 LWJGL_DIR="lib/lwjgl"
 CLASSPATH="build/classes"
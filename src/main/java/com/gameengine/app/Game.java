@@ -3,6 +3,8 @@ package com.gameengine.app;
 import com.gameengine.core.GameEngine;
 import com.gameengine.graphics.RenderBackend;
 
+import java.util.Arrays;
+
 /**
  * 游戏主入口
  * 启动游戏引擎并显示主菜单
@@ -16,6 +18,23 @@ public class Game {
             System.out.println("使用渲染后端: GPU");
             // 初始化游戏引擎（1600x1200分辨率）
             engine = new GameEngine(1600, 1200, "葫芦娃大战妖怪", RenderBackend.GPU);
+            // 固定步长模拟（60Hz），渲染按插值平滑
+            engine.setFixedTimeStep(true);
+            engine.setTickRate(60.0f);
+            // --pipelined：模拟与渲染分线程并行
+            if (Arrays.asList(args).contains("--pipelined")) {
+                System.out.println("启用流水线模式");
+                engine.setPipelined(true);
+            }
+            // --lockstep[=种子]：确定性模拟，并只录制种子与每次模拟的输入
+            for (String arg : args) {
+                if (arg.equals("--lockstep") || arg.startsWith("--lockstep=")) {
+                    long seed = arg.contains("=") ? Long.parseLong(arg.substring(arg.indexOf('=') + 1)) : System.nanoTime();
+                    System.out.println("启用确定性模式，种子: " + seed);
+                    engine.setDeterministic(seed);
+                    engine.setInputRecording(true);
+                }
+            }
 
             // 创建主菜单场景
             MenuScene menuScene = new MenuScene(engine, "MainMenu");
@@ -2,10 +2,17 @@ package com.gameengine.app;
 
 import com.gameengine.components.*;
 import com.gameengine.core.GameObject;
+import com.gameengine.core.GameObjectPool;
 import com.gameengine.core.GameLogic;
+import com.gameengine.core.JobGraph;
 import com.gameengine.core.ParticleSystem;
+import com.gameengine.core.Profiler;
+import com.gameengine.core.RandomStreams;
+import com.gameengine.core.Tag;
 import com.gameengine.graphics.IRenderer;
 import com.gameengine.graphics.Renderer;
+import com.gameengine.input.InputPlayback;
+import com.gameengine.input.InputRecorder;
 import com.gameengine.math.Vector2;
 import com.gameengine.scene.Scene;
 
@@ -21,7 +28,9 @@ import com.gameengine.core.GameEngine;
  */
 public class GameScene extends Scene {
     private IRenderer renderer;
+    private RandomStreams randomStreams;
     private Random random;
+    private Random particleRandom;
     private float time;
     private GameLogic gameLogic;
     private int level;
@@ -35,6 +44,15 @@ public class GameScene extends Scene {
     private static final float RECORDING_INTERVAL = 0.02f; // 每0.02秒记录一次
     private float keyTimer = 0f;
 
+    // 确定性录制与回放：只记录种子与每次模拟的输入
+    private long tick;
+    private InputRecorder inputRecorder;
+    private InputPlayback inputPlayback;
+    // 回放前引擎的步长设置
+    private boolean tickSettingsSaved;
+    private boolean previousFixedTimeStep;
+    private float previousTickRate;
+
     // 粒子效果系统
     private ParticleSystem playerParticles;
     private List<ParticleSystem> collisionParticles;
@@ -47,9 +65,49 @@ public class GameScene extends Scene {
     private final float inputCooldown = 0.25f;
     private final float freezeDelay = 0.20f;
 
+    // 各系统耗时统计
+    private Profiler profiler;
+    private int spanSceneUpdate;
+    private int spanPlayerInput;
+    private int spanPhysics;
+    private int spanSpatialIndex;
+    private int spanEnemyMovement;
+    private int spanAttack;
+    private int spanEnemyAttack;
+    private int spanEntityAlive;
+    private int spanRecords;
+    private int spanAiCollisions;
+    private int spanParticles;
+
+    // 对象池：技能与敌人在回收后复用，不再每次新建
+    private static final int PLAYER_VOLLEY = 2;
+    private static final int ENEMY_VOLLEY = 5;
+    private GameObjectPool<GameObject> playerSkillPool;
+    private GameObjectPool<GameObject> enemySkillPool;
+    private GameObjectPool<GameObject> soldierPool;
+    private GameObjectPool<GameObject> kingPool;
+
+    // 每帧的系统任务图
+    private JobGraph frameJobs;
+    private float frameDeltaTime;
+
     public GameScene(String name, GameEngine engine) {
+        this(name, engine, engine.isDeterministic() ? engine.getRandomSeed() : System.nanoTime());
+    }
+
+    /**
+     * 按录制文件中的种子与输入重新模拟一局游戏
+     */
+    public GameScene(String name, GameEngine engine, InputPlayback inputPlayback) {
+        this(name, engine, inputPlayback.getSeed());
+        this.inputPlayback = inputPlayback;
+    }
+
+    private GameScene(String name, GameEngine engine, long seed) {
         super(name);
-        this.random = new Random();
+        this.randomStreams = new RandomStreams(seed);
+        this.random = randomStreams.create("GameScene");
+        this.particleRandom = randomStreams.create("ParticleSystem");
         this.time = 0;
         this.engine = engine;
         this.isRecording = false;
@@ -64,10 +122,39 @@ public class GameScene extends Scene {
     @Override
     public void initialize() {
         super.initialize();
-        this.gameLogic = new GameLogic(this, engine);
+        this.gameLogic = new GameLogic(this, engine, randomStreams.create("GameLogic"));
+        gameLogic.setDeterministic(engine.isDeterministic() || inputPlayback != null);
+        this.tick = 0;
+        if (inputPlayback != null) {
+            // 回放需要与录制时相同的固定步长，场景结束时恢复原来的设置
+            this.previousFixedTimeStep = engine.isFixedTimeStep();
+            this.previousTickRate = engine.getTickRate();
+            this.tickSettingsSaved = true;
+            engine.setFixedTimeStep(true);
+            engine.setTickRate(inputPlayback.getTickRate());
+        }
+        if (inputPlayback == null && engine.isDeterministic() && engine.isInputRecording()) {
+            startInputRecording();
+        }
         this.level = 1;
         this.renderer = engine.getRenderer();
 
+        // 注册各系统的耗时区段
+        this.profiler = engine.getProfiler();
+        spanSceneUpdate = profiler.registerSpan("Scene.update");
+        spanPlayerInput = profiler.registerSpan("handlePlayerInput");
+        spanPhysics = profiler.registerSpan("updatePhysics");
+        spanSpatialIndex = profiler.registerSpan("updateSpatialIndex");
+        spanEnemyMovement = profiler.registerSpan("updateEnemyMovement");
+        spanAttack = profiler.registerSpan("updateAttack");
+        spanEnemyAttack = profiler.registerSpan("updateEnemyAttack");
+        spanEntityAlive = profiler.registerSpan("checkEntityAlive");
+        spanRecords = profiler.registerSpan("updateRecords");
+        spanAiCollisions = profiler.registerSpan("checkAiCollisions");
+        spanParticles = profiler.registerSpan("updateParticles");
+        buildFrameJobs();
+        createPools();
+
         // 创建初始游戏对象
         createHulu();
         createTrees();
@@ -76,9 +163,11 @@ public class GameScene extends Scene {
 
         // 初始化粒子效果
         collisionParticles = new ArrayList<>();
-        EnemyParticles = new HashMap<>();
+        // 按敌人加入顺序遍历，保证每次运行顺序一致
+        EnemyParticles = new LinkedHashMap<>();
 
-        playerParticles = new ParticleSystem(renderer, new Vector2(renderer.getWidth() / 2.0f, renderer.getHeight() / 2.0f));
+        playerParticles = new ParticleSystem(renderer, new Vector2(renderer.getWidth() / 2.0f, renderer.getHeight() / 2.0f),
+                ParticleSystem.Config.defaultPlayer(), particleRandom.nextLong());
         playerParticles.setActive(true);
 
         // 初始化时间系统
@@ -88,17 +177,162 @@ public class GameScene extends Scene {
 
     }
 
+    /**
+     * 创建技能与敌人的对象池
+     * 技能在攻击时取出、命中或生命周期结束时归还；敌人在关卡开始时取出、死亡时归还
+     */
+    private void createPools() {
+        // 玩家每0.5秒发射2个、存活1秒；国王每1秒发射5个、存活2秒
+        playerSkillPool = new GameObjectPool<>(this, this::newPlayerSkill, 16);
+        playerSkillPool.prewarm(3 * PLAYER_VOLLEY);
+        enemySkillPool = new GameObjectPool<>(this, this::newEnemySkill, 32);
+        enemySkillPool.prewarm(3 * ENEMY_VOLLEY);
+        // 每关最多6个士兵和1个国王，上一关的敌人全部死亡后才进入下一关
+        soldierPool = new GameObjectPool<>(this, this::newEnemySoldier, 12);
+        soldierPool.prewarm(6);
+        kingPool = new GameObjectPool<>(this, this::newEnemyKing, 2);
+        kingPool.prewarm(1);
+        gameLogic.setSkillPools(playerSkillPool, PLAYER_VOLLEY, enemySkillPool, ENEMY_VOLLEY);
+    }
+
+    /**
+     * 搭建每帧的系统任务图
+     * 输入 -> 物理 -> 空间索引 -> 敌人移动 -> 攻击 -> 敌人攻击 -> 碰撞 -> 死亡检查 -> {录制, 粒子}
+     * 死亡检查可能结束游戏并清理渲染器，只在主线程执行；录制与粒子只读取实体状态，二者并行
+     */
+    private void buildFrameJobs() {
+        frameJobs = new JobGraph();
+        JobGraph.Job input = frameJobs.add("handlePlayerInput", () -> {
+            profiler.begin(spanPlayerInput);
+            gameLogic.handlePlayerInput();
+            profiler.end(spanPlayerInput);
+        });
+        JobGraph.Job physics = frameJobs.add("updatePhysics", () -> {
+            profiler.begin(spanPhysics);
+            gameLogic.updatePhysics(frameDeltaTime);
+            profiler.end(spanPhysics);
+        }, input);
+        JobGraph.Job spatialIndex = frameJobs.add("updateSpatialIndex", () -> {
+            profiler.begin(spanSpatialIndex);
+            gameLogic.updateSpatialIndex();
+            profiler.end(spanSpatialIndex);
+        }, physics);
+        JobGraph.Job enemyMovement = frameJobs.add("updateEnemyMovement", () -> {
+            profiler.begin(spanEnemyMovement);
+            gameLogic.updateEnemyMovement(frameDeltaTime);
+            profiler.end(spanEnemyMovement);
+        }, spatialIndex);
+        JobGraph.Job attack = frameJobs.add("updateAttack", () -> {
+            profiler.begin(spanAttack);
+            gameLogic.updateAttack(frameDeltaTime);
+            profiler.end(spanAttack);
+        }, enemyMovement);
+        JobGraph.Job enemyAttack = frameJobs.add("updateEnemyAttack", () -> {
+            profiler.begin(spanEnemyAttack);
+            gameLogic.updateEnemyAttack(frameDeltaTime);
+            profiler.end(spanEnemyAttack);
+        }, attack);
+        JobGraph.Job collisions = frameJobs.add("checkAiCollisions", () -> {
+            profiler.begin(spanAiCollisions);
+            gameLogic.checkAiCollisions(frameDeltaTime);
+            profiler.end(spanAiCollisions);
+        }, enemyAttack);
+        JobGraph.Job entityAlive = frameJobs.addOnMainThread("checkEntityAlive", () -> {
+            profiler.begin(spanEntityAlive);
+            gameLogic.checkEntityAlive();
+            profiler.end(spanEntityAlive);
+        }, collisions);
+        frameJobs.add("updateRecords", () -> updateRecording(frameDeltaTime), entityAlive);
+        frameJobs.add("updateParticles", () -> {
+            profiler.begin(spanParticles);
+            updateParticles(frameDeltaTime);
+            profiler.end(spanParticles);
+        }, entityAlive);
+    }
+
+    /**
+     * 记录游戏过程（每0.02秒记录一次）
+     */
+    private void updateRecording(float deltaTime) {
+        if (isRecording && recordingWriter != null) {
+            recordingTimer += deltaTime;
+            keyTimer += deltaTime;
+
+            if (recordingTimer >= RECORDING_INTERVAL) {
+                profiler.begin(spanRecords);
+                gameLogic.updateRecords(keyTimer, recordingWriter);
+                profiler.end(spanRecords);
+                recordingTimer = 0f;
+            }
+        }
+    }
+
+    private void startInputRecording() {
+        File folder = new File("recordings");
+        if (!folder.exists() && !folder.mkdirs()) {
+            System.err.println("无法创建录制文件夹: recordings");
+            return;
+        }
+        String path = "recordings/lockstep_" + System.currentTimeMillis() + ".txt";
+        try {
+            this.inputRecorder = new InputRecorder(path, randomStreams.getSeed(), engine.getTickRate());
+            System.out.println("开始录制输入: " + path);
+        } catch (Exception e) {
+            System.err.println("无法创建输入录制文件: " + e.getMessage());
+            this.inputRecorder = null;
+        }
+    }
+
+    @Override
+    public void exit() {
+        stopInputRecording();
+        if (tickSettingsSaved) {
+            engine.setFixedTimeStep(previousFixedTimeStep);
+            engine.setTickRate(previousTickRate);
+            tickSettingsSaved = false;
+        }
+    }
+
+    private void stopInputRecording() {
+        if (inputRecorder != null) {
+            try {
+                inputRecorder.close();
+            } catch (Exception e) {
+                System.err.println("关闭输入录制文件时出错: " + e.getMessage());
+            }
+            inputRecorder = null;
+        }
+    }
+
     public float getTime() {
         return this.time;
     }
 
+    /**
+     * 获取场景的随机数流（种子决定整局游戏）
+     */
+    public RandomStreams getRandomStreams() {
+        return randomStreams;
+    }
+
     @Override
     public void update(float deltaTime) {
+        // 回放时用录制的输入覆盖本次模拟的输入，录制时记下本次模拟看到的输入
+        if (inputPlayback != null) {
+            inputPlayback.apply(tick, engine.getInputManager());
+        } else if (inputRecorder != null) {
+            inputRecorder.record(tick, engine.getInputManager());
+        }
+        tick++;
+
+        profiler.begin(spanSceneUpdate);
         super.update(deltaTime);
+        profiler.end(spanSceneUpdate);
         time += deltaTime;
 
         // 检查ESC键退出
         if (engine.getInputManager().isKeyJustPressed(256)) { // GLFW_KEY_ESCAPE
+            stopInputRecording();
             engine.stop();
             return;
         }
@@ -132,27 +366,10 @@ public class GameScene extends Scene {
             }
         }
 
-        // 游戏使用到的逻辑规则
-        gameLogic.handlePlayerInput();
-        gameLogic.updatePhysics();
-        gameLogic.updateEnemyMovement(deltaTime);
-        gameLogic.updateAttack(deltaTime);
-        gameLogic.updateEnemyAttack(deltaTime);
-        gameLogic.checkEntityAlive();
-
-        // 记录游戏过程（每0.1秒记录一次）
-        if (isRecording && recordingWriter != null) {
-            recordingTimer += deltaTime;
-            keyTimer += deltaTime;
-
-            if (recordingTimer >= RECORDING_INTERVAL) {
-                gameLogic.updateRecords(keyTimer, recordingWriter);
-                recordingTimer = 0f;
-            }
-        }
-
+        // 游戏使用到的逻辑规则：按任务图的依赖顺序执行
+        frameDeltaTime = deltaTime;
         boolean wasGameOver = gameLogic.isGameOver();
-        gameLogic.checkAiCollisions(deltaTime);
+        engine.getJobSystem().run(frameJobs);
         
         if (gameLogic.isGameOver() && !wasGameOver) {
             GameObject player = gameLogic.getPlayer();
@@ -174,7 +391,7 @@ public class GameScene extends Scene {
                     cfg.burstGMin = 0.0f;
                     cfg.burstGMax = 0.05f;
                     cfg.burstB = 0.0f;
-                    ParticleSystem explosion = new ParticleSystem(renderer, transform.getPosition(), cfg);
+                    ParticleSystem explosion = new ParticleSystem(renderer, transform.getPosition(), cfg, particleRandom.nextLong());
                     explosion.burst(180);
                     collisionParticles.add(explosion);
                     waitingReturn = true;
@@ -200,9 +417,6 @@ public class GameScene extends Scene {
             }
         }
 
-        // 游戏粒子效果
-        updateParticles(deltaTime);
-
         if (waitingReturn) {
             waitInputTimer += deltaTime;
             freezeTimer += deltaTime;
@@ -217,8 +431,7 @@ public class GameScene extends Scene {
             if (player != null) {
                 TransformComponent transform = player.getComponent(TransformComponent.class);
                 if (transform != null) {
-                    Vector2 playerPos = transform.getPosition();
-                    playerParticles.setPosition(playerPos);
+                    playerParticles.setPosition(transform.getX(), transform.getY());
                 }
             }
             playerParticles.update(deltaTime);
@@ -226,13 +439,15 @@ public class GameScene extends Scene {
 
         List<GameObject> Enemies = gameLogic.getEnemies();
         if (!freeze) {
-            for (GameObject Enemy : Enemies) {
+            for (int i = 0; i < Enemies.size(); i++) {
+                GameObject Enemy = Enemies.get(i);
                 if (Enemy != null && Enemy.isActive()) {
                     ParticleSystem particles = EnemyParticles.get(Enemy);
                     if (particles == null) {
                         TransformComponent transform = Enemy.getComponent(TransformComponent.class);
                         if (transform != null) {
-                            particles = new ParticleSystem((IRenderer) renderer, transform.getPosition(), ParticleSystem.Config.light());
+                            particles = new ParticleSystem((IRenderer) renderer, transform.getPosition(), ParticleSystem.Config.light(),
+                                    particleRandom.nextLong());
                             particles.setActive(true);
                             EnemyParticles.put(Enemy, particles);
                         }
@@ -240,7 +455,7 @@ public class GameScene extends Scene {
                     if (particles != null) {
                         TransformComponent transform = Enemy.getComponent(TransformComponent.class);
                         if (transform != null) {
-                            particles.setPosition(transform.getPosition());
+                            particles.setPosition(transform.getX(), transform.getY());
                         }
                         particles.update(deltaTime);
                     }
@@ -248,15 +463,14 @@ public class GameScene extends Scene {
             }
         }
 
-        List<GameObject> toRemove = new ArrayList<>();
-        for (Map.Entry<GameObject, ParticleSystem> entry : EnemyParticles.entrySet()) {
-            if (!entry.getKey().isActive() || !Enemies.contains(entry.getKey())) {
-                toRemove.add(entry.getKey());
+        // 移除已失活或不再是场景中敌人的粒子（原地删除，判断为 O(1)，不分配临时列表）
+        Iterator<Map.Entry<GameObject, ParticleSystem>> iterator = EnemyParticles.entrySet().iterator();
+        while (iterator.hasNext()) {
+            GameObject enemy = iterator.next().getKey();
+            if (!enemy.isActive() || !enemy.hasTag(Tag.ENEMY) || !contains(enemy)) {
+                iterator.remove();
             }
         }
-        for (GameObject removed : toRemove) {
-            EnemyParticles.remove(removed);
-        }
 
         for (int i = collisionParticles.size() - 1; i >= 0; i--) {
             ParticleSystem ps = collisionParticles.get(i);
@@ -323,13 +537,8 @@ public class GameScene extends Scene {
      */
     private void renderPlayerHealthBar() {
         // 查找玩家对象
-        GameObject player = null;
-        for (GameObject obj : getGameObjects()) {
-            if ("Player".equals(obj.getidentity())) {
-                player = obj;
-                break;
-            }
-        }
+        List<GameObject> players = findGameObjectsByTag(Tag.PLAYER);
+        GameObject player = players.isEmpty() ? null : players.get(0);
         
         if (player != null) {
             LifeFeatureComponent lifeFeature = player.getComponent(LifeFeatureComponent.class);
@@ -417,107 +626,37 @@ public class GameScene extends Scene {
 
         GameObject hulu = new GameObject("Hulu Player") {
 
-            private Vector2 basePosition;
-            public List<GameObject> attackingSkillsJ = new ArrayList<>();
+            private final Vector2 basePosition = new Vector2();
+            private boolean hasBasePosition;
 
             @Override
             public void update(float deltaTime) {
                 super.update(deltaTime);
                 updateComponents(deltaTime);
                 updateBodyParts();
-                if (attackingSkillsJ.isEmpty()) {
-                    initAttackSkillJ();
-                }
             }
 
             @Override
             public void render() {
+                // 渲染时使用插值位置，避免模拟与渲染频率不同步造成的抖动
+                TransformComponent transform = getComponent(TransformComponent.class);
+                if (transform != null) {
+                    transform.getInterpolatedPosition(getRenderAlpha(), basePosition);
+                    hasBasePosition = true;
+                }
                 renderBodyParts();
             }
             
             private void updateBodyParts() {
                 TransformComponent transform = getComponent(TransformComponent.class);
                 if (transform != null) {
-                    basePosition = transform.getPosition();
-                }
-            }
-
-            public void initAttackSkillJ() {
-                
-                /**
-                 * 
-                 * 葫芦娃的技能1，按J触发
-                 * 可以向左右方向发射两道光束，造成10伤害
-                 * 
-                 */
-
-                for (int i = 0; i < 2; i++) {
-
-                    GameObject attackingSkillJ = new GameObject("Attacking SkillJ " + i) {
-
-                        @Override
-                        public void update(float deltaTime) {
-                            super.update(deltaTime);
-                            updateComponents(deltaTime);
-                        }
-
-                        @Override
-                        public void render() {
-                            renderBodyParts();
-                        }
-
-                        private void renderBodyParts() {
-                            TransformComponent transform = getComponent(TransformComponent.class);
-                            if (transform == null) return;
-                            Vector2 p = transform.getPosition();
-                            
-                            // 渲染箭头形状的攻击技能
-                            renderer.drawRect(p.x + 5f, p.y - 4f, 5f, 3f, 1.0f, 1.0f, 1.0f, 1.0f);
-                            renderer.drawRect(p.x + 5f, p.y + 1f, 5f, 3f, 1.0f, 1.0f, 1.0f, 1.0f);
-                        }
-                    };
-
-                    attackingSkillJ.setPlayerSkill();
-
-                    TransformComponent AttackingSkillJTransform = getComponent(TransformComponent.class);
-                    Vector2 AttackingSkillJTransformPosition = AttackingSkillJTransform.getPosition();
-
-                    Vector2 position = new Vector2(
-                        AttackingSkillJTransformPosition.x + (random.nextFloat() - 0.5f) * 20,
-                        AttackingSkillJTransformPosition.y + (random.nextFloat() - 0.5f) * 20
-                    );
-            
-                    attackingSkillJ.addComponent(new TransformComponent(position));
-                    
-                    RenderComponent render = attackingSkillJ.addComponent(new RenderComponent(
-                        RenderComponent.RenderType.RECTANGLE,
-                        new Vector2(20, 20),
-                        new RenderComponent.Color(1.0f, 0.5f, 0.0f, 1.0f)
-                    ));
-                    render.setRenderer(renderer);
-                    
-                    PhysicsComponent physics = attackingSkillJ.addComponent(new PhysicsComponent(0.5f));
-                    physics.setVelocity(new Vector2(
-                        (random.nextFloat() - 0.5f) * 100,
-                        (random.nextFloat() - 0.5f) * 100
-                    ));
-                    physics.setFriction(0.98f);
-                    
-                    // 添加生命周期组件，设置0.5秒生命周期
-                    LifeFeatureComponent lifeFeature = attackingSkillJ.addComponent(new LifeFeatureComponent(1));
-                    lifeFeature.setLifetime(1.0f); // 技能存活1秒
-
-                    this.attackingSkillsJ.add(attackingSkillJ);
-                    addGameObject(attackingSkillJ);
+                    transform.getPosition(basePosition);
+                    hasBasePosition = true;
                 }
             }
 
-            public List<GameObject> getAttackingSkillsJ() {
-                return this.attackingSkillsJ;
-            }
-
             private void renderBodyParts() {
-                if (basePosition == null) return;
+                if (!hasBasePosition) return;
                 
                 // 渲染葫芦身体上部 - 较小的圆
                 renderer.drawCircle(
@@ -584,13 +723,69 @@ public class GameScene extends Scene {
         addGameObject(hulu);
     }
 
+    /**
+     * 新建葫芦娃的技能1（由对象池调用），按J触发
+     * 每次向两个方向发射光束，命中或存活1秒后归还对象池
+     */
+    private GameObject newPlayerSkill() {
+        GameObject attackingSkillJ = new GameObject("Attacking SkillJ") {
+
+            @Override
+            public void update(float deltaTime) {
+                super.update(deltaTime);
+                updateComponents(deltaTime);
+            }
+
+            @Override
+            public void render() {
+                renderBodyParts();
+            }
+
+            private void renderBodyParts() {
+                TransformComponent transform = getComponent(TransformComponent.class);
+                if (transform == null) return;
+                float alpha = getRenderAlpha();
+                float px = transform.getInterpolatedX(alpha);
+                float py = transform.getInterpolatedY(alpha);
+                
+                // 渲染箭头形状的攻击技能
+                renderer.drawRect(px + 5f, py - 4f, 5f, 3f, 1.0f, 1.0f, 1.0f, 1.0f);
+                renderer.drawRect(px + 5f, py + 1f, 5f, 3f, 1.0f, 1.0f, 1.0f, 1.0f);
+            }
+        };
+
+        attackingSkillJ.setPlayerSkill();
+
+        // 位置与速度在发射时设置
+        attackingSkillJ.addComponent(new TransformComponent(new Vector2()));
+        
+        RenderComponent render = attackingSkillJ.addComponent(new RenderComponent(
+            RenderComponent.RenderType.RECTANGLE,
+            new Vector2(20, 20),
+            new RenderComponent.Color(1.0f, 0.5f, 0.0f, 1.0f)
+        ));
+        render.setRenderer(renderer);
+        
+        PhysicsComponent physics = attackingSkillJ.addComponent(new PhysicsComponent(0.5f));
+        physics.setFriction(0.98f);
+        
+        // 添加生命周期组件
+        LifeFeatureComponent lifeFeature = attackingSkillJ.addComponent(new LifeFeatureComponent(1));
+        lifeFeature.setLifetime(1.0f); // 技能存活1秒
+
+        return attackingSkillJ;
+    }
+
     private void createEnemySoldiers() {
         for (int i = 0; i <= 5; i++) {
-            createEnemySoldier();
+            spawnEnemySoldier();
         }
     }
 
-    private void createEnemySoldier() {
+    /**
+     * 新建士兵对象（由对象池调用）
+     */
+    private GameObject newEnemySoldier() {
         GameObject enemySoldier = new GameObject("EnemySoldier") {
 
             @Override
@@ -607,40 +802,42 @@ public class GameScene extends Scene {
             private void renderBodyParts() {
                 TransformComponent transform = getComponent(TransformComponent.class);
                 if (transform == null) return;
-                Vector2 p = transform.getPosition();
+                float alpha = getRenderAlpha();
+                float px = transform.getInterpolatedX(alpha);
+                float py = transform.getInterpolatedY(alpha);
 
                 // Torso (uniform)
-                renderer.drawRect(p.x - 8f, p.y - 2f, 16f, 20f, 0.12f, 0.40f, 0.18f, 1f);
+                renderer.drawRect(px - 8f, py - 2f, 16f, 20f, 0.12f, 0.40f, 0.18f, 1f);
 
                 // Head
-                renderer.drawCircle(p.x, p.y - 14f, 6f, 24, 1.0f, 0.86f, 0.72f, 1.0f);
+                renderer.drawCircle(px, py - 14f, 6f, 24, 1.0f, 0.86f, 0.72f, 1.0f);
 
                 // Helmet
-                renderer.drawRect(p.x - 7f, p.y - 19f, 14f, 6f, 0.10f, 0.30f, 0.12f, 1.0f);
-                renderer.drawRect(p.x - 7f, p.y - 14f, 14f, 2f, 0.08f, 0.25f, 0.10f, 1.0f);
+                renderer.drawRect(px - 7f, py - 19f, 14f, 6f, 0.10f, 0.30f, 0.12f, 1.0f);
+                renderer.drawRect(px - 7f, py - 14f, 14f, 2f, 0.08f, 0.25f, 0.10f, 1.0f);
 
                 // Eyes
-                renderer.drawCircle(p.x - 2.0f, p.y - 14.0f, 0.8f, 12, 0f, 0f, 0f, 1f);
-                renderer.drawCircle(p.x + 2.0f, p.y - 14.0f, 0.8f, 12, 0f, 0f, 0f, 1f);
+                renderer.drawCircle(px - 2.0f, py - 14.0f, 0.8f, 12, 0f, 0f, 0f, 1f);
+                renderer.drawCircle(px + 2.0f, py - 14.0f, 0.8f, 12, 0f, 0f, 0f, 1f);
 
                 // Arms (uniform)
-                renderer.drawRect(p.x - 14f, p.y - 2f, 6f, 14f, 0.12f, 0.40f, 0.18f, 1f);
-                renderer.drawRect(p.x + 8f, p.y - 2f, 6f, 14f, 0.12f, 0.40f, 0.18f, 1f);
+                renderer.drawRect(px - 14f, py - 2f, 6f, 14f, 0.12f, 0.40f, 0.18f, 1f);
+                renderer.drawRect(px + 8f, py - 2f, 6f, 14f, 0.12f, 0.40f, 0.18f, 1f);
 
                 // Belt
-                renderer.drawRect(p.x - 8f, p.y + 6f, 16f, 2f, 0.05f, 0.05f, 0.05f, 1f);
+                renderer.drawRect(px - 8f, py + 6f, 16f, 2f, 0.05f, 0.05f, 0.05f, 1f);
 
                 // Legs (pants)
-                renderer.drawRect(p.x - 6f, p.y + 12f, 6f, 12f, 0.10f, 0.35f, 0.15f, 1f);
-                renderer.drawRect(p.x + 0f, p.y + 12f, 6f, 12f, 0.10f, 0.35f, 0.15f, 1f);
+                renderer.drawRect(px - 6f, py + 12f, 6f, 12f, 0.10f, 0.35f, 0.15f, 1f);
+                renderer.drawRect(px + 0f, py + 12f, 6f, 12f, 0.10f, 0.35f, 0.15f, 1f);
 
                 // Boots
-                renderer.drawRect(p.x - 6f, p.y + 22f, 6f, 3f, 0f, 0f, 0f, 1f);
-                renderer.drawRect(p.x + 0f, p.y + 22f, 6f, 3f, 0f, 0f, 0f, 1f);
+                renderer.drawRect(px - 6f, py + 22f, 6f, 3f, 0f, 0f, 0f, 1f);
+                renderer.drawRect(px + 0f, py + 22f, 6f, 3f, 0f, 0f, 0f, 1f);
 
                 // Rifle
-                renderer.drawRect(p.x + 12f, p.y - 2f, 14f, 2f, 0.1f, 0.1f, 0.1f, 1f);
-                renderer.drawRect(p.x + 12f, p.y + 0f, 3f, 6f, 0.1f, 0.1f, 0.1f, 1f);
+                renderer.drawRect(px + 12f, py - 2f, 14f, 2f, 0.1f, 0.1f, 0.1f, 1f);
+                renderer.drawRect(px + 12f, py + 0f, 3f, 6f, 0.1f, 0.1f, 0.1f, 1f);
                 
                 // 渲染血条在头顶上方
                 LifeFeatureComponent lifeFeature = getComponent(LifeFeatureComponent.class);
@@ -648,13 +845,44 @@ public class GameScene extends Scene {
                     int currentHealth = lifeFeature.getBlood();
                     int maxHealth = 100; // 最大血量为100
                     // 血条位于敌人头顶上方
-                    renderer.drawHealthBar(p.x - 15f, p.y - 30f, 30f, 4f, currentHealth, maxHealth);
+                    renderer.drawHealthBar(px - 15f, py - 30f, 30f, 4f, currentHealth, maxHealth);
                 }
             }
         };
 
         enemySoldier.setEnemy();
 
+        // 位置与速度在每次从对象池取出时设置
+        enemySoldier.addComponent(new TransformComponent(new Vector2()));
+        
+        // 添加渲染组件
+        RenderComponent render = enemySoldier.addComponent(new RenderComponent(
+            RenderComponent.RenderType.RECTANGLE,
+            new Vector2(20, 20),
+            new RenderComponent.Color(1.0f, 0.5f, 0.0f, 1.0f)
+        ));
+        render.setRenderer(renderer);
+        
+        // 添加物理组件
+        PhysicsComponent physics = enemySoldier.addComponent(new PhysicsComponent(0.5f));
+        physics.setFriction(0.98f);
+
+        // 添加生命特征组件
+        enemySoldier.addComponent(new LifeFeatureComponent(100));
+        
+        return enemySoldier;
+    }
+
+    /**
+     * 从对象池取出一个士兵，放到远离玩家的随机位置
+     */
+    private void spawnEnemySoldier() {
+        GameObject enemySoldier = soldierPool.acquire();
+        if (enemySoldier == null) {
+            // 池已满时跳过本次生成（次数见 GameObjectPool.getMissCount）
+            return;
+        }
+
         // 生成远离玩家的位置（优先相对于当前玩家位置）
         // 确保敌人距离玩家至少 minDistance 像素
         Vector2 position;
@@ -692,48 +920,25 @@ public class GameScene extends Scene {
             }
         } while (true);
         
-        // 添加变换组件
-        enemySoldier.addComponent(new TransformComponent(position));
-        
-        // 添加渲染组件
-        RenderComponent render = enemySoldier.addComponent(new RenderComponent(
-            RenderComponent.RenderType.RECTANGLE,
-            new Vector2(20, 20),
-            new RenderComponent.Color(1.0f, 0.5f, 0.0f, 1.0f)
-        ));
-        render.setRenderer(renderer);
-        
-        // 添加物理组件
-        PhysicsComponent physics = enemySoldier.addComponent(new PhysicsComponent(0.5f));
-        physics.setVelocity(new Vector2(
+        enemySoldier.getComponent(TransformComponent.class).moveTo(position);
+        enemySoldier.getComponent(PhysicsComponent.class).setVelocity(new Vector2(
             (random.nextFloat() - 0.5f) * 100,
             (random.nextFloat() - 0.5f) * 100
         ));
-        physics.setFriction(0.98f);
-
-        // 添加生命特征组件
-        LifeFeatureComponent lifeFeatures = enemySoldier.addComponent(new LifeFeatureComponent(100));
-        
-        addGameObject(enemySoldier);
     }
 
     /**
      * 国王怪
+     * 新建国王对象（由对象池调用）
      */
-
-    private void createEnemyKing() {
+    private GameObject newEnemyKing() {
 
         GameObject enemyKing = new GameObject("EnemyKing") {
 
-            public List<GameObject> attackingSkills = new ArrayList<>();
-            
             @Override
             public void update(float deltaTime) {
                 super.update(deltaTime);
                 updateComponents(deltaTime);
-                if (attackingSkills.isEmpty()) {
-                    initAttackingSkills();
-                }
             }
 
             @Override
@@ -744,41 +949,43 @@ public class GameScene extends Scene {
             private void renderBodyParts() {
                 TransformComponent transform = getComponent(TransformComponent.class);
                 if (transform == null) return;
-                Vector2 p = transform.getPosition();
+                float alpha = getRenderAlpha();
+                float px = transform.getInterpolatedX(alpha);
+                float py = transform.getInterpolatedY(alpha);
 
                 // Torso (king's robe)
-                renderer.drawRect(p.x - 10f, p.y - 10f, 20f, 30f, 0.8f, 0.2f, 0.2f, 1f);
+                renderer.drawRect(px - 10f, py - 10f, 20f, 30f, 0.8f, 0.2f, 0.2f, 1f);
 
                 // Head
-                renderer.drawCircle(p.x, p.y - 20f, 8f, 24, 1.0f, 0.8f, 0.6f, 1.0f);
+                renderer.drawCircle(px, py - 20f, 8f, 24, 1.0f, 0.8f, 0.6f, 1.0f);
 
                 // Crown
-                renderer.drawRect(p.x - 10f, p.y - 28f, 20f, 6f, 1.0f, 0.8f, 0.0f, 1.0f);
+                renderer.drawRect(px - 10f, py - 28f, 20f, 6f, 1.0f, 0.8f, 0.0f, 1.0f);
 
                 // Eyes
-                renderer.drawCircle(p.x - 3.0f, p.y - 20.0f, 1.0f, 12, 0f, 0f, 0f, 1f);
-                renderer.drawCircle(p.x + 3.0f, p.y - 20.0f, 1.0f, 12, 0f, 0f, 0f, 1f);
+                renderer.drawCircle(px - 3.0f, py - 20.0f, 1.0f, 12, 0f, 0f, 0f, 1f);
+                renderer.drawCircle(px + 3.0f, py - 20.0f, 1.0f, 12, 0f, 0f, 0f, 1f);
 
                 // Mouth
-                renderer.drawRect(p.x - 3.0f, p.y - 15.0f, 6.0f, 2.0f, 0.0f, 0.0f, 0.0f, 1.0f);
+                renderer.drawRect(px - 3.0f, py - 15.0f, 6.0f, 2.0f, 0.0f, 0.0f, 0.0f, 1.0f);
 
                 // Arms (king's sleeves)
-                renderer.drawRect(p.x - 15f, p.y - 10f, 5f, 20f, 0.8f, 0.2f, 0.2f, 1f);
-                renderer.drawRect(p.x + 10f, p.y - 10f, 5f, 20f, 0.8f, 0.2f, 0.2f, 1f);
+                renderer.drawRect(px - 15f, py - 10f, 5f, 20f, 0.8f, 0.2f, 0.2f, 1f);
+                renderer.drawRect(px + 10f, py - 10f, 5f, 20f, 0.8f, 0.2f, 0.2f, 1f);
 
                 // Detailed hands
-                renderer.drawRect(p.x - 20f, p.y - 10f, 5f, 5f, 0.8f, 0.6f, 0.4f, 1f);
-                renderer.drawRect(p.x + 15f, p.y - 10f, 5f, 5f, 0.8f, 0.6f, 0.4f, 1f);
+                renderer.drawRect(px - 20f, py - 10f, 5f, 5f, 0.8f, 0.6f, 0.4f, 1f);
+                renderer.drawRect(px + 15f, py - 10f, 5f, 5f, 0.8f, 0.6f, 0.4f, 1f);
 
                 // Legs (king's pants)
-                renderer.drawRect(p.x - 6f, p.y + 20f, 6f, 12f, 0.5f, 0.5f, 0.5f, 1f);
-                renderer.drawRect(p.x + 0f, p.y + 20f, 6f, 12f, 0.5f, 0.5f, 0.5f, 1f);
+                renderer.drawRect(px - 6f, py + 20f, 6f, 12f, 0.5f, 0.5f, 0.5f, 1f);
+                renderer.drawRect(px + 0f, py + 20f, 6f, 12f, 0.5f, 0.5f, 0.5f, 1f);
 
                 // Detailed feet
-                renderer.drawRect(p.x - 6f, p.y + 32f, 6f, 3f, 0.3f, 0.3f, 0.3f, 1f);
-                renderer.drawRect(p.x + 0f, p.y + 32f, 6f, 3f, 0.3f, 0.3f, 0.3f, 1f);
-                renderer.drawRect(p.x - 6f, p.y + 35f, 3f, 2f, 0.2f, 0.2f, 0.2f, 1f);
-                renderer.drawRect(p.x + 3f, p.y + 35f, 3f, 2f, 0.2f, 0.2f, 0.2f, 1f);
+                renderer.drawRect(px - 6f, py + 32f, 6f, 3f, 0.3f, 0.3f, 0.3f, 1f);
+                renderer.drawRect(px + 0f, py + 32f, 6f, 3f, 0.3f, 0.3f, 0.3f, 1f);
+                renderer.drawRect(px - 6f, py + 35f, 3f, 2f, 0.2f, 0.2f, 0.2f, 1f);
+                renderer.drawRect(px + 3f, py + 35f, 3f, 2f, 0.2f, 0.2f, 0.2f, 1f);
                 
                 // 渲染血条在王冠上方
                 LifeFeatureComponent lifeFeature = getComponent(LifeFeatureComponent.class);
@@ -786,76 +993,42 @@ public class GameScene extends Scene {
                     int currentHealth = lifeFeature.getBlood();
                     int maxHealth = 200; // 最大血量为200
                     // 血条位于敌人王冠上方
-                    renderer.drawHealthBar(p.x - 20f, p.y - 38f, 40f, 5f, currentHealth, maxHealth);
+                    renderer.drawHealthBar(px - 20f, py - 38f, 40f, 5f, currentHealth, maxHealth);
                 }
             }
+        };
 
-            public void initAttackingSkills() {
-                for (int i = 0; i < 5; i++) {
-                    GameObject attackingSkill = new GameObject("Attacking Skill " + i) {
-                        @Override
-                        public void update(float deltaTime) {
-                            super.update(deltaTime);
-                            updateComponents(deltaTime);
-                        }
-
-                        @Override
-                        public void render() {
-                            renderBodyParts();
-                        }
+        enemyKing.setEnemy();
+        enemyKing.addTag(Tag.ENEMY_KING);
 
-                        private void renderBodyParts() {
-                            TransformComponent transform = getComponent(TransformComponent.class);
-                            if (transform == null) return;
-                            Vector2 p = transform.getPosition();
-                            
-                            // 渲染箭头形状的攻击技能
-                            renderer.drawRect(p.x - 10f, p.y - 1f, 14f, 3f, 1.0f, 0.0f, 0.0f, 1f);
-                            renderer.drawRect(p.x + 5f, p.y - 4f, 5f, 3f, 1.0f, 0.0f, 0.0f, 1f);
-                            renderer.drawRect(p.x + 5f, p.y + 1f, 5f, 3f, 1.0f, 0.0f, 0.0f, 1f);
-                            renderer.drawRect(p.x + 7f, p.y - 2f, 3f, 2f, 1.0f, 0.0f, 0.0f, 1f);
-                            renderer.drawRect(p.x + 7f, p.y + 1f, 3f, 2f, 1.0f, 0.0f, 0.0f, 1f);
-                        }
-                    };
-
-                    TransformComponent enemyKingTransform = getComponent(TransformComponent.class);
-                    Vector2 enemyKingPosition = enemyKingTransform.getPosition();
-                    Vector2 position = new Vector2(
-                        enemyKingPosition.x + (random.nextFloat() - 0.5f) * 20,
-                        enemyKingPosition.y + (random.nextFloat() - 0.5f) * 20
-                    );
-                    attackingSkill.setEnemySkill();
-                    attackingSkill.addComponent(new TransformComponent(position));
-                    
-                    RenderComponent render = attackingSkill.addComponent(new RenderComponent(
-                        RenderComponent.RenderType.RECTANGLE,
-                        new Vector2(20, 20),
-                        new RenderComponent.Color(1.0f, 0.5f, 0.0f, 1.0f)
-                    ));
-                    render.setRenderer(renderer);
-                    
-                    PhysicsComponent physics = attackingSkill.addComponent(new PhysicsComponent(0.5f));
-                    physics.setVelocity(new Vector2(
-                        (random.nextFloat() - 0.5f) * 100,
-                        (random.nextFloat() - 0.5f) * 100
-                    ));
-                    physics.setFriction(0.98f);
-
-                    // 添加生命周期组件，设置0.5秒生命周期
-                    LifeFeatureComponent lifeFeature = attackingSkill.addComponent(new LifeFeatureComponent(1));
-                    lifeFeature.setLifetime(2.0f); // 技能存活2秒
-
-                    this.attackingSkills.add(attackingSkill);
-                    addGameObject(attackingSkill);
-                }
-            }
+        // 位置与速度在每次从对象池取出时设置
+        enemyKing.addComponent(new TransformComponent(new Vector2()));
+        
+        RenderComponent render = enemyKing.addComponent(new RenderComponent(
+            RenderComponent.RenderType.RECTANGLE,
+            new Vector2(20, 20),
+            new RenderComponent.Color(1.0f, 0.5f, 0.0f, 1.0f)
+        ));
+        render.setRenderer(renderer);
+        
+        PhysicsComponent physics = enemyKing.addComponent(new PhysicsComponent(0.5f));
+        physics.setFriction(0.98f);
+        
+        // 添加生命特征组件
+        enemyKing.addComponent(new LifeFeatureComponent(200));
 
-            public List<GameObject> getAttackingSkills() {
-                return this.attackingSkills;
-            }
-        };
+        return enemyKing;
+    }
 
-        enemyKing.setEnemy();
+    /**
+     * 从对象池取出国王，放到远离玩家中心的随机位置
+     */
+    private void spawnEnemyKing() {
+        GameObject enemyKing = kingPool.acquire();
+        if (enemyKing == null) {
+            // 池已满时跳过本次生成（次数见 GameObjectPool.getMissCount）
+            return;
+        }
 
         // 生成远离玩家中心(800, 600)的随机位置
         // 确保敌人距离玩家至少400像素
@@ -881,27 +1054,66 @@ public class GameScene extends Scene {
                 break;
             }
         } while (true);
+
+        enemyKing.getComponent(TransformComponent.class).moveTo(position);
+        enemyKing.getComponent(PhysicsComponent.class).setVelocity(new Vector2(
+            (random.nextFloat() - 0.5f) * 100,
+            (random.nextFloat() - 0.5f) * 100
+        ));
+    }
+
+    /**
+     * 新建国王的攻击技能（由对象池调用），命中玩家不消失，存活2秒后归还对象池
+     */
+    private GameObject newEnemySkill() {
+        GameObject attackingSkill = new GameObject("Attacking Skill") {
+            @Override
+            public void update(float deltaTime) {
+                super.update(deltaTime);
+                updateComponents(deltaTime);
+            }
+
+            @Override
+            public void render() {
+                renderBodyParts();
+            }
+
+            private void renderBodyParts() {
+                TransformComponent transform = getComponent(TransformComponent.class);
+                if (transform == null) return;
+                float alpha = getRenderAlpha();
+                float px = transform.getInterpolatedX(alpha);
+                float py = transform.getInterpolatedY(alpha);
+                
+                // 渲染箭头形状的攻击技能
+                renderer.drawRect(px - 10f, py - 1f, 14f, 3f, 1.0f, 0.0f, 0.0f, 1f);
+                renderer.drawRect(px + 5f, py - 4f, 5f, 3f, 1.0f, 0.0f, 0.0f, 1f);
+                renderer.drawRect(px + 5f, py + 1f, 5f, 3f, 1.0f, 0.0f, 0.0f, 1f);
+                renderer.drawRect(px + 7f, py - 2f, 3f, 2f, 1.0f, 0.0f, 0.0f, 1f);
+                renderer.drawRect(px + 7f, py + 1f, 3f, 2f, 1.0f, 0.0f, 0.0f, 1f);
+            }
+        };
+
+        attackingSkill.setEnemySkill();
+
+        // 位置与速度在发射时设置
+        attackingSkill.addComponent(new TransformComponent(new Vector2()));
         
-        enemyKing.addComponent(new TransformComponent(position));
-        
-        RenderComponent render = enemyKing.addComponent(new RenderComponent(
+        RenderComponent render = attackingSkill.addComponent(new RenderComponent(
             RenderComponent.RenderType.RECTANGLE,
             new Vector2(20, 20),
             new RenderComponent.Color(1.0f, 0.5f, 0.0f, 1.0f)
         ));
         render.setRenderer(renderer);
         
-        PhysicsComponent physics = enemyKing.addComponent(new PhysicsComponent(0.5f));
-        physics.setVelocity(new Vector2(
-            (random.nextFloat() - 0.5f) * 100,
-            (random.nextFloat() - 0.5f) * 100
-        ));
+        PhysicsComponent physics = attackingSkill.addComponent(new PhysicsComponent(0.5f));
         physics.setFriction(0.98f);
-        
-        // 添加生命特征组件
-        LifeFeatureComponent lifeFeatures = enemyKing.addComponent(new LifeFeatureComponent(200));
 
-        addGameObject(enemyKing);
+        // 添加生命周期组件
+        LifeFeatureComponent lifeFeature = attackingSkill.addComponent(new LifeFeatureComponent(1));
+        lifeFeature.setLifetime(2.0f); // 技能存活2秒
+
+        return attackingSkill;
     }
 
     private void createTree() {
@@ -920,13 +1132,15 @@ public class GameScene extends Scene {
             public void renderBodyParts() {
                 TransformComponent transform = getComponent(TransformComponent.class);
                 if (transform == null) return;
-                Vector2 p = transform.getPosition();
+                float alpha = getRenderAlpha();
+                float px = transform.getInterpolatedX(alpha);
+                float py = transform.getInterpolatedY(alpha);
                 
                 // Render the trunk
-                renderer.drawRect(p.x - 1.0f, p.y, 2.0f, 10.0f, 0.54f, 0.27f, 0.07f, 1.0f);
+                renderer.drawRect(px - 1.0f, py, 2.0f, 10.0f, 0.54f, 0.27f, 0.07f, 1.0f);
 
                 // Render the leaves (top)
-                renderer.drawCircle(p.x, p.y - 5.0f, 8.0f, 32, 0.0f, 0.5f, 0.0f, 1.0f);
+                renderer.drawCircle(px, py - 5.0f, 8.0f, 32, 0.0f, 0.5f, 0.0f, 1.0f);
             }
         };
         
@@ -958,12 +1172,12 @@ public class GameScene extends Scene {
     }
 
     public void level2() {
-        createEnemyKing();
+        spawnEnemyKing();
     }
 
     public void level3() {
         createEnemySoldiers();
-        createEnemyKing();
+        spawnEnemyKing();
     }
 
 }
@@ -0,0 +1,37 @@
+package com.gameengine.app;
+
+import com.gameengine.core.GameEngine;
+import com.gameengine.graphics.RenderBackend;
+
+/**
+ * 无窗口入口
+ * 不创建窗口，直接以不限速方式运行游戏场景，并输出每秒模拟次数
+ * 用法: HeadlessGame [模拟次数] [模拟频率] [随机种子]
+ * 指定随机种子时以确定性模式运行，同一种子的多次运行结果完全相同
+ */
+public class HeadlessGame {
+    public static void main(String[] args) {
+        long ticks = args.length > 0 ? Long.parseLong(args[0]) : 10_000L;
+        float tickRate = args.length > 1 ? Float.parseFloat(args[1]) : 60.0f;
+
+        System.out.println("使用渲染后端: HEADLESS");
+        GameEngine engine = new GameEngine(1600, 1200, "葫芦娃大战妖怪", RenderBackend.HEADLESS);
+        engine.setFixedTimeStep(true);
+        engine.setTickRate(tickRate);
+        engine.setUncappedTicks(true);
+        engine.setMaxTicks(ticks);
+        if (args.length > 2) {
+            engine.setDeterministic(Long.parseLong(args[2]));
+        }
+
+        engine.setScene(new GameScene("Hulu Game", engine));
+
+        long start = System.nanoTime();
+        engine.run();
+        double seconds = (System.nanoTime() - start) / 1_000_000_000.0;
+
+        long done = engine.getTickCount();
+        System.out.printf("模拟次数: %d, 耗时: %.3f 秒, 模拟速度: %.1f ticks/s\n",
+                done, seconds, seconds > 0 ? done / seconds : 0.0);
+    }
+}
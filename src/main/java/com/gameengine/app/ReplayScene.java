@@ -10,6 +10,7 @@ import java.util.List;
 import com.gameengine.core.GameEngine;
 import com.gameengine.graphics.IRenderer;
 import com.gameengine.input.InputManager;
+import com.gameengine.input.InputPlayback;
 import com.gameengine.scene.Scene;
 
 /**
@@ -193,6 +194,16 @@ public class ReplayScene extends Scene {
 
 
     public void loadRecording(String recordingFilePath) {
+        // 确定性录制：用种子与输入重新模拟；否则按记录的对象状态逐帧回放
+        if (InputPlayback.isLockstepRecording(recordingFilePath)) {
+            try {
+                InputPlayback playback = InputPlayback.load(recordingFilePath);
+                engine.setScene(new GameScene("Hulu Replay", engine, playback));
+            } catch (IOException e) {
+                System.err.println("读取输入录制文件时出错: " + e.getMessage());
+            }
+            return;
+        }
         Scene recordingScene = new RecordingScene(engine, recordingFilePath);
         engine.setScene(recordingScene);
     }
@@ -1,7 +1,6 @@
 package com.gameengine.components;
 
 import com.gameengine.core.Component;
-import com.gameengine.math.Vector2;
 
 public class LifeFeatureComponent extends Component<LifeFeatureComponent> {
     /**
@@ -9,6 +8,7 @@ public class LifeFeatureComponent extends Component<LifeFeatureComponent> {
      * 例如其攻击力，生命值，攻击的生命周期等
      */
     public int blood;
+    private final int initialBlood; // 初始生命值，回到对象池时恢复
     private float lifetime; // 生命周期计时器
     private float maxLifetime; // 最大生命周期（-1表示无限）
     private boolean hasLifetime; // 是否启用生命周期
@@ -16,6 +16,7 @@ public class LifeFeatureComponent extends Component<LifeFeatureComponent> {
 
     public LifeFeatureComponent(int blood) {
         this.blood = blood;
+        this.initialBlood = blood;
         this.lifetime = 0;
         this.maxLifetime = -1; // 默认无限生命周期
         this.hasLifetime = false;
@@ -30,6 +31,7 @@ public class LifeFeatureComponent extends Component<LifeFeatureComponent> {
         this.maxLifetime = maxLifetime;
         this.hasLifetime = true;
         this.lifetime = 0;
+        markChanged();
     }
     
     /**
@@ -37,6 +39,15 @@ public class LifeFeatureComponent extends Component<LifeFeatureComponent> {
      */
     public void resetLifetime() {
         this.lifetime = 0;
+        markChanged();
+    }
+
+    /**
+     * 扣除生命值（直接修改 blood 字段时需手动调用 markChanged）
+     */
+    public void damage(int amount) {
+        this.blood -= amount;
+        markChanged();
     }
 
     @Override
@@ -49,25 +60,24 @@ public class LifeFeatureComponent extends Component<LifeFeatureComponent> {
         // 如果启用了生命周期，则更新计时器
         if (hasLifetime && maxLifetime > 0) {
             lifetime += deltaTime;
+            markChanged();
             
-            // 生命周期结束，将对象移到屏幕外
+            // 生命周期结束，回收对象（来自对象池时归还，之后不再参与更新、碰撞与渲染）
             if (lifetime >= maxLifetime) {
-                TransformComponent transform = owner.getComponent(TransformComponent.class);
-                PhysicsComponent physics = owner.getComponent(PhysicsComponent.class);
-                
-                if (transform != null) {
-                    transform.setPosition(new Vector2(-1000, -1000));
-                }
-                if (physics != null) {
-                    physics.setVelocity(new Vector2(0, 0));
-                }
-                
-                // 重置生命周期以便下次使用
                 lifetime = 0;
+                owner.release();
             }
         }
     }
 
+    @Override
+    public void reset() {
+        this.blood = initialBlood;
+        this.lifetime = 0;
+        this.isunbeatable = false;
+        markChanged();
+    }
+
     @Override
     public void render() {
         // TODO Auto-generated method stub
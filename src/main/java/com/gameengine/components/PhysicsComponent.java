@@ -4,23 +4,28 @@ import com.gameengine.core.Component;
 import com.gameengine.math.Vector2;
 
 /**
- * 物理组件，处理物理运动
+ * 物理组件，保存物理运动的状态
+ * 积分（加速度、重力、摩擦）与边界处理由 PhysicsSystem 对全部对象批量完成，本组件不再逐个更新
+ * 速度、加速度与重力以 float 字段保存；以 Vector2 为参数或返回值的方法保留为兼容层
+ * 所有修改状态的方法都会调用 markChanged
  */
 public class PhysicsComponent extends Component<PhysicsComponent> {
-    private Vector2 velocity;
-    private Vector2 acceleration;
+    private float velocityX;
+    private float velocityY;
+    private float accelerationX;
+    private float accelerationY;
     private float mass;
     private float friction;
     private boolean useGravity;
-    private Vector2 gravity;
+    private float gravityX;
+    private float gravityY;
     
     public PhysicsComponent() {
-        this.velocity = new Vector2();
-        this.acceleration = new Vector2();
         this.mass = 1.0f;
         this.friction = 0.9f;
         this.useGravity = false;
-        this.gravity = new Vector2(0, 9.8f);
+        this.gravityX = 0;
+        this.gravityY = 9.8f;
     }
     
     public PhysicsComponent(float mass) {
@@ -35,28 +40,7 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     
     @Override
     public void update(float deltaTime) {
-        if (!enabled) return;
-        
-        TransformComponent transform = owner.getComponent(TransformComponent.class);
-        if (transform == null) return;
-        
-        // 应用重力
-        if (useGravity) {
-            acceleration = acceleration.add(gravity);
-        }
-        
-        // 更新速度
-        velocity = velocity.add(acceleration.multiply(deltaTime));
-        
-        // 应用摩擦力
-        velocity = velocity.multiply(friction);
-        
-        // 更新位置
-        Vector2 deltaPosition = velocity.multiply(deltaTime);
-        transform.translate(deltaPosition);
-        
-        // 重置加速度
-        acceleration = new Vector2();
+        // 积分由 PhysicsSystem 统一完成
     }
     
     @Override
@@ -64,14 +48,23 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
         // 物理组件不直接渲染
     }
 
+    @Override
+    public void reset() {
+        velocityX = 0;
+        velocityY = 0;
+        accelerationX = 0;
+        accelerationY = 0;
+        markChanged();
+    }
+
     @Override
     public String record() {
         // 记录物理状态（位置、速度等）
         String recordLine = "";
         if (owner != null) {
             recordLine = String.format("%f|%f",
-                    velocity.x,
-                    velocity.y);
+                    velocityX,
+                    velocityY);
         }
         return recordLine;
     }
@@ -80,8 +73,15 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      * 应用力
      */
     public void applyForce(Vector2 force) {
+        applyForce(force.x, force.y);
+    }
+
+    public void applyForce(float fx, float fy) {
         if (mass > 0) {
-            acceleration = acceleration.add(force.multiply(1.0f / mass));
+            float inverseMass = 1.0f / mass;
+            accelerationX += fx * inverseMass;
+            accelerationY += fy * inverseMass;
+            markChanged();
         }
     }
     
@@ -89,8 +89,15 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      * 应用冲量
      */
     public void applyImpulse(Vector2 impulse) {
+        applyImpulse(impulse.x, impulse.y);
+    }
+
+    public void applyImpulse(float ix, float iy) {
         if (mass > 0) {
-            velocity = velocity.add(impulse.multiply(1.0f / mass));
+            float inverseMass = 1.0f / mass;
+            velocityX += ix * inverseMass;
+            velocityY += iy * inverseMass;
+            markChanged();
         }
     }
     
@@ -98,28 +105,57 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      * 设置速度
      */
     public void setVelocity(Vector2 velocity) {
-        this.velocity = new Vector2(velocity);
+        setVelocity(velocity.x, velocity.y);
     }
     
     /**
      * 设置速度
      */
     public void setVelocity(float x, float y) {
-        this.velocity = new Vector2(x, y);
+        this.velocityX = x;
+        this.velocityY = y;
+        markChanged();
+    }
+    
+    /**
+     * 写回 PhysicsSystem 的积分结果：设置速度并清空本帧累计的加速度
+     * 状态没有变化时不标记修改，静止的对象保持未修改
+     */
+    public void setIntegratedVelocity(float x, float y) {
+        if (velocityX == x && velocityY == y && accelerationX == 0 && accelerationY == 0) {
+            return;
+        }
+        this.velocityX = x;
+        this.velocityY = y;
+        this.accelerationX = 0;
+        this.accelerationY = 0;
+        markChanged();
     }
     
     /**
      * 添加速度
      */
     public void addVelocity(Vector2 delta) {
-        this.velocity = velocity.add(delta);
+        addVelocity(delta.x, delta.y);
+    }
+
+    public void addVelocity(float dx, float dy) {
+        this.velocityX += dx;
+        this.velocityY += dy;
+        markChanged();
     }
     
     /**
      * 设置重力
      */
     public void setGravity(Vector2 gravity) {
-        this.gravity = new Vector2(gravity);
+        setGravity(gravity.x, gravity.y);
+    }
+
+    public void setGravity(float x, float y) {
+        this.gravityX = x;
+        this.gravityY = y;
+        markChanged();
     }
     
     /**
@@ -127,6 +163,7 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      */
     public void setUseGravity(boolean useGravity) {
         this.useGravity = useGravity;
+        markChanged();
     }
     
     /**
@@ -134,6 +171,7 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      */
     public void setFriction(float friction) {
         this.friction = Math.max(0, Math.min(1, friction));
+        markChanged();
     }
     
     /**
@@ -141,15 +179,42 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
      */
     public void setMass(float mass) {
         this.mass = Math.max(0.1f, mass);
+        markChanged();
     }
     
     // Getters
+    /**
+     * 获取速度的副本；热路径请使用 getVelocityX/getVelocityY 或 getVelocity(out)
+     */
     public Vector2 getVelocity() {
-        return new Vector2(velocity);
+        return new Vector2(velocityX, velocityY);
+    }
+
+    /**
+     * 把速度写入 out 并返回 out，不产生分配
+     */
+    public Vector2 getVelocity(Vector2 out) {
+        return out.set(velocityX, velocityY);
+    }
+
+    public float getVelocityX() {
+        return velocityX;
+    }
+
+    public float getVelocityY() {
+        return velocityY;
     }
     
     public Vector2 getAcceleration() {
-        return new Vector2(acceleration);
+        return new Vector2(accelerationX, accelerationY);
+    }
+
+    public float getAccelerationX() {
+        return accelerationX;
+    }
+
+    public float getAccelerationY() {
+        return accelerationY;
     }
     
     public float getMass() {
@@ -165,6 +230,14 @@ public class PhysicsComponent extends Component<PhysicsComponent> {
     }
     
     public Vector2 getGravity() {
-        return new Vector2(gravity);
+        return new Vector2(gravityX, gravityY);
+    }
+
+    public float getGravityX() {
+        return gravityX;
+    }
+
+    public float getGravityY() {
+        return gravityY;
     }
 }
@@ -75,20 +75,21 @@ public class RenderComponent extends Component<RenderComponent> {
             return;
         }
         
-        Vector2 position = transform.getPosition();
+        float x = transform.getX();
+        float y = transform.getY();
         
         switch (renderType) {
             case RECTANGLE:
-                renderer.drawRect(position.x, position.y, size.x, size.y, 
+                renderer.drawRect(x, y, size.x, size.y, 
                                 color.r, color.g, color.b, color.a);
                 break;
             case CIRCLE:
-                renderer.drawCircle(position.x + size.x/2, position.y + size.y/2, 
+                renderer.drawCircle(x + size.x/2, y + size.y/2, 
                                   size.x/2, 16, color.r, color.g, color.b, color.a);
                 break;
             case LINE:
-                renderer.drawLine(position.x, position.y, 
-                                position.x + size.x, position.y + size.y,
+                renderer.drawLine(x, y, 
+                                x + size.x, y + size.y,
                                 color.r, color.g, color.b, color.a);
                 break;
         }
@@ -118,6 +119,7 @@ public class RenderComponent extends Component<RenderComponent> {
      */
     public void setColor(Color color) {
         this.color = color;
+        markChanged();
     }
     
     /**
@@ -125,6 +127,7 @@ public class RenderComponent extends Component<RenderComponent> {
      */
     public void setColor(float r, float g, float b, float a) {
         this.color = new Color(r, g, b, a);
+        markChanged();
     }
     
     /**
@@ -132,6 +135,7 @@ public class RenderComponent extends Component<RenderComponent> {
      */
     public void setSize(Vector2 size) {
         this.size = new Vector2(size);
+        markChanged();
     }
     
     /**
@@ -139,6 +143,7 @@ public class RenderComponent extends Component<RenderComponent> {
      */
     public void setVisible(boolean visible) {
         this.visible = visible;
+        markChanged();
     }
     
     // Getters
@@ -149,7 +154,21 @@ public class RenderComponent extends Component<RenderComponent> {
     public Vector2 getSize() {
         return new Vector2(size);
     }
-    
+
+    /**
+     * 宽度（不复制 Vector2）
+     */
+    public float getWidth() {
+        return size.x;
+    }
+
+    /**
+     * 高度（不复制 Vector2）
+     */
+    public float getHeight() {
+        return size.y;
+    }
+
     public Color getColor() {
         return color;
     }
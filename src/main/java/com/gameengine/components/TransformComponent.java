@@ -5,26 +5,34 @@ import com.gameengine.math.Vector2;
 
 /**
  * 变换组件，管理位置、旋转、缩放
+ * 状态以 float 字段保存，热路径直接读写 getX/getY/setXY 等基本类型接口；
+ * 以 Vector2 为参数或返回值的方法保留为兼容层；所有修改状态的方法都会调用 markChanged
  */
 public class TransformComponent extends Component<TransformComponent> {
-    private Vector2 position;
-    private Vector2 scale;
+    private float x;
+    private float y;
+    // 上一次模拟的位置，用于渲染插值
+    private float previousX;
+    private float previousY;
+    private float scaleX;
+    private float scaleY;
     private float rotation;
     
     public TransformComponent() {
-        this.position = new Vector2();
-        this.scale = new Vector2(1, 1);
+        this.scaleX = 1;
+        this.scaleY = 1;
         this.rotation = 0;
     }
     
     public TransformComponent(Vector2 position) {
         this();
-        this.position = new Vector2(position);
+        moveTo(position.x, position.y);
     }
     
     public TransformComponent(Vector2 position, Vector2 scale, float rotation) {
-        this.position = new Vector2(position);
-        this.scale = new Vector2(scale);
+        moveTo(position.x, position.y);
+        this.scaleX = scale.x;
+        this.scaleY = scale.y;
         this.rotation = rotation;
     }
     
@@ -43,28 +51,49 @@ public class TransformComponent extends Component<TransformComponent> {
         // 变换组件不直接渲染
     }
 
+    @Override
+    public void savePreviousState() {
+        previousX = x;
+        previousY = y;
+    }
+
     @Override
     public String record() {
         String recordLine = "";
         if (owner != null) {
             recordLine = String.format("%f|%f|%f|%f|%f", 
-                position.x, position.y, rotation, scale.x, scale.y);
+                x, y, rotation, scaleX, scaleY);
         }
         return recordLine;
     }
     
     /**
-     * 移动到指定位置
+     * 移动到指定位置（瞬移，不参与渲染插值）
      */
     public void moveTo(Vector2 newPosition) {
-        this.position = new Vector2(newPosition);
+        moveTo(newPosition.x, newPosition.y);
+    }
+
+    public void moveTo(float x, float y) {
+        this.x = x;
+        this.y = y;
+        this.previousX = x;
+        this.previousY = y;
+        markChanged();
     }
     
     /**
      * 移动相对距离
      */
     public void translate(Vector2 delta) {
-        this.position = position.add(delta);
+        translate(delta.x, delta.y);
+    }
+
+    public void translate(float dx, float dy) {
+        if (dx == 0 && dy == 0) return;
+        this.x += dx;
+        this.y += dy;
+        markChanged();
     }
     
     /**
@@ -72,6 +101,7 @@ public class TransformComponent extends Component<TransformComponent> {
      */
     public void rotate(float angle) {
         this.rotation += angle;
+        markChanged();
     }
     
     /**
@@ -79,33 +109,106 @@ public class TransformComponent extends Component<TransformComponent> {
      */
     public void setRotation(float angle) {
         this.rotation = angle;
+        markChanged();
     }
     
     /**
      * 缩放
      */
     public void scale(Vector2 scaleFactor) {
-        this.scale = new Vector2(this.scale.x * scaleFactor.x, this.scale.y * scaleFactor.y);
+        this.scaleX *= scaleFactor.x;
+        this.scaleY *= scaleFactor.y;
+        markChanged();
     }
     
     /**
      * 设置缩放
      */
     public void setScale(Vector2 newScale) {
-        this.scale = new Vector2(newScale);
+        setScale(newScale.x, newScale.y);
+    }
+
+    public void setScale(float scaleX, float scaleY) {
+        this.scaleX = scaleX;
+        this.scaleY = scaleY;
+        markChanged();
     }
     
     // Getters and Setters
+    /**
+     * 获取位置的副本；热路径请使用 getX/getY 或 getPosition(out)
+     */
     public Vector2 getPosition() {
-        return new Vector2(position);
+        return new Vector2(x, y);
+    }
+
+    /**
+     * 把位置写入 out 并返回 out，不产生分配
+     */
+    public Vector2 getPosition(Vector2 out) {
+        return out.set(x, y);
+    }
+
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    public float getPreviousX() {
+        return previousX;
+    }
+
+    public float getPreviousY() {
+        return previousY;
     }
     
     public void setPosition(Vector2 position) {
-        this.position = new Vector2(position);
+        setXY(position.x, position.y);
+    }
+
+    public void setXY(float x, float y) {
+        if (this.x == x && this.y == y) return;
+        this.x = x;
+        this.y = y;
+        markChanged();
+    }
+
+    /**
+     * 获取上一次模拟与本次模拟之间的插值位置
+     * @param alpha 插值系数（0为上一次，1为本次）
+     */
+    public Vector2 getInterpolatedPosition(float alpha) {
+        return getInterpolatedPosition(alpha, new Vector2());
+    }
+
+    /**
+     * 把插值位置写入 out 并返回 out，不产生分配
+     */
+    public Vector2 getInterpolatedPosition(float alpha, Vector2 out) {
+        return out.set(getInterpolatedX(alpha), getInterpolatedY(alpha));
+    }
+
+    public float getInterpolatedX(float alpha) {
+        return previousX + (x - previousX) * alpha;
+    }
+
+    public float getInterpolatedY(float alpha) {
+        return previousY + (y - previousY) * alpha;
     }
     
     public Vector2 getScale() {
-        return new Vector2(scale);
+        return new Vector2(scaleX, scaleY);
+    }
+
+    public float getScaleX() {
+        return scaleX;
+    }
+
+    public float getScaleY() {
+        return scaleY;
     }
     
     public float getRotation() {
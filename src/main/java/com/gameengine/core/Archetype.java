@@ -0,0 +1,152 @@
+package com.gameengine.core;
+
+import java.lang.reflect.Array;
+import java.util.Arrays;
+
+/**
+ * 原型：拥有完全相同组件类型组合的一组游戏对象
+ * 每种组件类型一列，同一行是同一个对象的各个组件；列是按组件类型创建的数组，
+ * 遍历同一原型的某种组件时是连续的内存访问
+ * 列中的组件与 GameObject.getComponent 的结果一致：查询父类或接口时，包含其子类组件的原型同样匹配，
+ * 并为该类型增加一列
+ * 删除时把最后一行移到空出的位置，数组保持紧凑
+ */
+public final class Archetype {
+    private static final int INITIAL_CAPACITY = 16;
+
+    // 按类名排序的组件类型（原型的键）
+    private final Class<?>[] types;
+    // 各列的类型：前面是 types，之后是查询用到的父类或接口
+    private Class<?>[] columnTypes;
+    private Object[][] columns;
+    private GameObject[] entities;
+    private int size;
+
+    Archetype(Class<?>[] types) {
+        this.types = types;
+        this.columnTypes = types.clone();
+        this.columns = new Object[types.length][];
+        for (int i = 0; i < types.length; i++) {
+            columns[i] = (Object[]) Array.newInstance(types[i], INITIAL_CAPACITY);
+        }
+        this.entities = new GameObject[INITIAL_CAPACITY];
+        this.size = 0;
+    }
+
+    /**
+     * 追加一行
+     * @return 行号
+     */
+    int add(GameObject gameObject) {
+        if (size == entities.length) {
+            int capacity = entities.length * 2;
+            entities = Arrays.copyOf(entities, capacity);
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = Arrays.copyOf(columns[i], capacity);
+            }
+        }
+        int row = size++;
+        entities[row] = gameObject;
+        for (int i = 0; i < columns.length; i++) {
+            columns[i][row] = gameObject.getComponentSlot(columnTypes[i]);
+        }
+        return row;
+    }
+
+    /**
+     * 删除一行，最后一行移动到被删除的位置
+     * @return 被移动的对象（其行号变为 row），删除的就是最后一行时返回 null
+     */
+    GameObject remove(int row) {
+        int last = --size;
+        GameObject moved = null;
+        if (row != last) {
+            moved = entities[last];
+            entities[row] = moved;
+            for (Object[] column : columns) {
+                column[row] = column[last];
+            }
+        }
+        entities[last] = null;
+        for (Object[] column : columns) {
+            column[last] = null;
+        }
+        return moved;
+    }
+
+    /**
+     * 是否包含全部指定的组件类型（类型本身，或以其为父类、接口的组件类型）
+     * 匹配父类或接口时为该类型增加一列，之后 getColumn 可以按该类型取列
+     */
+    boolean match(Class<?>[] queryTypes) {
+        for (Class<?> type : queryTypes) {
+            if (columnIndex(type) < 0 && !hasSubtype(type)) {
+                return false;
+            }
+        }
+        for (Class<?> type : queryTypes) {
+            if (columnIndex(type) < 0) {
+                addColumn(type);
+            }
+        }
+        return true;
+    }
+
+    private boolean hasSubtype(Class<?> type) {
+        for (Class<?> own : types) {
+            if (type.isAssignableFrom(own)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void addColumn(Class<?> type) {
+        Object[] column = (Object[]) Array.newInstance(type, entities.length);
+        for (int row = 0; row < size; row++) {
+            column[row] = entities[row].getComponentSlot(type);
+        }
+        int index = columns.length;
+        columnTypes = Arrays.copyOf(columnTypes, index + 1);
+        columns = Arrays.copyOf(columns, index + 1);
+        columnTypes[index] = type;
+        columns[index] = column;
+    }
+
+    private int columnIndex(Class<?> type) {
+        for (int i = 0; i < columnTypes.length; i++) {
+            if (columnTypes[i] == type) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * 获取某种组件的列，有效范围为 [0, size())
+     * 数组在扩容时会被替换，不要跨帧保存
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Component<T>> T[] getColumn(Class<T> type) {
+        int index = columnIndex(type);
+        if (index < 0) {
+            throw new IllegalArgumentException("原型不包含组件类型: " + type.getSimpleName());
+        }
+        return (T[]) columns[index];
+    }
+
+    /**
+     * 获取第 row 行的游戏对象
+     */
+    public GameObject getEntity(int row) {
+        return entities[row];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    Class<?>[] getTypes() {
+        return types;
+    }
+}
@@ -0,0 +1,212 @@
+package com.gameengine.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 按原型存放场景中游戏对象的组件
+ * 对象加入场景时按组件类型组合放入对应原型，组件变化时移动到新原型，离开场景时移除
+ * 同时按组件类型维护成员索引（ComponentIndex），按单一类型查找对象时只遍历匹配的对象
+ * GameObject 的 addComponent/getComponent 接口不变，本类只是额外维护的紧凑索引
+ */
+public class ArchetypeStorage {
+    private static final Comparator<Class<?>> TYPE_ORDER = Comparator.comparing(Class::getName);
+
+    private final Map<List<Class<?>>, Archetype> archetypes;
+    private final List<Archetype> archetypeList;
+    private final Map<List<Class<?>>, EntityQuery> queries;
+    // 按组件类型编号存放的成员索引
+    private ComponentIndex<?>[] indexes;
+    // 当前帧号，组件修改时记录，用于查询某帧之后变化的对象
+    private int changeTick;
+
+    public ArchetypeStorage() {
+        this.archetypes = new HashMap<>();
+        this.archetypeList = new ArrayList<>();
+        this.queries = new HashMap<>();
+        this.indexes = new ComponentIndex<?>[Math.max(8, ComponentType.count())];
+    }
+
+    /**
+     * 加入游戏对象（已在本存储中则忽略）
+     */
+    public void add(GameObject gameObject) {
+        if (gameObject.storage == this) {
+            return;
+        }
+        // 对象从别的场景移过来时先离开原来的存储
+        if (gameObject.storage != null) {
+            gameObject.storage.remove(gameObject);
+        }
+        Archetype archetype = archetypeFor(gameObject.componentTypes());
+        gameObject.storage = this;
+        gameObject.archetype = archetype;
+        gameObject.archetypeRow = archetype.add(gameObject);
+        syncIndexes(gameObject);
+        // 新加入的对象视为全部组件都已变化
+        gameObject.markAllChanged();
+    }
+
+    /**
+     * 获取当前帧号
+     */
+    public int getChangeTick() {
+        return changeTick;
+    }
+
+    /**
+     * 进入下一帧，返回新的帧号
+     */
+    public int advanceChangeTick() {
+        return ++changeTick;
+    }
+
+    /**
+     * 对象是否在本存储中
+     */
+    public boolean contains(GameObject gameObject) {
+        return gameObject.storage == this;
+    }
+
+    /**
+     * 移除游戏对象（不在本存储中则忽略）
+     */
+    public void remove(GameObject gameObject) {
+        if (gameObject.storage != this) {
+            return;
+        }
+        int row = gameObject.archetypeRow;
+        GameObject moved = gameObject.archetype.remove(row);
+        if (moved != null) {
+            moved.archetypeRow = row;
+        }
+        int[] indexRows = gameObject.indexRows;
+        for (int id = 0; id < indexRows.length; id++) {
+            if (indexRows[id] >= 0) {
+                indexes[id].remove(indexRows[id]);
+                indexRows[id] = -1;
+            }
+        }
+        gameObject.storage = null;
+        gameObject.archetype = null;
+        gameObject.archetypeRow = -1;
+    }
+
+    /**
+     * 组件组合变化后把对象移动到新原型，类型索引只增删发生变化的部分
+     */
+    void relocate(GameObject gameObject) {
+        if (gameObject.storage != this) {
+            return;
+        }
+        int row = gameObject.archetypeRow;
+        GameObject moved = gameObject.archetype.remove(row);
+        if (moved != null) {
+            moved.archetypeRow = row;
+        }
+        Archetype archetype = archetypeFor(gameObject.componentTypes());
+        gameObject.archetype = archetype;
+        gameObject.archetypeRow = archetype.add(gameObject);
+        syncIndexes(gameObject);
+    }
+
+    /**
+     * 让对象在各类型索引中的成员关系与其当前组件一致
+     */
+    private void syncIndexes(GameObject gameObject) {
+        Component<?>[] slots = gameObject.slots;
+        if (gameObject.indexRows.length < slots.length) {
+            int oldLength = gameObject.indexRows.length;
+            gameObject.indexRows = Arrays.copyOf(gameObject.indexRows, slots.length);
+            Arrays.fill(gameObject.indexRows, oldLength, slots.length, -1);
+        }
+        int[] indexRows = gameObject.indexRows;
+        for (int id = 0; id < indexRows.length; id++) {
+            boolean has = id < slots.length && slots[id] != null;
+            if (has && indexRows[id] < 0) {
+                indexRows[id] = indexFor(id).add(gameObject, slots[id]);
+            } else if (!has && indexRows[id] >= 0) {
+                indexes[id].remove(indexRows[id]);
+                indexRows[id] = -1;
+            }
+        }
+    }
+
+    /**
+     * 获取单一组件类型的成员索引（场景中没有该类型时返回空索引）
+     */
+    @SuppressWarnings("unchecked")
+    public <T extends Component<T>> ComponentIndex<T> index(Class<T> componentType) {
+        return (ComponentIndex<T>) indexFor(ComponentType.idOf(componentType));
+    }
+
+    private ComponentIndex<?> indexFor(int id) {
+        if (id >= indexes.length) {
+            indexes = Arrays.copyOf(indexes, Math.max(id + 1, indexes.length * 2));
+        }
+        if (indexes[id] == null) {
+            indexes[id] = new ComponentIndex<>(id);
+        }
+        return indexes[id];
+    }
+
+    /**
+     * 获取同时拥有全部指定组件的对象查询（相同类型组合返回同一个缓存的查询）
+     */
+    public EntityQuery query(Class<?>... types) {
+        Class<?>[] sorted = canonical(types);
+        List<Class<?>> key = Arrays.asList(sorted);
+        EntityQuery query = queries.get(key);
+        if (query == null) {
+            query = new EntityQuery(sorted);
+            for (Archetype archetype : archetypeList) {
+                query.offer(archetype);
+            }
+            queries.put(key, query);
+        }
+        return query;
+    }
+
+    /**
+     * 获取全部原型（只读遍历）
+     */
+    public List<Archetype> getArchetypes() {
+        return archetypeList;
+    }
+
+    /**
+     * 移除全部对象，已创建的原型与查询保留复用
+     */
+    public void clear() {
+        for (Archetype archetype : archetypeList) {
+            while (archetype.size() > 0) {
+                remove(archetype.getEntity(archetype.size() - 1));
+            }
+        }
+    }
+
+    private Archetype archetypeFor(Class<?>[] types) {
+        Class<?>[] sorted = canonical(types);
+        List<Class<?>> key = Arrays.asList(sorted);
+        Archetype archetype = archetypes.get(key);
+        if (archetype == null) {
+            archetype = new Archetype(sorted);
+            archetypes.put(key, archetype);
+            archetypeList.add(archetype);
+            for (EntityQuery query : queries.values()) {
+                query.offer(archetype);
+            }
+        }
+        return archetype;
+    }
+
+    private static Class<?>[] canonical(Class<?>[] types) {
+        Class<?>[] sorted = Arrays.stream(types).distinct().toArray(Class<?>[]::new);
+        Arrays.sort(sorted, TYPE_ORDER);
+        return sorted;
+    }
+}
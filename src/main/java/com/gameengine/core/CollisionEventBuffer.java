@@ -0,0 +1,59 @@
+package com.gameengine.core;
+
+import java.util.Arrays;
+
+/**
+ * 碰撞事件缓冲区
+ * 并行检测时每个批次写入自己的缓冲区，检测阶段不修改任何对象，也不需要加锁；
+ * 检测结束后在调用线程上按批次顺序读取全部事件并统一处理
+ * 每个事件为 (来源, 目标)，例如 (敌人, 命中它的玩家技能)；同一批次内按来源在列表中的顺序写入
+ * 缓冲区在帧之间复用，容量只增不减
+ */
+public final class CollisionEventBuffer {
+    private GameObject[] sources;
+    private GameObject[] targets;
+    private int size;
+
+    public CollisionEventBuffer() {
+        this(16);
+    }
+
+    public CollisionEventBuffer(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("缓冲区容量必须大于0: " + capacity);
+        }
+        this.sources = new GameObject[capacity];
+        this.targets = new GameObject[capacity];
+    }
+
+    /**
+     * 清空事件（释放对象引用，容量保留）
+     */
+    public void clear() {
+        Arrays.fill(sources, 0, size, null);
+        Arrays.fill(targets, 0, size, null);
+        size = 0;
+    }
+
+    public void add(GameObject source, GameObject target) {
+        if (size == sources.length) {
+            sources = Arrays.copyOf(sources, size * 2);
+            targets = Arrays.copyOf(targets, size * 2);
+        }
+        sources[size] = source;
+        targets[size] = target;
+        size++;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public GameObject getSource(int i) {
+        return sources[i];
+    }
+
+    public GameObject getTarget(int i) {
+        return targets[i];
+    }
+}
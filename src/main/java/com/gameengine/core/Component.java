@@ -8,6 +8,11 @@ public abstract class Component<T extends Component<T>> {
     protected GameObject owner;
     protected boolean enabled;
     protected String name;
+    // 组件类型编号，第一次使用时由 getComponentType 分配
+    private int typeId = -1;
+    // 变化版本：每次修改加一；变化帧：最后一次修改时所在场景的帧号
+    private int changeVersion;
+    private int changeTick;
     
     public Component() {
         this.enabled = true;
@@ -37,6 +42,20 @@ public abstract class Component<T extends Component<T>> {
         this.enabled = false;
     }
 
+    /**
+     * 重置组件状态，对象归还对象池时调用
+     */
+    public void reset() {
+        // 默认无需重置，子类可重写
+    }
+
+    /**
+     * 保存本次模拟前的状态，用于渲染插值
+     */
+    public void savePreviousState() {
+        // 默认无需保存，子类可重写
+    }
+
     /**
      * 记录组件
      */
@@ -53,6 +72,48 @@ public abstract class Component<T extends Component<T>> {
         return (Class<T>) this.getClass();
     }
     
+    /**
+     * 获取组件类型编号（由 getComponentType 决定，同一类的组件编号相同）
+     */
+    public int getTypeId() {
+        if (typeId < 0) {
+            typeId = ComponentType.idOf(getComponentType());
+        }
+        return typeId;
+    }
+    
+    /**
+     * 标记组件已修改：变化版本加一，并记录所在场景当前的帧号
+     * 组件的 setter 会自动调用；直接修改公开字段后需要手动调用
+     */
+    public void markChanged() {
+        changeVersion++;
+        if (owner != null) {
+            changeTick = owner.markChanged();
+        }
+    }
+
+    /**
+     * 获取变化版本（每次修改加一，可用于判断缓存是否过期）
+     */
+    public int getChangeVersion() {
+        return changeVersion;
+    }
+
+    /**
+     * 获取最后一次修改时所在场景的帧号
+     */
+    public int getChangeTick() {
+        return changeTick;
+    }
+
+    /**
+     * 第 tick 帧之后（不含）是否修改过
+     */
+    public boolean isChangedSince(int tick) {
+        return changeTick > tick;
+    }
+    
     // Getters and Setters
     public GameObject getOwner() {
         return owner;
@@ -67,7 +128,10 @@ public abstract class Component<T extends Component<T>> {
     }
     
     public void setEnabled(boolean enabled) {
-        this.enabled = enabled;
+        if (this.enabled != enabled) {
+            this.enabled = enabled;
+            markChanged();
+        }
     }
     
     public String getName() {
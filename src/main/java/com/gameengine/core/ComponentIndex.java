@@ -0,0 +1,108 @@
+package com.gameengine.core;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 单一组件类型的成员索引：场景中拥有该类型组件的全部游戏对象
+ * 由 ArchetypeStorage 在对象增删和组件变化时增量维护，删除时用最后一个成员填补空位
+ * getGameObjects/getComponents 返回同一个只读视图，按下标遍历不产生分配
+ */
+public final class ComponentIndex<T extends Component<T>> {
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final int typeId;
+    private GameObject[] objects;
+    private Component<?>[] components;
+    private int size;
+    private final List<GameObject> objectsView;
+    private final List<T> componentsView;
+
+    ComponentIndex(int typeId) {
+        this.typeId = typeId;
+        this.objects = new GameObject[INITIAL_CAPACITY];
+        this.components = new Component<?>[INITIAL_CAPACITY];
+        this.size = 0;
+        this.objectsView = new ObjectsView();
+        this.componentsView = new ComponentsView();
+    }
+
+    /**
+     * 追加成员，返回所在位置
+     */
+    int add(GameObject gameObject, Component<?> component) {
+        if (size == objects.length) {
+            objects = Arrays.copyOf(objects, size * 2);
+            components = Arrays.copyOf(components, size * 2);
+        }
+        objects[size] = gameObject;
+        components[size] = component;
+        return size++;
+    }
+
+    /**
+     * 删除 row 位置的成员，最后一个成员移到该位置并更新其记录的位置
+     */
+    void remove(int row) {
+        int last = --size;
+        if (row != last) {
+            GameObject moved = objects[last];
+            objects[row] = moved;
+            components[row] = components[last];
+            moved.indexRows[typeId] = row;
+        }
+        objects[last] = null;
+        components[last] = null;
+    }
+
+    /**
+     * 拥有该组件的游戏对象（只读，随场景更新而变化）
+     */
+    public List<GameObject> getGameObjects() {
+        return objectsView;
+    }
+
+    /**
+     * 该类型的全部组件（只读，与 getGameObjects 下标一一对应）
+     */
+    public List<T> getComponents() {
+        return componentsView;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private final class ObjectsView extends AbstractList<GameObject> implements RandomAccess {
+        @Override
+        public GameObject get(int index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return objects[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+
+    private final class ComponentsView extends AbstractList<T> implements RandomAccess {
+        @Override
+        @SuppressWarnings("unchecked")
+        public T get(int index) {
+            if (index >= size) {
+                throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+            }
+            return (T) components[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.gameengine.core;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 组件类型编号
+ * 每个组件类第一次使用时分配一个从0开始的紧凑整数编号，GameObject 以此为下标存放组件
+ */
+public final class ComponentType {
+    private static final AtomicInteger NEXT_ID = new AtomicInteger();
+
+    // ClassValue 把编号直接挂在类上，查找不经过全局哈希表
+    private static final ClassValue<Integer> IDS = new ClassValue<Integer>() {
+        @Override
+        protected Integer computeValue(Class<?> type) {
+            return NEXT_ID.getAndIncrement();
+        }
+    };
+
+    private ComponentType() {
+    }
+
+    /**
+     * 获取组件类的编号
+     */
+    public static int idOf(Class<?> componentType) {
+        return IDS.get(componentType);
+    }
+
+    /**
+     * 已分配的编号数量
+     */
+    public static int count() {
+        return NEXT_ID.get();
+    }
+}
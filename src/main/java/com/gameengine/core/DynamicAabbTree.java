@@ -0,0 +1,813 @@
+package com.gameengine.core;
+
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.scene.Scene;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 动态 AABB 树（空间查询）
+ * 每个带有 TransformComponent 的对象是一个叶子，包围盒为 [x, x + 宽] x [y, y + 高]（宽高取 RenderComponent 的大小，没有时为一个点）
+ * 叶子在树中保存的是向外扩大 margin 的“胖”包围盒：对象在胖包围盒内移动时只更新精确包围盒，移出后才从树中取出重新插入
+ * 插入时按周长代价选择兄弟节点，并通过旋转保持平衡，查询为 O(log n + 结果数)
+ *
+ * 每帧调用一次 sync：场景结构变化时增删叶子，其余情况只检查组件的修改版本，未移动的对象不做任何工作
+ * 查询（区域、半径、射线、最近 k 个）不修改树，sync 完成后可以被多个线程同时调用
+ * 查询只返回活跃的对象；tag 为 null 时不按标签过滤，否则只返回带有该标签的对象
+ */
+public class DynamicAabbTree {
+    private static final int NULL = -1;
+
+    // 节点：叶子为胖包围盒，内部节点为两个子节点的并集
+    private float[] minX;
+    private float[] minY;
+    private float[] maxX;
+    private float[] maxY;
+    private int[] parent; // 空闲节点时为空闲链表的下一个节点
+    private int[] left;
+    private int[] right; // 叶子的 left/right 为 NULL
+    private int[] height; // 空闲节点为 -1
+    private long[] tagMasks; // 子树中所有对象标签的并集，按标签查询时跳过整棵子树
+    private int capacity;
+    private int freeList = NULL;
+    private int root = NULL;
+
+    // 叶子数据（按节点下标）
+    private GameObject[] objects;
+    private TransformComponent[] transforms;
+    private RenderComponent[] renders;
+    private float[] tightMinX;
+    private float[] tightMinY;
+    private float[] tightMaxX;
+    private float[] tightMaxY;
+    private int[] transformVersions;
+    private int[] renderVersions;
+    private int[] stamps;
+    private int[] leafSlots; // 在 leaves 中的位置
+
+    // 所有叶子，sync 时按此遍历
+    private int[] leaves = new int[16];
+    private int leafCount;
+    private final Map<GameObject, Integer> proxies = new IdentityHashMap<>();
+    private int stamp;
+
+    private float margin = 8;
+    private Scene syncedScene;
+    private int syncedStructureVersion;
+
+    // 每个线程各自的遍历栈与堆
+    private final ThreadLocal<Scratch> scratch = ThreadLocal.withInitial(Scratch::new);
+
+    /**
+     * 射线检测结果
+     */
+    public static final class RayHit {
+        private GameObject gameObject;
+        private float fraction;
+        private float x;
+        private float y;
+
+        public GameObject getGameObject() {
+            return gameObject;
+        }
+
+        /**
+         * 命中点在线段上的比例（0 为起点，1 为终点）
+         */
+        public float getFraction() {
+            return fraction;
+        }
+
+        public float getX() {
+            return x;
+        }
+
+        public float getY() {
+            return y;
+        }
+    }
+
+    private static final class Scratch {
+        int[] stack = new int[64];
+        int[] heapNodes = new int[64];
+        float[] heapKeys = new float[64];
+        int heapSize;
+        final List<GameObject> single = new ArrayList<>(1);
+
+        void push(int depth, int node) {
+            if (depth == stack.length) {
+                stack = Arrays.copyOf(stack, depth * 2);
+            }
+            stack[depth] = node;
+        }
+
+        void heapPush(int node, float key) {
+            if (heapSize == heapNodes.length) {
+                heapNodes = Arrays.copyOf(heapNodes, heapSize * 2);
+                heapKeys = Arrays.copyOf(heapKeys, heapSize * 2);
+            }
+            int i = heapSize++;
+            while (i > 0) {
+                int up = (i - 1) >> 1;
+                if (heapKeys[up] <= key) {
+                    break;
+                }
+                heapNodes[i] = heapNodes[up];
+                heapKeys[i] = heapKeys[up];
+                i = up;
+            }
+            heapNodes[i] = node;
+            heapKeys[i] = key;
+        }
+
+        /**
+         * 取出键最小的节点
+         */
+        int heapPop() {
+            int top = heapNodes[0];
+            int node = heapNodes[--heapSize];
+            float key = heapKeys[heapSize];
+            int i = 0;
+            while (true) {
+                int child = 2 * i + 1;
+                if (child >= heapSize) {
+                    break;
+                }
+                if (child + 1 < heapSize && heapKeys[child + 1] < heapKeys[child]) {
+                    child++;
+                }
+                if (key <= heapKeys[child]) {
+                    break;
+                }
+                heapNodes[i] = heapNodes[child];
+                heapKeys[i] = heapKeys[child];
+                i = child;
+            }
+            heapNodes[i] = node;
+            heapKeys[i] = key;
+            return top;
+        }
+    }
+
+    public DynamicAabbTree() {
+        allocate(16);
+    }
+
+    /**
+     * 设置胖包围盒向外扩大的距离
+     * 越大重新插入越少，但查询时需要检查的节点越多
+     */
+    public void setMargin(float margin) {
+        if (margin < 0) {
+            throw new IllegalArgumentException("包围盒扩展距离不能为负数: " + margin);
+        }
+        this.margin = margin;
+    }
+
+    public float getMargin() {
+        return margin;
+    }
+
+    /**
+     * 叶子（对象）数量
+     */
+    public int size() {
+        return leafCount;
+    }
+
+    /**
+     * 树的高度（空树为 0，只有一个叶子为 1）
+     */
+    public int getHeight() {
+        return root == NULL ? 0 : height[root] + 1;
+    }
+
+    /**
+     * 按场景当前状态更新树
+     * 场景结构变化（对象增删）时增删叶子；之后只重新计算变换或渲染组件修改过的叶子
+     */
+    public void sync(Scene scene) {
+        if (scene != syncedScene || scene.getStructureVersion() != syncedStructureVersion) {
+            syncMembership(scene);
+            syncedScene = scene;
+            syncedStructureVersion = scene.getStructureVersion();
+        }
+        for (int i = 0; i < leafCount; i++) {
+            refit(leaves[i]);
+        }
+    }
+
+    /**
+     * 清空树
+     */
+    public void clear() {
+        for (int i = leafCount - 1; i >= 0; i--) {
+            destroyProxy(leaves[i]);
+        }
+        syncedScene = null;
+    }
+
+    private void syncMembership(Scene scene) {
+        stamp++;
+        List<GameObject> gameObjects = scene.getGameObjectsView();
+        for (int i = 0; i < gameObjects.size(); i++) {
+            GameObject obj = gameObjects.get(i);
+            Integer proxy = proxies.get(obj);
+            if (proxy != null) {
+                stamps[proxy] = stamp;
+                continue;
+            }
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            if (transform != null) {
+                // createProxy 可能扩容 stamps，先取得叶子再写入
+                int leaf = createProxy(obj, transform);
+                stamps[leaf] = stamp;
+            }
+        }
+        // 从后往前删除，交换到当前位置的叶子已经检查过
+        for (int i = leafCount - 1; i >= 0; i--) {
+            if (stamps[leaves[i]] != stamp) {
+                destroyProxy(leaves[i]);
+            }
+        }
+    }
+
+    private int createProxy(GameObject obj, TransformComponent transform) {
+        int leaf = allocateNode();
+        objects[leaf] = obj;
+        transforms[leaf] = transform;
+        renders[leaf] = obj.getComponent(RenderComponent.class);
+        computeTightBounds(leaf);
+        tagMasks[leaf] = obj.getTagMask();
+        fatten(leaf);
+        insertLeaf(leaf);
+
+        if (leafCount == leaves.length) {
+            leaves = Arrays.copyOf(leaves, leafCount * 2);
+        }
+        leafSlots[leaf] = leafCount;
+        leaves[leafCount++] = leaf;
+        proxies.put(obj, leaf);
+        return leaf;
+    }
+
+    private void destroyProxy(int leaf) {
+        removeLeaf(leaf);
+        proxies.remove(objects[leaf]);
+        objects[leaf] = null;
+        transforms[leaf] = null;
+        renders[leaf] = null;
+
+        int slot = leafSlots[leaf];
+        int last = leaves[--leafCount];
+        leaves[slot] = last;
+        leafSlots[last] = slot;
+        freeNode(leaf);
+    }
+
+    /**
+     * 组件修改过时重新计算精确包围盒，移出胖包围盒时重新插入；标签变化时更新祖先的标签并集
+     */
+    private void refit(int leaf) {
+        long mask = objects[leaf].getTagMask();
+        if (mask != tagMasks[leaf]) {
+            tagMasks[leaf] = mask;
+            for (int i = parent[leaf]; i != NULL; i = parent[i]) {
+                tagMasks[i] = tagMasks[left[i]] | tagMasks[right[i]];
+            }
+        }
+
+        RenderComponent render = renders[leaf];
+        if (transforms[leaf].getChangeVersion() == transformVersions[leaf]
+                && (render == null || render.getChangeVersion() == renderVersions[leaf])) {
+            return;
+        }
+        computeTightBounds(leaf);
+        if (tightMinX[leaf] >= minX[leaf] && tightMinY[leaf] >= minY[leaf]
+                && tightMaxX[leaf] <= maxX[leaf] && tightMaxY[leaf] <= maxY[leaf]) {
+            return;
+        }
+        removeLeaf(leaf);
+        fatten(leaf);
+        insertLeaf(leaf);
+    }
+
+    private void computeTightBounds(int leaf) {
+        TransformComponent transform = transforms[leaf];
+        RenderComponent render = renders[leaf];
+        float x = transform.getX();
+        float y = transform.getY();
+        float width = render == null ? 0 : render.getWidth();
+        float height = render == null ? 0 : render.getHeight();
+        // 线段的大小可能为负
+        tightMinX[leaf] = Math.min(x, x + width);
+        tightMinY[leaf] = Math.min(y, y + height);
+        tightMaxX[leaf] = Math.max(x, x + width);
+        tightMaxY[leaf] = Math.max(y, y + height);
+        transformVersions[leaf] = transform.getChangeVersion();
+        renderVersions[leaf] = render == null ? 0 : render.getChangeVersion();
+    }
+
+    private void fatten(int leaf) {
+        minX[leaf] = tightMinX[leaf] - margin;
+        minY[leaf] = tightMinY[leaf] - margin;
+        maxX[leaf] = tightMaxX[leaf] + margin;
+        maxY[leaf] = tightMaxY[leaf] + margin;
+    }
+
+    // ---------------------------------------------------------------- 查询
+
+    /**
+     * 查找包围盒与矩形区域相交的对象（结果没有固定顺序）
+     * @return 结果数量（result 会先被清空）
+     */
+    public int queryRegion(float regionMinX, float regionMinY, float regionMaxX, float regionMaxY,
+                           Tag tag, List<GameObject> result) {
+        result.clear();
+        if (root == NULL) {
+            return 0;
+        }
+        long tagMask = tag == null ? 0 : tag.getMask();
+        Scratch s = scratch.get();
+        int depth = 0;
+        s.push(depth++, root);
+        while (depth > 0) {
+            int node = s.stack[--depth];
+            if (excluded(node, tagMask)
+                    || minX[node] > regionMaxX || maxX[node] < regionMinX
+                    || minY[node] > regionMaxY || maxY[node] < regionMinY) {
+                continue;
+            }
+            if (left[node] == NULL) {
+                if (objects[node].isActive()
+                        && tightMinX[node] <= regionMaxX && tightMaxX[node] >= regionMinX
+                        && tightMinY[node] <= regionMaxY && tightMaxY[node] >= regionMinY) {
+                    result.add(objects[node]);
+                }
+            } else {
+                s.push(depth++, left[node]);
+                s.push(depth++, right[node]);
+            }
+        }
+        return result.size();
+    }
+
+    /**
+     * 查找包围盒与圆相交的对象，例如技能爆炸范围内的所有敌人（结果没有固定顺序）
+     * @return 结果数量（result 会先被清空）
+     */
+    public int queryRadius(float x, float y, float radius, Tag tag, List<GameObject> result) {
+        result.clear();
+        if (root == NULL) {
+            return 0;
+        }
+        float radiusSquared = radius * radius;
+        long tagMask = tag == null ? 0 : tag.getMask();
+        Scratch s = scratch.get();
+        int depth = 0;
+        s.push(depth++, root);
+        while (depth > 0) {
+            int node = s.stack[--depth];
+            if (excluded(node, tagMask)
+                    || distanceSquared(x, y, minX[node], minY[node], maxX[node], maxY[node]) > radiusSquared) {
+                continue;
+            }
+            if (left[node] == NULL) {
+                if (objects[node].isActive()
+                        && distanceSquared(x, y, tightMinX[node], tightMinY[node],
+                                tightMaxX[node], tightMaxY[node]) <= radiusSquared) {
+                    result.add(objects[node]);
+                }
+            } else {
+                s.push(depth++, left[node]);
+                s.push(depth++, right[node]);
+            }
+        }
+        return result.size();
+    }
+
+    /**
+     * 沿线段 (x0, y0) -> (x1, y1) 查找第一个包围盒与之相交的对象
+     * 起点在包围盒内的对象在起点处命中；视线检测时用 ignore 排除发起者自身
+     * @param hit 保存命中结果，可以为 null
+     * @return 是否命中
+     */
+    public boolean raycast(float x0, float y0, float x1, float y1, Tag tag, GameObject ignore, RayHit hit) {
+        if (root == NULL) {
+            return false;
+        }
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        float inverseX = 1.0f / dx;
+        float inverseY = 1.0f / dy;
+        long tagMask = tag == null ? 0 : tag.getMask();
+
+        float best = Float.POSITIVE_INFINITY;
+        int bestLeaf = NULL;
+        Scratch s = scratch.get();
+        int depth = 0;
+        s.push(depth++, root);
+        while (depth > 0) {
+            int node = s.stack[--depth];
+            if (excluded(node, tagMask)) {
+                continue;
+            }
+            float entry = rayEntry(x0, y0, dx, dy, inverseX, inverseY,
+                    minX[node], minY[node], maxX[node], maxY[node]);
+            if (!(entry < best)) {
+                continue;
+            }
+            if (left[node] == NULL) {
+                if (objects[node] == ignore || !objects[node].isActive()) {
+                    continue;
+                }
+                entry = rayEntry(x0, y0, dx, dy, inverseX, inverseY,
+                        tightMinX[node], tightMinY[node], tightMaxX[node], tightMaxY[node]);
+                if (entry < best) {
+                    best = entry;
+                    bestLeaf = node;
+                }
+            } else {
+                s.push(depth++, left[node]);
+                s.push(depth++, right[node]);
+            }
+        }
+
+        if (bestLeaf == NULL) {
+            return false;
+        }
+        if (hit != null) {
+            hit.gameObject = objects[bestLeaf];
+            hit.fraction = best;
+            hit.x = x0 + dx * best;
+            hit.y = y0 + dy * best;
+        }
+        return true;
+    }
+
+    /**
+     * 查找离 (x, y) 最近的 k 个对象（按包围盒到该点的距离从近到远）
+     * @return 结果数量（result 会先被清空）
+     */
+    public int findNearest(float x, float y, int k, Tag tag, List<GameObject> result) {
+        result.clear();
+        if (root == NULL || k <= 0) {
+            return 0;
+        }
+        long tagMask = tag == null ? 0 : tag.getMask();
+        Scratch s = scratch.get();
+        s.heapSize = 0;
+        pushNearest(s, root, x, y, tagMask);
+        // 内部节点的键是胖包围盒的距离（不大于其中任何对象的距离），叶子的键是精确距离，
+        // 因此按键从小到大取出的叶子就是从近到远的对象
+        while (s.heapSize > 0 && result.size() < k) {
+            int node = s.heapPop();
+            if (left[node] == NULL) {
+                result.add(objects[node]);
+            } else {
+                pushNearest(s, left[node], x, y, tagMask);
+                pushNearest(s, right[node], x, y, tagMask);
+            }
+        }
+        return result.size();
+    }
+
+    /**
+     * 查找离 (x, y) 最近的对象
+     * @return 对象，没有时返回 null
+     */
+    public GameObject findNearest(float x, float y, Tag tag) {
+        List<GameObject> single = scratch.get().single;
+        GameObject nearest = findNearest(x, y, 1, tag, single) > 0 ? single.get(0) : null;
+        single.clear();
+        return nearest;
+    }
+
+    private void pushNearest(Scratch s, int node, float x, float y, long tagMask) {
+        if (excluded(node, tagMask)) {
+            return;
+        }
+        if (left[node] == NULL) {
+            if (objects[node].isActive()) {
+                s.heapPush(node, distanceSquared(x, y,
+                        tightMinX[node], tightMinY[node], tightMaxX[node], tightMaxY[node]));
+            }
+        } else {
+            s.heapPush(node, distanceSquared(x, y, minX[node], minY[node], maxX[node], maxY[node]));
+        }
+    }
+
+    /**
+     * 子树中没有带有该标签的对象（tagMask 为 0 时不过滤）
+     */
+    private boolean excluded(int node, long tagMask) {
+        return tagMask != 0 && (tagMasks[node] & tagMask) == 0;
+    }
+
+    /**
+     * 点到包围盒的距离的平方（点在盒内为 0）
+     */
+    private static float distanceSquared(float x, float y, float boxMinX, float boxMinY, float boxMaxX, float boxMaxY) {
+        float dx = Math.max(Math.max(boxMinX - x, x - boxMaxX), 0);
+        float dy = Math.max(Math.max(boxMinY - y, y - boxMaxY), 0);
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * 线段进入包围盒的比例（slab 法），不相交时返回正无穷
+     */
+    private static float rayEntry(float x0, float y0, float dx, float dy, float inverseX, float inverseY,
+                                  float boxMinX, float boxMinY, float boxMaxX, float boxMaxY) {
+        float tMin = 0;
+        float tMax = 1;
+        if (dx == 0) {
+            if (x0 < boxMinX || x0 > boxMaxX) {
+                return Float.POSITIVE_INFINITY;
+            }
+        } else {
+            float t1 = (boxMinX - x0) * inverseX;
+            float t2 = (boxMaxX - x0) * inverseX;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (dy == 0) {
+            if (y0 < boxMinY || y0 > boxMaxY) {
+                return Float.POSITIVE_INFINITY;
+            }
+        } else {
+            float t1 = (boxMinY - y0) * inverseY;
+            float t2 = (boxMaxY - y0) * inverseY;
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return tMin <= tMax ? tMin : Float.POSITIVE_INFINITY;
+    }
+
+    // ---------------------------------------------------------------- 树结构
+
+    private void insertLeaf(int leaf) {
+        if (root == NULL) {
+            root = leaf;
+            parent[leaf] = NULL;
+            return;
+        }
+
+        // 自顶向下选择兄弟节点：比较“与当前节点合并”和“下降到子节点”的周长代价
+        float leafMinX = minX[leaf];
+        float leafMinY = minY[leaf];
+        float leafMaxX = maxX[leaf];
+        float leafMaxY = maxY[leaf];
+        int index = root;
+        while (left[index] != NULL) {
+            int child1 = left[index];
+            int child2 = right[index];
+
+            float area = perimeter(minX[index], minY[index], maxX[index], maxY[index]);
+            float combinedArea = perimeter(
+                    Math.min(minX[index], leafMinX), Math.min(minY[index], leafMinY),
+                    Math.max(maxX[index], leafMaxX), Math.max(maxY[index], leafMaxY));
+            // 以当前节点为兄弟的代价；下降时祖先的包围盒都会增大
+            float cost = 2 * combinedArea;
+            float inheritanceCost = 2 * (combinedArea - area);
+
+            float cost1 = descendCost(child1, leafMinX, leafMinY, leafMaxX, leafMaxY) + inheritanceCost;
+            float cost2 = descendCost(child2, leafMinX, leafMinY, leafMaxX, leafMaxY) + inheritanceCost;
+            if (cost < cost1 && cost < cost2) {
+                break;
+            }
+            index = cost1 < cost2 ? child1 : child2;
+        }
+
+        int sibling = index;
+        int oldParent = parent[sibling];
+        int newParent = allocateNode();
+        parent[newParent] = oldParent;
+        left[newParent] = sibling;
+        right[newParent] = leaf;
+        height[newParent] = height[sibling] + 1;
+        setUnion(newParent, sibling, leaf);
+        parent[sibling] = newParent;
+        parent[leaf] = newParent;
+        if (oldParent == NULL) {
+            root = newParent;
+        } else if (left[oldParent] == sibling) {
+            left[oldParent] = newParent;
+        } else {
+            right[oldParent] = newParent;
+        }
+
+        refitAncestors(parent[leaf]);
+    }
+
+    private float descendCost(int child, float leafMinX, float leafMinY, float leafMaxX, float leafMaxY) {
+        float combined = perimeter(
+                Math.min(minX[child], leafMinX), Math.min(minY[child], leafMinY),
+                Math.max(maxX[child], leafMaxX), Math.max(maxY[child], leafMaxY));
+        if (left[child] == NULL) {
+            return combined;
+        }
+        return combined - perimeter(minX[child], minY[child], maxX[child], maxY[child]);
+    }
+
+    private void removeLeaf(int leaf) {
+        if (leaf == root) {
+            root = NULL;
+            return;
+        }
+
+        int parentNode = parent[leaf];
+        int grandParent = parent[parentNode];
+        int sibling = left[parentNode] == leaf ? right[parentNode] : left[parentNode];
+
+        if (grandParent == NULL) {
+            root = sibling;
+            parent[sibling] = NULL;
+            freeNode(parentNode);
+            return;
+        }
+        // 用兄弟节点替换父节点
+        if (left[grandParent] == parentNode) {
+            left[grandParent] = sibling;
+        } else {
+            right[grandParent] = sibling;
+        }
+        parent[sibling] = grandParent;
+        freeNode(parentNode);
+        refitAncestors(grandParent);
+    }
+
+    /**
+     * 从 index 向上重新计算包围盒、高度与标签并集，途中做平衡旋转
+     */
+    private void refitAncestors(int index) {
+        while (index != NULL) {
+            index = balance(index);
+            int child1 = left[index];
+            int child2 = right[index];
+            height[index] = 1 + Math.max(height[child1], height[child2]);
+            setUnion(index, child1, child2);
+            index = parent[index];
+        }
+    }
+
+    /**
+     * 左右子树高度相差超过 1 时把较高的子节点旋转上来
+     * @return 旋转后处在原位置的节点
+     */
+    private int balance(int a) {
+        if (left[a] == NULL || height[a] < 2) {
+            return a;
+        }
+        int b = left[a];
+        int c = right[a];
+        int difference = height[c] - height[b];
+
+        if (difference > 1) {
+            // c 上升
+            int f = left[c];
+            int g = right[c];
+            left[c] = a;
+            parent[c] = parent[a];
+            parent[a] = c;
+            replaceChild(parent[c], a, c);
+            if (height[f] > height[g]) {
+                right[c] = f;
+                right[a] = g;
+                parent[g] = a;
+                setUnion(a, b, g);
+                setUnion(c, a, f);
+                height[a] = 1 + Math.max(height[b], height[g]);
+                height[c] = 1 + Math.max(height[a], height[f]);
+            } else {
+                right[c] = g;
+                right[a] = f;
+                parent[f] = a;
+                setUnion(a, b, f);
+                setUnion(c, a, g);
+                height[a] = 1 + Math.max(height[b], height[f]);
+                height[c] = 1 + Math.max(height[a], height[g]);
+            }
+            return c;
+        }
+
+        if (difference < -1) {
+            // b 上升
+            int d = left[b];
+            int e = right[b];
+            left[b] = a;
+            parent[b] = parent[a];
+            parent[a] = b;
+            replaceChild(parent[b], a, b);
+            if (height[d] > height[e]) {
+                right[b] = d;
+                left[a] = e;
+                parent[e] = a;
+                setUnion(a, c, e);
+                setUnion(b, a, d);
+                height[a] = 1 + Math.max(height[c], height[e]);
+                height[b] = 1 + Math.max(height[a], height[d]);
+            } else {
+                right[b] = e;
+                left[a] = d;
+                parent[d] = a;
+                setUnion(a, c, d);
+                setUnion(b, a, e);
+                height[a] = 1 + Math.max(height[c], height[d]);
+                height[b] = 1 + Math.max(height[a], height[e]);
+            }
+            return b;
+        }
+        return a;
+    }
+
+    private void replaceChild(int parentNode, int oldChild, int newChild) {
+        if (parentNode == NULL) {
+            root = newChild;
+        } else if (left[parentNode] == oldChild) {
+            left[parentNode] = newChild;
+        } else {
+            right[parentNode] = newChild;
+        }
+    }
+
+    private void setUnion(int node, int child1, int child2) {
+        minX[node] = Math.min(minX[child1], minX[child2]);
+        minY[node] = Math.min(minY[child1], minY[child2]);
+        maxX[node] = Math.max(maxX[child1], maxX[child2]);
+        maxY[node] = Math.max(maxY[child1], maxY[child2]);
+        tagMasks[node] = tagMasks[child1] | tagMasks[child2];
+    }
+
+    private static float perimeter(float boxMinX, float boxMinY, float boxMaxX, float boxMaxY) {
+        return 2 * ((boxMaxX - boxMinX) + (boxMaxY - boxMinY));
+    }
+
+    // ---------------------------------------------------------------- 节点分配
+
+    private int allocateNode() {
+        if (freeList == NULL) {
+            allocate(capacity * 2);
+        }
+        int node = freeList;
+        freeList = parent[node];
+        parent[node] = NULL;
+        left[node] = NULL;
+        right[node] = NULL;
+        height[node] = 0;
+        tagMasks[node] = 0;
+        return node;
+    }
+
+    private void freeNode(int node) {
+        parent[node] = freeList;
+        height[node] = -1;
+        freeList = node;
+    }
+
+    /**
+     * 扩容到 newCapacity，新增的节点全部放入空闲链表
+     */
+    private void allocate(int newCapacity) {
+        int oldCapacity = capacity;
+        minX = grow(minX, newCapacity);
+        minY = grow(minY, newCapacity);
+        maxX = grow(maxX, newCapacity);
+        maxY = grow(maxY, newCapacity);
+        parent = grow(parent, newCapacity);
+        left = grow(left, newCapacity);
+        right = grow(right, newCapacity);
+        height = grow(height, newCapacity);
+        tagMasks = tagMasks == null ? new long[newCapacity] : Arrays.copyOf(tagMasks, newCapacity);
+        objects = objects == null ? new GameObject[newCapacity] : Arrays.copyOf(objects, newCapacity);
+        transforms = transforms == null ? new TransformComponent[newCapacity] : Arrays.copyOf(transforms, newCapacity);
+        renders = renders == null ? new RenderComponent[newCapacity] : Arrays.copyOf(renders, newCapacity);
+        tightMinX = grow(tightMinX, newCapacity);
+        tightMinY = grow(tightMinY, newCapacity);
+        tightMaxX = grow(tightMaxX, newCapacity);
+        tightMaxY = grow(tightMaxY, newCapacity);
+        transformVersions = grow(transformVersions, newCapacity);
+        renderVersions = grow(renderVersions, newCapacity);
+        stamps = grow(stamps, newCapacity);
+        leafSlots = grow(leafSlots, newCapacity);
+        capacity = newCapacity;
+
+        for (int i = newCapacity - 1; i >= oldCapacity; i--) {
+            parent[i] = freeList;
+            height[i] = -1;
+            freeList = i;
+        }
+    }
+
+    private static float[] grow(float[] array, int length) {
+        return array == null ? new float[length] : Arrays.copyOf(array, length);
+    }
+
+    private static int[] grow(int[] array, int length) {
+        return array == null ? new int[length] : Arrays.copyOf(array, length);
+    }
+}
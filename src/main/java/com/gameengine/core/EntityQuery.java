@@ -0,0 +1,69 @@
+package com.gameengine.core;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 多组件查询：同时拥有指定全部组件类型的游戏对象
+ * 与 GameObject.getComponent 相同，组件的父类或实现的接口也算作拥有该类型
+ * 由 ArchetypeStorage 缓存，新原型出现时自动加入匹配列表，重复查询不再扫描对象
+ */
+public final class EntityQuery {
+    private final Class<?>[] types;
+    private final List<Archetype> archetypes;
+    private final List<Archetype> archetypesView;
+
+    EntityQuery(Class<?>[] types) {
+        this.types = types;
+        this.archetypes = new ArrayList<>();
+        this.archetypesView = Collections.unmodifiableList(archetypes);
+    }
+
+    void offer(Archetype archetype) {
+        if (archetype.match(types)) {
+            archetypes.add(archetype);
+        }
+    }
+
+    /**
+     * 获取匹配的原型（只读）
+     */
+    public List<Archetype> getArchetypes() {
+        return archetypesView;
+    }
+
+    /**
+     * 获取匹配的对象数量
+     */
+    public int count() {
+        int count = 0;
+        for (int i = 0; i < archetypes.size(); i++) {
+            count += archetypes.get(i).size();
+        }
+        return count;
+    }
+
+    /**
+     * 两个组件的遍历回调
+     */
+    public interface Visitor2<A, B> {
+        void visit(GameObject gameObject, A a, B b);
+    }
+
+    /**
+     * 逐个对象遍历两种组件（两种类型都必须属于此查询）
+     */
+    public <A extends Component<A>, B extends Component<B>> void forEach(Class<A> typeA, Class<B> typeB,
+                                                                        Visitor2<A, B> visitor) {
+        for (int i = 0; i < archetypes.size(); i++) {
+            Archetype archetype = archetypes.get(i);
+            A[] columnA = archetype.getColumn(typeA);
+            B[] columnB = archetype.getColumn(typeB);
+            int size = archetype.size();
+            for (int row = 0; row < size; row++) {
+                visitor.visit(archetype.getEntity(row), columnA[row], columnB[row]);
+            }
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.gameengine.core;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 帧间隔控制器
+ * 先用 LockSupport.parkNanos 休眠到截止时间之前一小段，再自旋到截止时间：
+ * 休眠部分不占用CPU，自旋部分消除系统调度带来的抖动
+ * 自旋段长度根据观测到的休眠超时自适应调整
+ * 目标帧率不大于0时为不限速模式，不做任何等待
+ */
+public class FramePacer {
+    // 自旋段的上下限（纳秒）
+    private static final long MIN_SPIN_NANOS = 50_000L;
+    private static final long MAX_SPIN_NANOS = 4_000_000L;
+    // 休眠超时的平滑系数
+    private static final double OVERSHOOT_SMOOTHING = 0.1;
+
+    private long frameNanos;
+    private long nextDeadline;
+    private long spinNanos;
+    private double averageOvershoot;
+    private long lastError;
+
+    public FramePacer(float targetFPS) {
+        this.spinNanos = 1_000_000L;
+        this.averageOvershoot = spinNanos / 2.0;
+        setTargetFPS(targetFPS);
+    }
+
+    /**
+     * 设置目标帧率（不大于0表示不限速）
+     */
+    public void setTargetFPS(float targetFPS) {
+        this.frameNanos = targetFPS > 0 ? (long) (1_000_000_000.0 / targetFPS) : 0;
+        reset();
+    }
+
+    /**
+     * 以当前时间为起点重新计算截止时间（开始运行或长时间暂停之后调用）
+     */
+    public void reset() {
+        this.nextDeadline = System.nanoTime() + frameNanos;
+    }
+
+    public boolean isUncapped() {
+        return frameNanos <= 0;
+    }
+
+    /**
+     * 等待到下一帧的截止时间
+     * @return 实际醒来时间相对截止时间的偏差（纳秒，超过为正）；不限速时返回0
+     */
+    public long waitForNextFrame() {
+        if (frameNanos <= 0) {
+            return 0;
+        }
+
+        long deadline = nextDeadline;
+        long remaining = deadline - System.nanoTime();
+        while (remaining > spinNanos) {
+            long parkNanos = remaining - spinNanos;
+            long parkStart = System.nanoTime();
+            LockSupport.parkNanos(parkNanos);
+            long parkEnd = System.nanoTime();
+            adaptSpin(parkEnd - parkStart - parkNanos);
+            remaining = deadline - parkEnd;
+        }
+        while (deadline - System.nanoTime() > 0) {
+            Thread.onSpinWait();
+        }
+
+        long now = System.nanoTime();
+        lastError = now - deadline;
+        nextDeadline = deadline + frameNanos;
+        // 落后超过一帧时不再追赶，从当前时间重新开始计时
+        if (now - nextDeadline > frameNanos) {
+            nextDeadline = now + frameNanos;
+        }
+        return lastError;
+    }
+
+    private void adaptSpin(long overshoot) {
+        if (overshoot < 0) {
+            overshoot = 0;
+        }
+        averageOvershoot += (overshoot - averageOvershoot) * OVERSHOOT_SMOOTHING;
+        // 自旋段取平均超时的两倍，偶发的超时峰值由平滑吸收
+        long target = (long) (averageOvershoot * 2);
+        spinNanos = Math.max(MIN_SPIN_NANOS, Math.min(MAX_SPIN_NANOS, target));
+    }
+
+    /**
+     * 获取上一帧的节拍偏差（纳秒）
+     */
+    public long getLastError() {
+        return lastError;
+    }
+
+    /**
+     * 获取当前自旋段长度（纳秒）
+     */
+    public long getSpinNanos() {
+        return spinNanos;
+    }
+
+    /**
+     * 获取目标帧间隔（纳秒）
+     */
+    public long getFrameNanos() {
+        return frameNanos;
+    }
+}
@@ -0,0 +1,149 @@
+package com.gameengine.core;
+
+/**
+ * 帧时间直方图（纳秒）
+ * 采用对数-线性分桶：每个2的幂区间再均分为16个子桶，相对误差不超过1/16
+ * 记录过程不分配任何对象，可以在每帧的热路径上调用
+ */
+public class FrameTimeHistogram {
+    private static final int SUB_BUCKET_BITS = 4;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    // 2^40 纳秒约18分钟，超出的值记入最后一个桶
+    private static final int MAX_EXPONENT = 40;
+    private static final int BUCKET_COUNT = (MAX_EXPONENT - SUB_BUCKET_BITS + 2) * SUB_BUCKET_COUNT;
+
+    private final long[] counts;
+    private long totalCount;
+    private long totalNanos;
+    private long minNanos;
+    private long maxNanos;
+
+    public FrameTimeHistogram() {
+        this.counts = new long[BUCKET_COUNT];
+        reset();
+    }
+
+    /**
+     * 记录一个时长
+     * @param nanos 时长（纳秒）
+     */
+    public void record(long nanos) {
+        if (nanos < 0) {
+            nanos = 0;
+        }
+        counts[bucketIndex(nanos)]++;
+        totalCount++;
+        totalNanos += nanos;
+        if (nanos < minNanos) {
+            minNanos = nanos;
+        }
+        if (nanos > maxNanos) {
+            maxNanos = nanos;
+        }
+    }
+
+    /**
+     * 把另一个直方图的记录并入本直方图
+     */
+    public void add(FrameTimeHistogram other) {
+        if (other.totalCount == 0) {
+            return;
+        }
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        totalNanos += other.totalNanos;
+        if (other.minNanos < minNanos) {
+            minNanos = other.minNanos;
+        }
+        if (other.maxNanos > maxNanos) {
+            maxNanos = other.maxNanos;
+        }
+    }
+
+    /**
+     * 清空所有记录
+     */
+    public void reset() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = 0;
+        }
+        totalCount = 0;
+        totalNanos = 0;
+        minNanos = Long.MAX_VALUE;
+        maxNanos = 0;
+    }
+
+    /**
+     * 获取指定百分位的时长（纳秒）
+     * @param percentile 百分位（0到100），例如 99.9
+     */
+    public long getPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long rank = (long) Math.ceil(percentile / 100.0 * totalCount);
+        if (rank < 1) {
+            rank = 1;
+        }
+        if (rank >= totalCount) {
+            return maxNanos;
+        }
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // 取桶的中点，并限制在实际出现过的范围内
+                long value = (bucketLowerBound(i) + bucketUpperBound(i)) >>> 1;
+                return Math.max(minNanos, Math.min(maxNanos, value));
+            }
+        }
+        return maxNanos;
+    }
+
+    public long getCount() {
+        return totalCount;
+    }
+
+    public long getMax() {
+        return maxNanos;
+    }
+
+    public long getMin() {
+        return totalCount == 0 ? 0 : minNanos;
+    }
+
+    public double getMean() {
+        return totalCount == 0 ? 0.0 : (double) totalNanos / totalCount;
+    }
+
+    private static int bucketIndex(long nanos) {
+        if (nanos < SUB_BUCKET_COUNT) {
+            return (int) nanos;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(nanos);
+        if (exponent > MAX_EXPONENT) {
+            return BUCKET_COUNT - 1;
+        }
+        int subBucket = (int) (nanos >>> (exponent - SUB_BUCKET_BITS)) & (SUB_BUCKET_COUNT - 1);
+        return (exponent - SUB_BUCKET_BITS + 1) * SUB_BUCKET_COUNT + subBucket;
+    }
+
+    private static long bucketLowerBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        long subBucket = index % SUB_BUCKET_COUNT;
+        return (1L << exponent) + (subBucket << (exponent - SUB_BUCKET_BITS));
+    }
+
+    private static long bucketUpperBound(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+        int exponent = index / SUB_BUCKET_COUNT + SUB_BUCKET_BITS - 1;
+        return bucketLowerBound(index) + (1L << (exponent - SUB_BUCKET_BITS)) - 1;
+    }
+}
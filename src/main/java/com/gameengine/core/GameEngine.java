@@ -1,36 +1,79 @@
 package com.gameengine.core;
 
+import com.gameengine.graphics.FrameSnapshot;
 import com.gameengine.graphics.IRenderer;
+import com.gameengine.graphics.PipelinedRenderer;
 import com.gameengine.graphics.RenderBackend;
 import com.gameengine.graphics.RendererFactory;
 import com.gameengine.input.InputManager;
 import com.gameengine.scene.Scene;
 
+import java.util.concurrent.locks.LockSupport;
+
 /**
  * 游戏引擎
  */
 public class GameEngine {
     private IRenderer renderer;
+    private RenderBackend backend;
     private InputManager inputManager;
     private Scene currentScene;
-    private boolean running;
+    private volatile boolean running;
     private float targetFPS;
     private float deltaTime;
     private long lastTime;
     @SuppressWarnings("unused")
     private String title;
     private GamePerformance gamePerformance;
+    private Profiler profiler;
+
+    // 固定步长模拟
+    private boolean fixedTimeStep;
+    private float tickRate;
+    private float maxFrameTime;
+    private float accumulator;
+    private float interpolationAlpha;
+
+    // 不限速模拟（每次循环推进一个固定步长，不等待真实时间）
+    private boolean uncappedTicks;
+    private long maxTicks;
+    private long tickCount;
+
+    // 流水线模式：模拟线程记录绘制快照，当前线程（OpenGL线程）回放
+    private PipelinedRenderer pipelinedRenderer;
+
+    private final FramePacer framePacer;
+    // 引擎级任务系统，所有场景共用，随引擎结束而关闭
+    private final JobSystem jobSystem;
+
+    // 确定性模式：固定步长、由种子派生的随机数流
+    private boolean deterministic;
+    private long randomSeed;
+    private boolean inputRecording;
+    // 回放线程等待新快照时每次让出的时间（纳秒）
+    private static final long PRESENT_IDLE_NANOS = 200_000L;
     
     public GameEngine(int width, int height, String title, RenderBackend backend) {
         this.title = title;
+        this.backend = backend;
         this.renderer = RendererFactory.createRenderer(backend, width, height, title);
         this.inputManager = InputManager.getInstance();
         this.running = false;
         this.targetFPS = 60.0f;
+        this.framePacer = new FramePacer(targetFPS);
+        this.jobSystem = new JobSystem();
         this.deltaTime = 0.0f;
         this.lastTime = System.nanoTime();
         this.gamePerformance = new GamePerformance();
-        
+        this.profiler = new Profiler();
+        this.fixedTimeStep = false;
+        this.tickRate = 60.0f;
+        this.maxFrameTime = 0.25f;
+        this.accumulator = 0.0f;
+        this.interpolationAlpha = 1.0f;
+        this.uncappedTicks = false;
+        this.maxTicks = 0;
+        this.tickCount = 0;
     }
     
     /**
@@ -56,34 +99,116 @@ public class GameEngine {
             
         }
         
-        long lastFrameTime = System.nanoTime();
-        long frameTimeNanos = (long)(1_000_000_000.0 / targetFPS);
-        
+        if (pipelinedRenderer != null) {
+            runPipelined();
+        } else {
+            runSimulation();
+        }
+
+        if (currentScene != null) {
+            currentScene.exit();
+        }
+
+        // 退出时输出性能统计（已输出过则忽略）
+        gamePerformance.printSummary();
+        jobSystem.shutdown();
+    }
+    
+    /**
+     * 模拟循环：按目标帧率更新并渲染
+     */
+    private void runSimulation() {
+        lastTime = System.nanoTime();
+        framePacer.setTargetFPS(targetFPS);
+    
         while (running) {
-            long currentTime = System.nanoTime();
-            
-            if (currentTime - lastFrameTime >= frameTimeNanos) {
-                update();
+            if (uncappedTicks) {
+                // 不限速：不做帧间隔控制，也不休眠
+                updateUncapped();
                 if (running) {
                     render();
                 }
-                lastFrameTime = currentTime;
+                if (renderer.shouldClose()) {
+                    running = false;
+                }
+                continue;
             }
-            
+
+            if (fixedTimeStep) {
+                updateFixed();
+            } else {
+                update();
+            }
+            if (running) {
+                render();
+            }
+        
             if (renderer.shouldClose()) {
                 running = false;
             }
-            
+
+            // 等待到下一帧（目标帧率不大于0时不等待）
+            if (running && !framePacer.isUncapped()) {
+                long error = framePacer.waitForNextFrame();
+                gamePerformance.record(GamePerformance.Phase.PACING, Math.abs(error));
+            }
+        }
+    }
+
+    /**
+     * 流水线运行：模拟在独立线程上推进并记录快照，当前线程负责事件处理与回放
+     */
+    private void runPipelined() {
+        Throwable[] simulationError = new Throwable[1];
+        Thread simulationThread = new Thread(() -> {
             try {
-                Thread.sleep(1);
-            } catch (InterruptedException e) {
-                break;
+                runSimulation();
+            } catch (Throwable e) {
+                simulationError[0] = e;
+            } finally {
+                running = false;
+            }
+        }, "Simulation");
+        simulationThread.start();
+
+        IRenderer display = pipelinedRenderer.getTarget();
+        while (running) {
+            long pollStart = System.nanoTime();
+            display.pollEvents();
+            gamePerformance.recordFromRenderThread(GamePerformance.Phase.POLL_EVENTS, System.nanoTime() - pollStart);
+
+            FrameSnapshot snapshot = pipelinedRenderer.acquireLatest();
+            if (snapshot != null) {
+                long presentStart = System.nanoTime();
+                display.beginFrame();
+                snapshot.replay(display);
+                display.endFrame();
+                gamePerformance.recordFromRenderThread(GamePerformance.Phase.PRESENT,
+                        System.nanoTime() - presentStart);
+            } else {
+                // 没有新快照时短暂让出CPU
+                LockSupport.parkNanos(PRESENT_IDLE_NANOS);
             }
+
+            if (display.shouldClose()) {
+                running = false;
+            }
+        }
+
+        try {
+            simulationThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        display.cleanup();
+
+        if (simulationError[0] != null) {
+            throw new RuntimeException("模拟线程异常退出: " + simulationError[0].getMessage(), simulationError[0]);
         }
     }
     
     /**
-     * 更新游戏逻辑
+     * 更新游戏逻辑（可变步长，每帧一次）
      */
     private void update() {
         // 计算时间间隔
@@ -95,21 +220,121 @@ public class GameEngine {
         gamePerformance.update(deltaTime);
         
         // 处理事件（先处理输入事件）
+        pollEvents();
+
+        long updateStart = System.nanoTime();
+        tick(deltaTime);
+        gamePerformance.record(GamePerformance.Phase.UPDATE, System.nanoTime() - updateStart);
+        interpolationAlpha = 1.0f;
+    }
+
+    /**
+     * 更新游戏逻辑（固定步长）
+     * 按真实经过的时间累积，再以 1/tickRate 为步长推进若干次模拟，
+     * 剩余不足一步的时间换算为插值系数交给渲染
+     */
+    private void updateFixed() {
+        long currentTime = System.nanoTime();
+        float frameTime = (currentTime - lastTime) / 1_000_000_000.0f;
+        lastTime = currentTime;
+
+        gamePerformance.update(frameTime);
+
+        // 防止卡顿后追帧过多导致“死亡螺旋”
+        if (frameTime > maxFrameTime) {
+            frameTime = maxFrameTime;
+        }
+        accumulator += frameTime;
+
+        // 每个渲染帧只处理一次输入事件
+        pollEvents();
+
+        float step = 1.0f / tickRate;
+        deltaTime = step;
+        long updateStart = System.nanoTime();
+        int ticks = 0;
+        while (accumulator >= step && running) {
+            tick(step);
+            accumulator -= step;
+            ticks++;
+        }
+        // 渲染帧率高于模拟频率时有些帧不推进模拟，这些帧不计入 UPDATE 的分布
+        if (ticks > 0) {
+            gamePerformance.record(GamePerformance.Phase.UPDATE, System.nanoTime() - updateStart);
+        }
+
+        interpolationAlpha = Math.min(1.0f, accumulator / step);
+    }
+
+    /**
+     * 更新游戏逻辑（不限速，每次调用推进一个固定步长）
+     */
+    private void updateUncapped() {
+        long currentTime = System.nanoTime();
+        float frameTime = (currentTime - lastTime) / 1_000_000_000.0f;
+        lastTime = currentTime;
+
+        gamePerformance.update(frameTime);
+        pollEvents();
+
+        deltaTime = 1.0f / tickRate;
+        long updateStart = System.nanoTime();
+        tick(deltaTime);
+        gamePerformance.record(GamePerformance.Phase.UPDATE, System.nanoTime() - updateStart);
+        interpolationAlpha = 1.0f;
+    }
+
+    /**
+     * 处理窗口与输入事件
+     */
+    private void pollEvents() {
+        // 流水线模式下事件由OpenGL线程处理
+        if (pipelinedRenderer != null) {
+            return;
+        }
+        long pollStart = System.nanoTime();
         renderer.pollEvents();
-        
+        gamePerformance.record(GamePerformance.Phase.POLL_EVENTS, System.nanoTime() - pollStart);
+    }
+
+    /**
+     * 推进一次模拟
+     */
+    private void tick(float dt) {
+        // 换入上次模拟之后到达的按键边沿
+        inputManager.beginTick();
+
         // 更新场景
         if (currentScene != null) {
-            currentScene.update(deltaTime);
+            currentScene.update(dt);
         }
         
+        // F3 切换详细性能统计显示
+        if (inputManager.isKeyJustPressed(292)) { // GLFW_KEY_F3
+            gamePerformance.toggleDetails();
+        }
+
+        // F4 切换各系统耗时柱状图
+        if (inputManager.isKeyJustPressed(293)) { // GLFW_KEY_F4
+            profiler.toggleOverlay();
+        }
+
         // 清除输入状态（在场景update之后）
         inputManager.update();
+        tickCount++;
+
+        // 达到指定的模拟次数后停止
+        if (maxTicks > 0 && tickCount >= maxTicks) {
+            running = false;
+            return;
+        }
         
         // 检查退出条件（支持多种ESC键码）
         if (inputManager.isKeyPressed(27) || inputManager.isKeyPressed(256)) { // ESC键（27=传统码，256=GLFW码）
             running = false;
             gamePerformance.printSummary(); // 打印平均帧率统计
             renderer.cleanup();
+            return;
         }
         
         // 检查窗口是否关闭
@@ -123,23 +348,31 @@ public class GameEngine {
      * 渲染游戏
      */
     private void render() {
+        long renderStart = System.nanoTime();
         renderer.beginFrame();
         
         // 渲染场景
         if (currentScene != null) {
-            currentScene.render();
+            currentScene.render(interpolationAlpha);
         }
 
-        // 渲染帧率
+        // 渲染帧率与各系统耗时
         gamePerformance.render(renderer);
+        profiler.render(renderer);
 
+        long swapStart = System.nanoTime();
+        gamePerformance.record(GamePerformance.Phase.RENDER, swapStart - renderStart);
         renderer.endFrame();
+        gamePerformance.record(GamePerformance.Phase.SWAP, System.nanoTime() - swapStart);
     }
     
     /**
      * 设置当前场景
      */
     public void setScene(Scene scene) {
+        if (currentScene != null && currentScene != scene) {
+            currentScene.exit();
+        }
         this.currentScene = scene;
         if (scene != null && running) {
             scene.initialize();
@@ -168,7 +401,10 @@ public class GameEngine {
         gamePerformance.printSummary(); // 打印平均帧率统计
         System.out.println("Game Over");
         cleanup();
-        System.exit(0);
+        // 无窗口模式下由调用方决定后续流程，不直接退出进程
+        if (backend != RenderBackend.HEADLESS) {
+            System.exit(0);
+        }
     }
     
     /**
@@ -195,6 +431,20 @@ public class GameEngine {
         return inputManager;
     }
     
+    /**
+     * 获取性能统计
+     */
+    public GamePerformance getGamePerformance() {
+        return gamePerformance;
+    }
+    
+    /**
+     * 获取区段性能分析器
+     */
+    public Profiler getProfiler() {
+        return profiler;
+    }
+    
     /**
      * 获取时间间隔
      */
@@ -207,6 +457,7 @@ public class GameEngine {
      */
     public void setTargetFPS(float fps) {
         this.targetFPS = fps;
+        framePacer.setTargetFPS(fps);
     }
     
     /**
@@ -215,6 +466,159 @@ public class GameEngine {
     public float getTargetFPS() {
         return targetFPS;
     }
+
+    /**
+     * 获取引擎的任务系统
+     */
+    public JobSystem getJobSystem() {
+        return jobSystem;
+    }
+
+    /**
+     * 获取帧间隔控制器
+     */
+    public FramePacer getFramePacer() {
+        return framePacer;
+    }
+
+    /**
+     * 启用/禁用固定步长模拟
+     */
+    public void setFixedTimeStep(boolean fixedTimeStep) {
+        this.fixedTimeStep = fixedTimeStep;
+        this.accumulator = 0.0f;
+    }
+
+    /**
+     * 是否使用固定步长模拟
+     */
+    public boolean isFixedTimeStep() {
+        return fixedTimeStep;
+    }
+
+    /**
+     * 设置模拟频率（每秒模拟次数，仅固定步长模式生效）
+     */
+    public void setTickRate(float tickRate) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("模拟频率必须大于0: " + tickRate);
+        }
+        this.tickRate = tickRate;
+    }
+
+    /**
+     * 获取模拟频率
+     */
+    public float getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * 设置单帧最多计入的时间（秒），超出部分直接丢弃
+     */
+    public void setMaxFrameTime(float maxFrameTime) {
+        this.maxFrameTime = maxFrameTime;
+    }
+
+    /**
+     * 启用/禁用不限速模拟
+     * 启用后每次循环都以 1/tickRate 为步长推进一次，不等待真实时间，用于测量纯模拟吞吐
+     */
+    public void setUncappedTicks(boolean uncappedTicks) {
+        this.uncappedTicks = uncappedTicks;
+    }
+
+    /**
+     * 是否为不限速模拟
+     */
+    public boolean isUncappedTicks() {
+        return uncappedTicks;
+    }
+
+    /**
+     * 设置最多模拟次数，达到后引擎自动停止（0表示不限制）
+     */
+    public void setMaxTicks(long maxTicks) {
+        this.maxTicks = maxTicks;
+    }
+
+    /**
+     * 获取已完成的模拟次数
+     */
+    public long getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * 启用/禁用流水线模式（需在 run 之前、场景初始化之前设置）
+     * 启用后模拟与渲染分别在两个线程上并行：模拟线程推进第 N+1 帧时，
+     * OpenGL线程回放第 N 帧的绘制快照；getRenderer 返回记录快照的渲染器
+     */
+    public void setPipelined(boolean pipelined) {
+        if (running) {
+            throw new IllegalStateException("运行中无法切换流水线模式");
+        }
+        if (pipelined && pipelinedRenderer == null) {
+            pipelinedRenderer = new PipelinedRenderer(renderer);
+            renderer = pipelinedRenderer;
+        } else if (!pipelined && pipelinedRenderer != null) {
+            renderer = pipelinedRenderer.getTarget();
+            pipelinedRenderer = null;
+        }
+    }
+
+    /**
+     * 是否为流水线模式
+     */
+    public boolean isPipelined() {
+        return pipelinedRenderer != null;
+    }
+
+    /**
+     * 启用确定性模式
+     * 强制固定步长模拟，场景的随机数流由该种子派生；同一种子与同一输入序列得到逐位相同的模拟结果
+     */
+    public void setDeterministic(long seed) {
+        this.deterministic = true;
+        this.randomSeed = seed;
+        setFixedTimeStep(true);
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    /**
+     * 获取确定性模式的随机种子
+     */
+    public long getRandomSeed() {
+        return randomSeed;
+    }
+
+    /**
+     * 启用/禁用输入录制（确定性模式下，游戏场景把每次模拟的输入写入录制文件）
+     */
+    public void setInputRecording(boolean inputRecording) {
+        this.inputRecording = inputRecording;
+    }
+
+    public boolean isInputRecording() {
+        return inputRecording;
+    }
+
+    /**
+     * 获取渲染后端
+     */
+    public RenderBackend getBackend() {
+        return backend;
+    }
+
+    /**
+     * 获取当前渲染插值系数（0到1）
+     */
+    public float getInterpolationAlpha() {
+        return interpolationAlpha;
+    }
     
     /**
      * 检查引擎是否正在运行
@@ -10,18 +10,25 @@ import com.gameengine.scene.Scene;
 import java.util.List;
 import java.io.FileWriter;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Random;
 
-// 并行处理类导入
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
-import java.util.concurrent.Future;
-import java.util.stream.Collectors;
-
 /**
  * 游戏逻辑类，处理具体的游戏规则
  */
 public class GameLogic {
+    /**
+     * 碰撞粗筛方式，三种方式的命中结果相同
+     */
+    public enum Broadphase {
+        /** 逐个比较所有对象 */
+        NESTED_LOOPS,
+        /** 空间哈希网格，按双方数量自动决定每组碰撞是否使用网格 */
+        SPATIAL_HASH,
+        /** 扫掠剪枝，排序在帧之间保留 */
+        SWEEP_AND_PRUNE
+    }
+
     private Scene scene;
     private GameEngine engine;
     private InputManager inputManager;
@@ -36,36 +43,169 @@ public class GameLogic {
     private float enemySkillCooldownDuration = 2.0f;
 
     private boolean gameOver;
+    // 确定性模式：结果与线程调度无关，同一种子与输入得到同一结果
+    private boolean deterministic;
 
     // 多线程通用组件
     private final int PARALLEL_THRESHOLD = 20; // 组件数量超过此值才启用并行
-    private final int threadCount;
-
-    // 物理更新多线程赋值
-    private ExecutorService physicsExecutor;
-    // 碰撞检测多线程赋值
-    private ExecutorService collisionExecutor;
+    // 由引擎持有的任务系统，场景切换时不会重复创建线程
+    private final JobSystem jobSystem;
+    // 积分与边界反弹
+    private final PhysicsSystem physicsSystem;
+
+    // 碰撞半径；网格边长取直径，查询最多覆盖 2x2 个格子
+    private static final float COLLISION_RADIUS = 25;
+    // 逐个比较次数超过 (双方数量之和 * 此值) 时使用网格
+    private static final int GRID_COST_FACTOR = 8;
+    private final SpatialHashGrid enemyGrid = new SpatialHashGrid(COLLISION_RADIUS * 2);
+    private final SpatialHashGrid enemySkillGrid = new SpatialHashGrid(COLLISION_RADIUS * 2);
+    private final SpatialHashGrid playerSkillGrid = new SpatialHashGrid(COLLISION_RADIUS * 2);
+    // 每个线程各自的查询结果
+    private final ThreadLocal<SpatialHashGrid.Query> collisionQuery =
+            ThreadLocal.withInitial(SpatialHashGrid.Query::new);
+    private Broadphase broadphase = Broadphase.SPATIAL_HASH;
+    // 本帧各组碰撞是否使用网格（由 buildCollisionGrids 按数量决定）
+    private boolean useEnemyGrid;
+    private boolean useEnemySkillGrid;
+    private boolean usePlayerSkillGrid;
+
+    // 扫掠剪枝的分组
+    private static final int GROUP_PLAYER = 0;
+    private static final int GROUP_ENEMY = 1;
+    private static final int GROUP_ENEMY_SKILL = 2;
+    private static final int GROUP_PLAYER_SKILL = 3;
+    private final SweepAndPrune sweepAndPrune = new SweepAndPrune(COLLISION_RADIUS);
+    // 碰撞事件缓冲区，每个批次一个，帧之间复用
+    private CollisionEventBuffer[] playerHitEvents = new CollisionEventBuffer[0];
+    private CollisionEventBuffer[] enemyHitEvents = new CollisionEventBuffer[0];
+
+    // 空间查询（最近的敌人、范围内的对象、视线），每帧由 updateSpatialIndex 同步一次
+    private final DynamicAabbTree spatialIndex = new DynamicAabbTree();
+    // 每个线程各自的射线检测结果
+    private final ThreadLocal<DynamicAabbTree.RayHit> rayHit =
+            ThreadLocal.withInitial(DynamicAabbTree.RayHit::new);
+
+    // 技能对象池（由场景设置）；未设置时在攻击时用场景中已有的技能对象建立
+    private GameObjectPool<?> playerSkillPool;
+    private GameObjectPool<?> enemySkillPool;
+    private int playerVolleySize;
+    private int enemyVolleySize;
+    // 没有设置对象池时由内部对象池管理的已有技能，每次攻击全部发射
+    private List<GameObject> existingPlayerSkills;
+    private List<GameObject> existingEnemySkills;
+    // 本次发射取出的技能，复用同一个列表
+    private final List<GameObject> volley = new ArrayList<>();
+    // 敌人移动：本帧的敌人与随机偏转角（容量只增不减），并行任务每帧复用
+    private List<GameObject> movingEnemies;
+    private float[] randomAngles = new float[0];
+    private final JobSystem.RangeTask enemyMoveTask = this::moveEnemies;
 
     public GameLogic(Scene scene, GameEngine engine) {
+        this(scene, engine, new Random());
+    }
+
+    /**
+     * @param random 游戏逻辑使用的随机数流（确定性模式下由种子派生）
+     */
+    public GameLogic(Scene scene, GameEngine engine, Random random) {
         this.scene = scene;
         this.engine = engine;
         this.inputManager = InputManager.getInstance();
-        this.random = new Random();
+        this.random = random;
         this.enemyMoveTimer = 0;
         this.EnemyAttackLifeTimer = 0;
         this.playerSkillCooldownTimer = 0.5f; // 初始化为冷却完成状态
         this.enemySkillCooldownTimer = 0.5f;
         this.gameOver = false;
+        this.jobSystem = engine.getJobSystem();
+        this.physicsSystem = new PhysicsSystem(scene, jobSystem);
+        // 地图为1600x1200，对象尺寸按15计算
+        physicsSystem.setBounds(0, 0, 1600 - 15, 1200 - 15);
+        // 场景中的对象在 update 中会把组件更新两遍，游戏的速度与摩擦按每帧积分两次调好，这里保持一致
+        physicsSystem.setStepsPerTick(2);
+        physicsSystem.setParallelThreshold(PARALLEL_THRESHOLD);
+        sweepAndPrune.setPairFilter(GROUP_PLAYER, GROUP_ENEMY);
+        sweepAndPrune.setPairFilter(GROUP_PLAYER, GROUP_ENEMY_SKILL);
+        sweepAndPrune.setPairFilter(GROUP_ENEMY, GROUP_PLAYER_SKILL);
+    }
+
+    /**
+     * 按工作线程数把 count 个元素切成批次（每个线程加调用线程各一批）
+     */
+    private int batchSize(int count) {
+        return Math.max(1, count / (jobSystem.getWorkerCount() + 1) + 1);
+    }
 
-        // 多线程池通用threadCount赋值
-        this.threadCount = Math.max(2, Runtime.getRuntime().availableProcessors() - 1);
-        // 为避免重复创建线程池，在此初始化
-        // 初始化物理更新多线程池
-        physicsExecutor = Executors.newFixedThreadPool(threadCount);
-        System.out.println("物理更新线程池已经被初始化完成");
-        // 初始化碰撞检测多线程池
-        this.collisionExecutor = Executors.newFixedThreadPool(threadCount);
-        System.out.println("碰撞检测线程池已经被初始化完成");
+    /**
+     * 启用/禁用确定性模式
+     * 碰撞检测的并行与串行结果相同（先检测再按列表顺序统一结算），确定性模式下也可以并行检测
+     */
+    public void setDeterministic(boolean deterministic) {
+        this.deterministic = deterministic;
+    }
+
+    public boolean isDeterministic() {
+        return deterministic;
+    }
+
+    /**
+     * 设置技能对象池：每次攻击从池中取出一组技能，技能命中或生命周期结束后归还
+     * 不设置时在攻击时用场景中已有的技能建立对象池
+     * @param playerVolleySize 玩家每次攻击发射的技能数量
+     * @param enemyVolleySize 国王每次攻击发射的技能数量
+     */
+    public void setSkillPools(GameObjectPool<?> playerSkillPool, int playerVolleySize,
+                              GameObjectPool<?> enemySkillPool, int enemyVolleySize) {
+        this.playerSkillPool = playerSkillPool;
+        this.playerVolleySize = playerVolleySize;
+        this.enemySkillPool = enemySkillPool;
+        this.enemyVolleySize = enemyVolleySize;
+        this.existingPlayerSkills = null;
+        this.existingEnemySkills = null;
+    }
+
+    /**
+     * 取出一次攻击使用的技能（池已满时可能少于 count 个，没有对象池时为空）
+     * existing 不为 null 时池由已有技能建立：与设置对象池之前相同，每次攻击发射全部技能，
+     * 已回收的先从池中取回（重新加入场景），仍在飞行的直接重新发射
+     */
+    private List<GameObject> acquireVolley(GameObjectPool<?> pool, int count, List<GameObject> existing) {
+        volley.clear();
+        if (pool == null) {
+            return volley;
+        }
+        if (existing != null) {
+            while (pool.getFreeCount() > 0) {
+                pool.acquire();
+            }
+            return existing;
+        }
+        for (int i = 0; i < count; i++) {
+            GameObject skill = pool.acquire();
+            if (skill == null) {
+                break;
+            }
+            volley.add(skill);
+        }
+        return volley;
+    }
+
+    /**
+     * 没有设置对象池时，用场景中已有的技能建立对象池
+     * 技能命中或生命周期结束后归还到这个池，下次攻击再次使用（而不是被场景移除后再也取不到）
+     * 场景中还没有该标签的技能时不建立，下次攻击再检查
+     */
+    private void poolExistingSkills() {
+        if (playerSkillPool == null && !scene.findGameObjectsByTag(Tag.PLAYER_SKILL).isEmpty()) {
+            existingPlayerSkills = new ArrayList<>(scene.findGameObjectsByTag(Tag.PLAYER_SKILL));
+            playerSkillPool = GameObjectPool.of(scene, existingPlayerSkills);
+            playerVolleySize = existingPlayerSkills.size();
+        }
+        if (enemySkillPool == null && !scene.findGameObjectsByTag(Tag.ENEMY_SKILL).isEmpty()) {
+            existingEnemySkills = new ArrayList<>(scene.findGameObjectsByTag(Tag.ENEMY_SKILL));
+            enemySkillPool = GameObjectPool.of(scene, existingEnemySkills);
+            enemyVolleySize = existingEnemySkills.size();
+        }
     }
 
     /**
@@ -79,8 +219,10 @@ public class GameLogic {
      * 获取当前游戏玩家
      */
     public GameObject getPlayer() {
-        for (GameObject obj : scene.getGameObjects()) {
-            if (obj.getidentity().equals("Player") && obj.hasComponent(PhysicsComponent.class)) {
+        List<GameObject> players = scene.findGameObjectsByTag(Tag.PLAYER);
+        for (int i = 0; i < players.size(); i++) {
+            GameObject obj = players.get(i);
+            if (obj.hasComponent(PhysicsComponent.class)) {
                 return obj;
             }
         }
@@ -89,32 +231,24 @@ public class GameLogic {
 
     /**
      * 获取所有玩家(为日后扩展成多人游戏作准备)
+     * 以下几个方法返回场景的标签桶视图，可能包含本帧刚失活的对象，使用时检查 isActive
      */
-        public List<GameObject> getPlayers() {
-        return scene.getGameObjects().stream()
-            .filter(obj -> obj.getidentity().equals("Player"))
-            .filter(obj -> obj.isActive())
-            .collect(Collectors.toList());
+    public List<GameObject> getPlayers() {
+        return scene.findGameObjectsByTag(Tag.PLAYER);
     }
 
     /**
      * 获取当前所有怪物
      */
     public List<GameObject> getEnemies() {
-        return scene.getGameObjects().stream()
-            .filter(obj -> obj.getidentity().equals("Enemy"))
-            .filter(obj -> obj.isActive())
-            .collect(Collectors.toList());
+        return scene.findGameObjectsByTag(Tag.ENEMY);
     }
 
     /**
      * 获取所有技能对象
      */
     public List<GameObject> getSkills() {
-        return scene.getGameObjects().stream()
-            .filter(obj -> obj.getidentity().equals("Player Skill"))
-            .filter(obj -> obj.isActive())
-            .collect(Collectors.toList());
+        return scene.findGameObjectsByTag(Tag.PLAYER_SKILL);
     }
 
     /**
@@ -123,11 +257,13 @@ public class GameLogic {
     public void updateRecords(float keyTimer, FileWriter recordingWriter) {
 
         String records = "";
-        for (GameObject obj : scene.getGameObjects()) {
+        List<GameObject> gameObjects = scene.getGameObjectsView();
+        for (int i = 0; i < gameObjects.size(); i++) {
+            GameObject obj = gameObjects.get(i);
 
             if (!obj.isActive()) continue;
 
-            if (obj.getidentity().equals("None")) continue; // 对于无身份的对象不记录
+            if (obj.getIdentityTag() == null) continue; // 对于无身份的对象不记录
 
             String singleRecord = obj.getRecords();
             records += singleRecord + ";";
@@ -158,19 +294,20 @@ public class GameLogic {
         if (transform == null || physics == null)
             return;
 
-        Vector2 movement = new Vector2();
+        float moveX = 0;
+        float moveY = 0;
 
         if (inputManager.isKeyPressed(87) || inputManager.isKeyPressed(38)) { // W或上箭头
-            movement.y -= 1;
+            moveY -= 1;
         }
         if (inputManager.isKeyPressed(83) || inputManager.isKeyPressed(40)) { // S或下箭头
-            movement.y += 1;
+            moveY += 1;
         }
         if (inputManager.isKeyPressed(65) || inputManager.isKeyPressed(37)) { // A或左箭头
-            movement.x -= 1;
+            moveX -= 1;
         }
         if (inputManager.isKeyPressed(68) || inputManager.isKeyPressed(39)) { // D或右箭头
-            movement.x += 1;
+            moveX += 1;
         }
 
         if (inputManager.isKeyPressed(74)) { // J按键
@@ -179,129 +316,95 @@ public class GameLogic {
 
         }
 
-        if (movement.magnitude() > 0) {
-            movement = movement.normalize().multiply(200);
-            physics.setVelocity(movement);
+        float moveLength = Vector2.magnitude(moveX, moveY);
+        if (moveLength > 0) {
+            physics.setVelocity(moveX / moveLength * 200, moveY / moveLength * 200);
         }
 
         // 边界检查（地图扩大到1600x1200）
-        Vector2 pos = transform.getPosition();
-        if (pos.x < 0)
-            pos.x = 0;
-        if (pos.y < 0)
-            pos.y = 0;
-        if (pos.x > 1600 - 20)
-            pos.x = 1600 - 20;
-        if (pos.y > 1200 - 20)
-            pos.y = 1200 - 20;
-        transform.setPosition(pos);
-    }
-
-    /**
-     * 更新物理系统
-     * 由组件数量决定并串行方式
-     * 若组件过少，则串行，反之并行
-     */
-    public void updatePhysics() {
-        List<PhysicsComponent> physicsComponents = scene.getComponents(PhysicsComponent.class);
-        if (physicsComponents.isEmpty())
-            return;
-
-        // 根据组件数量决定串行还是并行
-        if (physicsComponents.size() < PARALLEL_THRESHOLD) {
-            updatePhysicsSerial(physicsComponents);
-        } else {
-            updatePhysicsParallel(physicsComponents);
-        }
-
+        float x = transform.getX();
+        float y = transform.getY();
+        if (x < 0)
+            x = 0;
+        if (y < 0)
+            y = 0;
+        if (x > 1600 - 20)
+            x = 1600 - 20;
+        if (y > 1200 - 20)
+            y = 1200 - 20;
+        transform.setXY(x, y);
     }
 
     /**
-     * 并行处理物理系统
-     * 
+     * 更新物理系统：积分与边界反弹由 PhysicsSystem 一次完成
      */
-    private void updatePhysicsParallel(List<PhysicsComponent> physicsComponents) {
-
-        // 初始化物理更新线程池（若为空或已关闭则重新创建）
-        if (physicsExecutor == null || physicsExecutor.isShutdown() || physicsExecutor.isTerminated()) {
-            physicsExecutor = Executors.newFixedThreadPool(threadCount);
-            System.out.println("物理更新线程池已经被初始化完成");
-        }
-
-        // 分批次处理优化
-        int batchSize = Math.max(1, physicsComponents.size() / threadCount + 1);
+    public void updatePhysics(float deltaTime) {
+        physicsSystem.update(deltaTime);
+    }
 
-        List<Future<?>> futures = new ArrayList<>();
+    public PhysicsSystem getPhysicsSystem() {
+        return physicsSystem;
+    }
 
-        for (int i = 0; i < physicsComponents.size(); i += batchSize) {
-            final int start = i;
-            final int end = Math.min(i + batchSize, physicsComponents.size());
+    /**
+     * 按本帧的位置更新空间查询树（在物理之后、敌人移动等查询之前调用一次）
+     */
+    public void updateSpatialIndex() {
+        spatialIndex.sync(scene);
+    }
 
-            Future<?> future = physicsExecutor.submit(() -> {
-                for (int j = start; j < end; j++) {
-                    PhysicsComponent physics = physicsComponents.get(j);
-                    updateSinglePhysics(physics);
-                }
-            });
+    public DynamicAabbTree getSpatialIndex() {
+        return spatialIndex;
+    }
 
-            futures.add(future);
-        }
+    /**
+     * 离 (x, y) 最近的活跃敌人
+     * @return 敌人，没有时返回 null
+     */
+    public GameObject findNearestEnemy(float x, float y) {
+        return spatialIndex.findNearest(x, y, Tag.ENEMY);
+    }
 
-        for (Future<?> future : futures) {
-            try {
-                future.get();
-            } catch (Exception e) {
-                e.printStackTrace();
-            }
-        }
+    /**
+     * 查找 (x, y) 周围 radius 范围内带有指定标签的活跃对象，例如技能爆炸范围内的敌人
+     * @return 结果数量（result 会先被清空）
+     */
+    public int findInRadius(float x, float y, float radius, Tag tag, List<GameObject> result) {
+        return spatialIndex.queryRadius(x, y, radius, tag, result);
     }
 
     /**
-     * 串行更新物理组件
-     * 
+     * from 与 to 的位置之间是否没有带有 blockerTag 的其他对象遮挡
      */
-    private void updatePhysicsSerial(List<PhysicsComponent> physicsComponents) {
-        for (PhysicsComponent physicsComponent : physicsComponents) {
-            updateSinglePhysics(physicsComponent);
+    public boolean hasLineOfSight(GameObject from, GameObject to, Tag blockerTag) {
+        TransformComponent fromTransform = from.getComponent(TransformComponent.class);
+        TransformComponent toTransform = to.getComponent(TransformComponent.class);
+        if (fromTransform == null || toTransform == null)
+            return false;
+
+        DynamicAabbTree.RayHit hit = rayHit.get();
+        if (!spatialIndex.raycast(fromTransform.getX(), fromTransform.getY(),
+                toTransform.getX(), toTransform.getY(), blockerTag, from, hit)) {
+            return true;
         }
+        return hit.getGameObject() == to;
     }
 
     /**
-     * 对单个物理部件进行更新
-     * 是决定具体更新方式的关键
+     * 设置碰撞粗筛方式（默认 SPATIAL_HASH），可以在运行中切换
+     * SPATIAL_HASH 对每组碰撞（玩家-敌人、玩家-敌人技能、敌人-玩家技能）按双方数量决定：
+     * 逐个比较的次数明显多于建网格与查询的开销时才使用网格，例如只有一个玩家时仍逐个比较敌人
+     * SWEEP_AND_PRUNE 适合成群移动的对象：排序在帧之间保留，每帧只做插入排序
      */
-    private void updateSinglePhysics(PhysicsComponent physics) {
-        TransformComponent transform = physics.getOwner().getComponent(TransformComponent.class);
-        if (transform != null) {
-            Vector2 pos = transform.getPosition();
-            Vector2 velocity = physics.getVelocity();
-
-            boolean velocityChanged = false;
-
-            if (pos.x <= 0 || pos.x >= 1600 - 15) {
-                velocity.x = -velocity.x;
-                velocityChanged = true;
-            }
-            if (pos.y <= 0 || pos.y >= 1200 - 15) {
-                velocity.y = -velocity.y;
-                velocityChanged = true;
-            }
-
-            if (pos.x < 0)
-                pos.x = 0;
-            if (pos.y < 0)
-                pos.y = 0;
-            if (pos.x > 1600 - 15)
-                pos.x = 1600 - 15;
-            if (pos.y > 1200 - 15)
-                pos.y = 1200 - 15;
-
-            transform.setPosition(pos);
-
-            if (velocityChanged) {
-                physics.setVelocity(velocity);
-            }
+    public void setBroadphase(Broadphase broadphase) {
+        if (broadphase == null) {
+            throw new IllegalArgumentException("碰撞粗筛方式不能为空");
         }
+        this.broadphase = broadphase;
+    }
+
+    public Broadphase getBroadphase() {
+        return broadphase;
     }
 
     /**
@@ -339,82 +442,251 @@ public class GameLogic {
     public void checkAiCollisionsSerial(List<GameObject> players,
             List<GameObject> enemies,
             List<GameObject> playerSkills) {
-        // 检查玩家与敌人/敌人技能的碰撞
-        for (GameObject player : players) {
-            checkPlayerCollisions(player, enemies);
-        }
-
-        // 检查敌人与玩家技能的碰撞
-        for (GameObject enemy : enemies) {
-            checkEnemyCollisions(enemy, playerSkills);
-        }
+        checkAiCollisions(players, enemies, playerSkills, false);
     }
 
     /**
      * 并行处理组件碰撞
+     * 检测阶段各批次只读取对象，把命中写入自己的事件缓冲区；之后在调用线程上按列表顺序统一结算，
+     * 结果与串行处理相同
      */
-    private void checkAiCollisionsParallel(List<GameObject> players,
+    public void checkAiCollisionsParallel(List<GameObject> players,
             List<GameObject> enemies,
             List<GameObject> playerSkills) {
-        List<Future<?>> futures = new ArrayList<>();
-        
-        // 防止未初始化成果，这里检测一次
-        if (collisionExecutor == null || collisionExecutor.isShutdown() || collisionExecutor.isTerminated()) {
-            collisionExecutor = Executors.newFixedThreadPool(threadCount);
-            System.out.println("碰撞检测线程池已经被初始化完成");
-        }
-
-        // 批量处理玩家碰撞
-        int playerBatchSize = Math.max(1, players.size() / threadCount);
-        for (int i = 0; i < players.size(); i += playerBatchSize) {
-            final int start = i;
-            final int end = Math.min(i + playerBatchSize, players.size());
-
-            Future<?> future = collisionExecutor.submit(() -> {
-                try {
-                    for (int j = start; j < end; j++) {
-                        GameObject player = players.get(j);
-                        checkPlayerCollisions(player, enemies);
-                    }
-                } catch (Exception e) {
-                    System.err.println("碰撞检测中出现错误" + e.getMessage());
-                }
-            });
-            futures.add(future);
+        checkAiCollisions(players, enemies, playerSkills, true);
+    }
+
+    /**
+     * 碰撞分为检测与结算两个阶段
+     * 检测：网格在调用线程上建立，之后每个批次只读查询，命中事件写入该批次的缓冲区
+     * 结算：先玩家后敌人，各自按批次顺序（即列表顺序）处理事件，与逐个检测并立即处理的结果相同
+     */
+    private void checkAiCollisions(List<GameObject> players,
+            List<GameObject> enemies,
+            List<GameObject> playerSkills,
+            boolean parallel) {
+        List<GameObject> enemySkills = scene.findGameObjectsByTag(Tag.ENEMY_SKILL);
+        if (broadphase == Broadphase.SWEEP_AND_PRUNE) {
+            // 一次扫描得到全部配对，结算只遍历配对，在调用线程上执行
+            checkAiCollisionsSweep(players, enemies, enemySkills, playerSkills);
+            return;
         }
+        buildCollisionGrids(players, enemies, enemySkills, playerSkills);
+
+        // 玩家与敌人/敌人技能
+        int playerBatch = parallel ? batchSize(players.size()) : Math.max(1, players.size());
+        CollisionEventBuffer[] playerEvents = playerHitEvents =
+                prepareEventBuffers(playerHitEvents, batchCount(players.size(), playerBatch));
+        jobSystem.parallelFor(players.size(), playerBatch, (start, end) -> {
+            CollisionEventBuffer events = playerEvents[start / playerBatch];
+            for (int j = start; j < end; j++) {
+                detectPlayerHit(players.get(j), enemies, enemySkills, events);
+            }
+        });
+
+        // 敌人与玩家技能
+        int enemyBatch = parallel ? batchSize(enemies.size()) : Math.max(1, enemies.size());
+        CollisionEventBuffer[] enemyEvents = enemyHitEvents =
+                prepareEventBuffers(enemyHitEvents, batchCount(enemies.size(), enemyBatch));
+        jobSystem.parallelFor(enemies.size(), enemyBatch, (start, end) -> {
+            CollisionEventBuffer events = enemyEvents[start / enemyBatch];
+            for (int j = start; j < end; j++) {
+                detectEnemyHits(enemies.get(j), playerSkills, events);
+            }
+        });
 
-        // 批量处理敌人碰撞
-        int enemyBatchSize = Math.max(1, enemies.size() / threadCount);
-        for (int i = 0; i < enemies.size(); i += enemyBatchSize) {
-            final int start = i;
-            final int end = Math.min(i + enemyBatchSize, enemies.size());
+        resolvePlayerHits(playerEvents, batchCount(players.size(), playerBatch));
+        resolveEnemyHits(enemyEvents, batchCount(enemies.size(), enemyBatch));
+    }
 
-            Future<?> future = collisionExecutor.submit(() -> {
-                try {
-                    for (int j = start; j < end; j++) {
-                        GameObject enemy = enemies.get(j);
-                        checkEnemyCollisions(enemy, playerSkills);
-                    }
-                } catch (Exception e) {
-                    System.err.println("碰撞检测中出现错误" + e.getMessage());
+    private static int batchCount(int count, int batchSize) {
+        return (count + batchSize - 1) / batchSize;
+    }
+
+    /**
+     * 保证至少有 batches 个缓冲区，并清空将要使用的缓冲区
+     */
+    private static CollisionEventBuffer[] prepareEventBuffers(CollisionEventBuffer[] buffers, int batches) {
+        if (buffers.length < batches) {
+            int oldLength = buffers.length;
+            buffers = Arrays.copyOf(buffers, batches);
+            for (int i = oldLength; i < batches; i++) {
+                buffers[i] = new CollisionEventBuffer();
+            }
+        }
+        for (int i = 0; i < batches; i++) {
+            buffers[i].clear();
+        }
+        return buffers;
+    }
+
+    /**
+     * 结算玩家受到的攻击（每个玩家最多一个事件）
+     */
+    private void resolvePlayerHits(CollisionEventBuffer[] buffers, int batches) {
+        for (int b = 0; b < batches; b++) {
+            CollisionEventBuffer events = buffers[b];
+            for (int i = 0; i < events.size(); i++) {
+                GameObject player = events.getSource(i);
+                hitPlayer(player, player.getComponent(LifeFeatureComponent.class));
+            }
+            events.clear();
+        }
+    }
+
+    /**
+     * 结算敌人受到的攻击
+     * 每个敌人的候选技能按列表顺序排列，取第一个仍能回收的技能；已被前面的敌人回收的技能跳过
+     */
+    private void resolveEnemyHits(CollisionEventBuffer[] buffers, int batches) {
+        GameObject enemy = null;
+        LifeFeatureComponent enemyLife = null;
+        boolean hit = false;
+        for (int b = 0; b < batches; b++) {
+            CollisionEventBuffer events = buffers[b];
+            for (int i = 0; i < events.size(); i++) {
+                GameObject source = events.getSource(i);
+                if (source != enemy) {
+                    enemy = source;
+                    enemyLife = source.getComponent(LifeFeatureComponent.class);
+                    hit = false;
                 }
-            });
-            futures.add(future);
+                if (!hit) {
+                    hit = hitEnemy(enemy, enemyLife, events.getTarget(i)); // 一次只处理一个碰撞
+                }
+            }
+            events.clear();
         }
-        // 等待所有任务完成
-        for (Future<?> future : futures) {
-            try {
-                future.get();
-            } catch (Exception e) {
-                System.err.println("等待碰撞检测完成时出现错误" + e.getMessage());
+    }
+
+    /**
+     * 用本帧的位置重建碰撞网格
+     * 碰撞检测期间敌人与技能不会移动，网格中的位置在整个检测过程中有效
+     */
+    private void buildCollisionGrids(List<GameObject> players,
+            List<GameObject> enemies,
+            List<GameObject> enemySkills,
+            List<GameObject> playerSkills) {
+        int playerCount = players.size();
+        useEnemyGrid = shouldUseGrid(playerCount, enemies.size());
+        useEnemySkillGrid = shouldUseGrid(playerCount, enemySkills.size());
+        usePlayerSkillGrid = shouldUseGrid(enemies.size(), playerSkills.size());
+
+        if (useEnemyGrid)
+            enemyGrid.rebuild(enemies);
+        if (useEnemySkillGrid)
+            enemySkillGrid.rebuild(enemySkills);
+        if (!usePlayerSkillGrid)
+            return;
+
+        // 玩家技能只放入屏幕内的
+        playerSkillGrid.clear();
+        for (int i = 0; i < playerSkills.size(); i++) {
+            GameObject skill = playerSkills.get(i);
+            if (!skill.isActive())
+                continue;
+
+            TransformComponent skillTransform = skill.getComponent(TransformComponent.class);
+            if (skillTransform == null)
+                continue;
+
+            float skillX = skillTransform.getX();
+            float skillY = skillTransform.getY();
+            if (isSkillOnScreen(skillX, skillY)) {
+                playerSkillGrid.add(skill, i, skillX, skillY);
+            }
+        }
+        playerSkillGrid.build();
+    }
+
+    /**
+     * queries 个对象分别与 targets 个对象比较时是否值得建网格
+     * 逐个比较约 queries * targets 次；网格的开销约为建立（与 targets 成正比）加上每次查询的固定开销
+     */
+    private boolean shouldUseGrid(int queries, int targets) {
+        return broadphase == Broadphase.SPATIAL_HASH
+                && (long) queries * targets > GRID_COST_FACTOR * (long) (queries + targets);
+    }
+
+    /**
+     * 扫掠剪枝：所有对象按分组放入 SweepAndPrune，一次扫描得到全部配对
+     * 条目依次为玩家、敌人、敌人技能、玩家技能，配对按 (a, b) 排序后，每个玩家的配对中敌人在敌人技能之前，
+     * 每个敌人的玩家技能按列表顺序，因此与逐个比较的命中顺序相同
+     */
+    private void checkAiCollisionsSweep(List<GameObject> players,
+            List<GameObject> enemies,
+            List<GameObject> enemySkills,
+            List<GameObject> playerSkills) {
+        int enemyStart = players.size();
+        int enemySkillStart = enemyStart + enemies.size();
+        int playerSkillStart = enemySkillStart + enemySkills.size();
+        sweepAndPrune.begin(playerSkillStart + playerSkills.size());
+        setSweepEntries(players, 0, GROUP_PLAYER);
+        setSweepEntries(enemies, enemyStart, GROUP_ENEMY);
+        setSweepEntries(enemySkills, enemySkillStart, GROUP_ENEMY_SKILL);
+        setSweepEntries(playerSkills, playerSkillStart, GROUP_PLAYER_SKILL);
+
+        int pairCount = sweepAndPrune.findPairs();
+        // 已命中（或不会被命中）的条目，跳过它剩余的配对
+        int handled = -1;
+        for (int k = 0; k < pairCount; k++) {
+            int a = sweepAndPrune.getPairA(k);
+            if (a == handled)
+                continue;
+
+            GameObject target = sweepAndPrune.getGameObject(sweepAndPrune.getPairB(k));
+            if (!target.isActive())
+                continue;
+
+            GameObject obj = sweepAndPrune.getGameObject(a);
+            LifeFeatureComponent life = vulnerableLife(obj);
+            if (a < enemyStart) {
+                if (life != null)
+                    hitPlayer(obj, life);
+                handled = a;
+            } else if (life == null || hitEnemy(obj, life, target)) {
+                handled = a;
             }
         }
     }
 
+    private void setSweepEntries(List<GameObject> objects, int start, int group) {
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject obj = objects.get(i);
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            float x = transform == null ? 0 : transform.getX();
+            float y = transform == null ? 0 : transform.getY();
+            boolean enabled = transform != null && obj.isActive();
+            // 只检查屏幕内的玩家技能
+            if (group == GROUP_PLAYER_SKILL)
+                enabled &= isSkillOnScreen(x, y);
+            sweepAndPrune.set(start + i, obj, group, x, y, enabled);
+        }
+    }
+
     /**
-     * 检查玩家受到攻击
+     * 可以受到攻击的对象的生命组件：对象活跃、有位置、有生命组件且不处于无敌状态，否则返回 null
      */
-    public void checkPlayerCollisions(GameObject player, List<GameObject> enemies) {
+    private static LifeFeatureComponent vulnerableLife(GameObject obj) {
+        if (!obj.isActive() || !obj.hasComponent(TransformComponent.class))
+            return null;
+
+        LifeFeatureComponent life = obj.getComponent(LifeFeatureComponent.class);
+        return life == null || life.isunbeatable ? null : life;
+    }
+
+    private static boolean isSkillOnScreen(float skillX, float skillY) {
+        return skillX >= -100 && skillX <= 1700 && skillY >= -100 && skillY <= 1300;
+    }
+
+    /**
+     * 检测玩家受到的攻击，命中时写入一个事件（目标为最先命中的敌人或敌人技能）
+     */
+    private void detectPlayerHit(GameObject player, List<GameObject> enemies, List<GameObject> enemySkills,
+                                 CollisionEventBuffer events) {
+
+        if (!player.isActive())
+            return;
 
         TransformComponent playerTransform = player.getComponent(TransformComponent.class);
         if (playerTransform == null)
@@ -424,49 +696,63 @@ public class GameLogic {
         if (playerLife == null || playerLife.isunbeatable)
             return;
 
-        Vector2 playerPos = playerTransform.getPosition();
+        float playerX = playerTransform.getX();
+        float playerY = playerTransform.getY();
 
-        // 检测与敌人的碰撞
-        for (GameObject enemy : enemies) {
-            if (!enemy.isActive())
-                continue;
-
-            TransformComponent enemyTransform = enemy.getComponent(TransformComponent.class);
-            if (enemyTransform != null) {
-                float distance = playerPos.distance(enemyTransform.getPosition());
-                if (distance < 25) {
-                    // 使用同步块保护共享状态的修改
-                    synchronized (player) {
-                        playerTransform.setPosition(new Vector2(800, 600));
-                        playerLife.blood -= 10;
-                    }
-                    return; // 一次只处理一个碰撞
-                }
-            }
+        // 先检测与敌人的碰撞，再检测与敌人技能的碰撞，各自取列表中最靠前的一个
+        int hit = useEnemyGrid
+                ? enemyGrid.findFirst(playerX, playerY, COLLISION_RADIUS)
+                : findFirstInRange(enemies, playerX, playerY);
+        if (hit >= 0) {
+            events.add(player, enemies.get(hit));
+            return;
         }
+        hit = useEnemySkillGrid
+                ? enemySkillGrid.findFirst(playerX, playerY, COLLISION_RADIUS)
+                : findFirstInRange(enemySkills, playerX, playerY);
+        if (hit >= 0) {
+            events.add(player, enemySkills.get(hit));
+        }
+    }
 
-        // 检测与敌人技能的碰撞
-        for (GameObject obj : scene.getGameObjects()) {
-            if ("Enemy Skill".equals(obj.getidentity()) && obj.isActive()) {
-                TransformComponent skillTransform = obj.getComponent(TransformComponent.class);
-                if (skillTransform != null) {
-                    float distance = playerPos.distance(skillTransform.getPosition());
-                    if (distance < 25) {
-                        synchronized (player) {
-                            playerTransform.setPosition(new Vector2(800, 600));
-                            playerLife.blood -= 10;
-                        }
-                        return;
-                    }
+    /**
+     * 玩家被敌人或敌人技能命中：回到地图中央并扣血
+     */
+    private void hitPlayer(GameObject player, LifeFeatureComponent playerLife) {
+        TransformComponent playerTransform = player.getComponent(TransformComponent.class);
+        playerTransform.moveTo(800, 600);
+        playerLife.damage(10);
+    }
+
+    /**
+     * 逐个比较：列表中第一个与 (x, y) 距离小于碰撞半径的活跃对象的下标，没有时返回 -1
+     */
+    private static int findFirstInRange(List<GameObject> objects, float x, float y) {
+        for (int i = 0; i < objects.size(); i++) {
+            GameObject obj = objects.get(i);
+            if (!obj.isActive())
+                continue;
+
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            if (transform != null) {
+                float dx = x - transform.getX();
+                float dy = y - transform.getY();
+                if (dx * dx + dy * dy < COLLISION_RADIUS * COLLISION_RADIUS) {
+                    return i;
                 }
             }
         }
+        return -1;
     }
 
     /**
-     * 检查怪物受到攻击
+     * 检测怪物受到的攻击：距离内的全部玩家技能按列表顺序写入事件
+     * 检测时技能还没有被回收，结算时才决定哪一个技能命中
      */
-    private void checkEnemyCollisions(GameObject enemy, List<GameObject> playerSkills) {
+    private void detectEnemyHits(GameObject enemy, List<GameObject> playerSkills, CollisionEventBuffer events) {
+        if (!enemy.isActive())
+            return;
+
         TransformComponent enemyTransform = enemy.getComponent(TransformComponent.class);
         if (enemyTransform == null)
             return;
@@ -475,7 +761,18 @@ public class GameLogic {
         if (enemyLife == null || enemyLife.isunbeatable)
             return;
 
-        Vector2 enemyPos = enemyTransform.getPosition();
+        float enemyX = enemyTransform.getX();
+        float enemyY = enemyTransform.getY();
+
+        if (usePlayerSkillGrid) {
+            // 候选技能按列表顺序给出，与逐个比较时的顺序一致
+            SpatialHashGrid.Query candidates = collisionQuery.get();
+            int found = playerSkillGrid.query(enemyX, enemyY, COLLISION_RADIUS, candidates);
+            for (int k = 0; k < found; k++) {
+                events.add(enemy, candidates.getGameObject(k));
+            }
+            return;
+        }
 
         // 只检查屏幕内的玩家技能
         for (GameObject skill : playerSkills) {
@@ -486,104 +783,130 @@ public class GameLogic {
             if (skillTransform == null)
                 continue;
 
-            Vector2 skillPos = skillTransform.getPosition();
+            float skillX = skillTransform.getX();
+            float skillY = skillTransform.getY();
 
             // 检查技能是否在屏幕内
-            if (skillPos.x < -100 || skillPos.x > 1700 ||
-                    skillPos.y < -100 || skillPos.y > 1300) {
+            if (!isSkillOnScreen(skillX, skillY)) {
                 continue;
             }
-            // 检查碰撞
-            float distance = enemyPos.distance(skillPos);
-            if (distance < 25) {
-                // 使用同步块保护共享状态
-                synchronized (enemy) {
-                    PhysicsComponent skillPhysics = skill.getComponent(PhysicsComponent.class);
-
-                    // 移动技能到屏幕外
-                    skillTransform.setPosition(new Vector2(-1000, -1000));
-                    if (skillPhysics != null) {
-                        skillPhysics.setVelocity(new Vector2(0, 0));
-                    }
-
-                    // 扣除生命值
-                    enemyLife.blood -= 20;
-                }
-                return; // 一次只处理一个碰撞
+            // 检查碰撞（比较距离的平方，不需要开方）
+            float dx = enemyX - skillX;
+            float dy = enemyY - skillY;
+            if (dx * dx + dy * dy < COLLISION_RADIUS * COLLISION_RADIUS) {
+                events.add(enemy, skill);
             }
         }
     }
 
+    /**
+     * 技能命中敌人
+     * 回收命中的技能后扣血；只在调用线程上结算，同一技能不会命中两次
+     * @return 是否命中（技能已被前面的敌人回收时返回 false）
+     */
+    private boolean hitEnemy(GameObject enemy, LifeFeatureComponent enemyLife, GameObject skill) {
+        if (!skill.release())
+            return false;
+
+        // 扣除生命值
+        enemyLife.damage(20);
+        return true;
+    }
+
     public void handleEnemyMove() {
 
         if (gameOver)
             return;
 
-        List<GameObject> enemies = scene.findGameObjectsByComponent(TransformComponent.class);
-        if (enemies.isEmpty())
-            return;
-
-        // 筛选出所有敌人
-        List<GameObject> enemyList = enemies.stream()
-                .filter(obj -> obj.getidentity().equals("Enemy"))
-                .collect(Collectors.toList());
-
+        // 所有敌人
+        List<GameObject> enemyList = scene.findGameObjectsByTag(Tag.ENEMY);
         if (enemyList.isEmpty())
             return;
 
-        // 获取玩家位置
-        GameObject player = enemies.stream()
-                .filter(obj -> obj.getidentity().equals("Player"))
-                .findFirst()
-                .orElse(null);
-
-        if (player == null)
+        // 没有玩家时敌人不移动
+        if (!hasActivePlayer())
             return;
 
-        TransformComponent playerTransform = player.getComponent(TransformComponent.class);
-        Vector2 playerPos = playerTransform.getPosition();
+        // 随机偏转角按敌人顺序串行抽取，并行更新时结果也与线程调度无关
+        int count = enemyList.size();
+        if (randomAngles.length < count) {
+            randomAngles = new float[Math.max(count, randomAngles.length * 2)];
+        }
+        for (int i = 0; i < count; i++) {
+            randomAngles[i] = (random.nextFloat() * 60 - 45) * (float) Math.PI / 180;
+        }
+        movingEnemies = enemyList;
 
         // 根据敌人数量决定并行或串行
-        if (enemyList.size() < PARALLEL_THRESHOLD) {
-            enemyList.forEach(enemy -> updateSingleEnemyMove(enemy, playerPos));
+        if (count < PARALLEL_THRESHOLD) {
+            moveEnemies(0, count);
         } else {
-        // 这里采用并行流处理敌人移动，而不是executor方法，以简化代码
-            System.out.println("敌人移动采用并行流处理");
-            enemyList.parallelStream()
-                    .forEach(enemy -> updateSingleEnemyMove(enemy, playerPos));
+            jobSystem.parallelFor(count, batchSize(count), enemyMoveTask);
+        }
+    }
+
+    private void moveEnemies(int start, int end) {
+        for (int i = start; i < end; i++) {
+            updateSingleEnemyMove(movingEnemies.get(i), randomAngles[i]);
+        }
+    }
+
+    /**
+     * 场景中是否还有活跃的玩家
+     */
+    private boolean hasActivePlayer() {
+        return findFirstActive(Tag.PLAYER) != null;
+    }
+
+    /**
+     * 标签桶中第一个活跃的对象（桶中可能有本帧刚失活的对象）
+     * 桶删除时用最后一个对象填补空位，顺序不一定是加入场景的顺序；游戏中玩家与国王各只有一个活跃的，取任一个即可
+     * @return 对象，没有时返回 null
+     */
+    private GameObject findFirstActive(Tag tag) {
+        List<GameObject> objects = scene.findGameObjectsByTag(tag);
+        for (int i = 0; i < objects.size(); i++) {
+            if (objects.get(i).isActive())
+                return objects.get(i);
         }
+        return null;
     }
 
-    private void updateSingleEnemyMove(GameObject enemy, Vector2 playerPos) {
+    private void updateSingleEnemyMove(GameObject enemy, float randomAngle) {
         TransformComponent transform = enemy.getComponent(TransformComponent.class);
         PhysicsComponent physics = enemy.getComponent(PhysicsComponent.class);
 
         if (transform == null || physics == null)
             return;
 
-        Random random = new Random();
-        float PlayerAngle = playerPos.subtract(transform.getPosition()).angle();
-        float randomAngle = (random.nextFloat() * 60 - 45) * (float) Math.PI / 180;
-        float adjustedX = (float) Math.cos(PlayerAngle + randomAngle);
-        float adjustedY = (float) Math.sin(PlayerAngle + randomAngle);
+        // 追向最近的玩家
+        GameObject player = spatialIndex.findNearest(transform.getX(), transform.getY(), Tag.PLAYER);
+        TransformComponent playerTransform = player == null ? null : player.getComponent(TransformComponent.class);
+        if (playerTransform == null)
+            return;
+        float playerX = playerTransform.getX();
+        float playerY = playerTransform.getY();
+
+        float PlayerAngle = Vector2.angle(playerX - transform.getX(), playerY - transform.getY());
+        float directionX = (float) Math.cos(PlayerAngle + randomAngle);
+        float directionY = (float) Math.sin(PlayerAngle + randomAngle);
 
-        Vector2 direction = new Vector2(adjustedX, adjustedY);
-        if (direction.magnitude() > 0) {
-            direction = direction.normalize();
+        float length = Vector2.magnitude(directionX, directionY);
+        if (length > 0) {
+            directionX /= length;
+            directionY /= length;
         }
 
         // 国王速度更快
-        float speed = enemy.getName().equals("EnemyKing") ? 200 : 100;
-        Vector2 velocity = direction.multiply(speed);
+        float speed = enemy.hasTag(Tag.ENEMY_KING) ? 200 : 100;
 
         synchronized (enemy) {
-            physics.setVelocity(velocity);
+            physics.setVelocity(directionX * speed, directionY * speed);
 
             // 边界检查
-            Vector2 pos = transform.getPosition();
-            pos.x = Math.max(0, Math.min(1600, pos.x));
-            pos.y = Math.max(0, Math.min(1200, pos.y));
-            transform.setPosition(pos);
+            transform.setXY(
+                    Math.max(0, Math.min(1600, transform.getX())),
+                    Math.max(0, Math.min(1200, transform.getY())));
         }
     }
 
@@ -614,18 +937,18 @@ public class GameLogic {
         }
 
         // 更新所有 PlayerAttack 的生命周期
-        for (GameObject gameObject : scene.getGameObjects()) {
-            if (gameObject.getidentity().equals("Player Skill")) {
-                LifeFeatureComponent lifeFeature = gameObject.getComponent(LifeFeatureComponent.class);
-                if (lifeFeature != null) {
-                    lifeFeature.update(deltaTime);
-                }
-            }
-            if (gameObject.getidentity().equals("Enemy Skill")) {
-                LifeFeatureComponent lifeFeature = gameObject.getComponent(LifeFeatureComponent.class);
-                if (lifeFeature != null) {
-                    lifeFeature.update(deltaTime);
-                }
+        updateSkillLifetimes(scene.findGameObjectsByTag(Tag.PLAYER_SKILL), deltaTime);
+        updateSkillLifetimes(scene.findGameObjectsByTag(Tag.ENEMY_SKILL), deltaTime);
+    }
+
+    private void updateSkillLifetimes(List<GameObject> skills, float deltaTime) {
+        for (int i = 0; i < skills.size(); i++) {
+            GameObject skill = skills.get(i);
+            if (!skill.isActive())
+                continue;
+            LifeFeatureComponent lifeFeature = skill.getComponent(LifeFeatureComponent.class);
+            if (lifeFeature != null) {
+                lifeFeature.update(deltaTime);
             }
         }
     }
@@ -650,30 +973,20 @@ public class GameLogic {
             return;
         }
 
-        List<GameObject> gameObjects = scene.getGameObjects();
-        if (gameObjects.isEmpty())
+        // 查找玩家，再取出本次攻击的技能
+        GameObject player = findFirstActive(Tag.PLAYER);
+        if (player == null)
             return;
-
-        // 查找 EnemyKing 和所有攻击技能
-        GameObject player = null;
-        List<GameObject> attackingSkills = new ArrayList<>();
-
-        for (GameObject obj : gameObjects) {
-            if (obj.getidentity().equals("Player")) {
-                player = obj;
-            }
-
-            if (obj.getidentity().equals("Player Skill")) {
-                attackingSkills.add(obj);
-            }
-        }
+        poolExistingSkills();
+        List<GameObject> attackingSkills = acquireVolley(playerSkillPool, playerVolleySize, existingPlayerSkills);
 
         // 如果找到了玩家和攻击技能
         if (player != null && !attackingSkills.isEmpty()) {
             TransformComponent playerTransform = player.getComponent(TransformComponent.class);
 
             if (playerTransform != null) {
-                Vector2 playerPosition = playerTransform.getPosition();
+                float originX = playerTransform.getX();
+                float originY = playerTransform.getY();
 
                 // 计算均匀分布的角度间隔 (360度 / 2个方向 = 180度)
                 float angleStep = (2 * (float) Math.PI) / attackingSkills.size(); // 每个攻击间隔的弧度
@@ -687,21 +1000,20 @@ public class GameLogic {
 
                     if (skillTransform != null && skillPhysics != null) {
                         // 将攻击技能重置到葫芦的位置
-                        skillTransform.setPosition(new Vector2(playerPosition.x, playerPosition.y));
+                        skillTransform.moveTo(originX, originY);
 
                         // 计算均匀分布的方向 (i * 180度)
                         float angle = i * angleStep;
                         float directionX = (float) Math.cos(angle);
                         float directionY = (float) Math.sin(angle);
-                        Vector2 direction = new Vector2(directionX, directionY);
-
-                        if (direction.magnitude() > 0) {
-                            direction = direction.normalize();
+                        float length = Vector2.magnitude(directionX, directionY);
+                        if (length > 0) {
+                            directionX /= length;
+                            directionY /= length;
                         }
 
                         // 设置速度 - 攻击技能速度为200
-                        Vector2 velocity = direction.multiply(300);
-                        skillPhysics.setVelocity(velocity);
+                        skillPhysics.setVelocity(directionX * 300, directionY * 300);
 
                         // 激活技能并重置其生命周期
                         attackingSkill.setActive(true);
@@ -721,30 +1033,20 @@ public class GameLogic {
     }
 
     public void handleEnemyAttack() {
-        List<GameObject> gameObjects = scene.getGameObjects();
-        if (gameObjects.isEmpty())
+        // 查找 EnemyKing，再取出本次攻击的技能
+        GameObject enemyKing = findFirstActive(Tag.ENEMY_KING);
+        if (enemyKing == null)
             return;
-
-        // 查找 EnemyKing 和所有攻击技能
-        GameObject enemyKing = null;
-        List<GameObject> attackingSkills = new ArrayList<>();
-
-        for (GameObject obj : gameObjects) {
-            if (obj.getName().equals("EnemyKing")) {
-                enemyKing = obj;
-            }
-            // 查找所有敌人攻击力对象
-            if (obj.getidentity().equals("Enemy Skill")) {
-                attackingSkills.add(obj);
-            }
-        }
+        poolExistingSkills();
+        List<GameObject> attackingSkills = acquireVolley(enemySkillPool, enemyVolleySize, existingEnemySkills);
 
         // 如果找到了国王和攻击技能
         if (enemyKing != null && !attackingSkills.isEmpty()) {
             TransformComponent kingTransform = enemyKing.getComponent(TransformComponent.class);
 
             if (kingTransform != null) {
-                Vector2 kingPosition = kingTransform.getPosition();
+                float originX = kingTransform.getX();
+                float originY = kingTransform.getY();
 
                 // 计算均匀分布的角度间隔 (360度 / 5个方向 = 72度)
                 float angleStep = (2 * (float) Math.PI) / attackingSkills.size(); // 每个攻击间隔的弧度
@@ -757,21 +1059,23 @@ public class GameLogic {
 
                     if (skillTransform != null && skillPhysics != null) {
                         // 将攻击技能重置到国王的位置
-                        skillTransform.setPosition(new Vector2(kingPosition.x, kingPosition.y));
+                        skillTransform.moveTo(originX, originY);
 
                         // 计算均匀分布的方向 (i * 72度)
                         float angle = i * angleStep;
                         float directionX = (float) Math.cos(angle);
                         float directionY = (float) Math.sin(angle);
-                        Vector2 direction = new Vector2(directionX, directionY);
-
-                        if (direction.magnitude() > 0) {
-                            direction = direction.normalize();
+                        float length = Vector2.magnitude(directionX, directionY);
+                        if (length > 0) {
+                            directionX /= length;
+                            directionY /= length;
                         }
 
                         // 设置速度 - 攻击技能速度为200
-                        Vector2 velocity = direction.multiply(300);
-                        skillPhysics.setVelocity(velocity);
+                        skillPhysics.setVelocity(directionX * 300, directionY * 300);
+
+                        // 激活技能并重置其生命周期
+                        attackingSkill.setActive(true);
 
                         // 重置技能的生命周期组件
                         LifeFeatureComponent lifeFeature = attackingSkill.getComponent(LifeFeatureComponent.class);
@@ -789,21 +1093,24 @@ public class GameLogic {
 
         List<LifeFeatureComponent> lifeFeatureComponents = scene.getComponents(LifeFeatureComponent.class);
 
-        for (LifeFeatureComponent lifeFeatureComponent : lifeFeatureComponents) {
+        for (int i = 0; i < lifeFeatureComponents.size(); i++) {
+            LifeFeatureComponent lifeFeatureComponent = lifeFeatureComponents.get(i);
             if (lifeFeatureComponent.getBlood() <= 0) {
 
                 GameObject entity = lifeFeatureComponent.getOwner();
 
-                if (entity.getidentity().equals("Enemy")) {
-                    System.out.println(entity.getName() + " died");
-                    entity.setActive(false);
-                } else if (entity.getidentity().equals("Player")) {
+                if (entity.hasTag(Tag.ENEMY)) {
+                    // 回收敌人（来自对象池时归还，以便下一关复用）
+                    if (entity.release()) {
+                        System.out.println(entity.getName() + " died");
+                    }
+                } else if (entity.hasTag(Tag.PLAYER)) {
                     System.out.println("Game Over");
                     this.gameOver = true;
                     engine.gameOver();
                 }
 
-                // 使实体消失（设置为不活跃状态）
+                // 回收后的实体为不活跃状态
                 // 这会在下一次Scene.update()中被移除
 
             }
@@ -813,8 +1120,9 @@ public class GameLogic {
 
 
     public boolean checkEnemiesDied() {
-        for (GameObject obj : scene.getGameObjects()) {
-            if (obj.isActive() && obj.getidentity().equals("Enemy")) {
+        List<GameObject> enemies = scene.findGameObjectsByTag(Tag.ENEMY);
+        for (int i = 0; i < enemies.size(); i++) {
+            if (enemies.get(i).isActive()) {
                 return false;
             }
         }
@@ -12,14 +12,41 @@ public class GameObject {
     protected boolean active;
     protected String name;
     protected String identity = "None";
+    // 身份标签（null 表示无身份）与全部标签的位掩码
+    private Tag identityTag;
+    private long tagMask;
     protected final List<Component<?>> components;
+    // 按组件类型编号存放的组件，getComponent/hasComponent 直接按下标取
+    Component<?>[] slots;
+    // 在各组件类型索引中的位置，-1 表示不在索引中（由 ArchetypeStorage 维护）
+    int[] indexRows;
     public String MovingSteps;
     LinkedHashMap<String, String> MovingStepsMap;
+
+    // 所在场景的原型存储位置（由 ArchetypeStorage 维护）
+    ArchetypeStorage storage;
+    Archetype archetype;
+    int archetypeRow = -1;
+    // 所在场景的标签索引及在各标签桶中的位置（由 TagIndex 维护）
+    TagIndex tagIndex;
+    int[] tagRows;
+    // 所属对象池及是否空闲（由 GameObjectPool 维护）
+    GameObjectPool<?> pool;
+    boolean pooledFree;
+    // 变化版本与最后变化的帧号（任一组件修改或组件组合、身份变化时更新）
+    private int changeVersion;
+    private int changeTick;
+    // 上一次生成的录制内容及其对应的变化版本，对象未变化时直接复用
+    private String cachedRecords;
+    private int cachedRecordsVersion;
     
     public GameObject() {
         this.active = true;
         this.name = "GameObject";
         this.components = new ArrayList<>();
+        this.slots = new Component<?>[Math.max(8, ComponentType.count())];
+        this.indexRows = new int[slots.length];
+        Arrays.fill(indexRows, -1);
         this.MovingSteps = "";
         this.MovingStepsMap = new LinkedHashMap<String, String>() {{
             put("GameIdentity", "");
@@ -65,6 +92,11 @@ public class GameObject {
             component.destroy();
         }
         components.clear();
+        Arrays.fill(slots, null);
+        markChanged();
+        if (storage != null) {
+            storage.relocate(this);
+        }
     }
     
     /**
@@ -73,27 +105,87 @@ public class GameObject {
     public <T extends Component<T>> T addComponent(T component) {
         component.setOwner(this);
         components.add(component);
+        putSlots(component);
         component.initialize();
+        markChanged();
+        // 已在场景中时，组件组合变化需要移动到新的原型
+        if (storage != null) {
+            storage.relocate(this);
+        }
         return component;
     }
     
     /**
      * 获取组件
+     * componentType 可以是组件的类、任一父类或实现的接口，多个组件匹配时返回先加入的一个
      */
     @SuppressWarnings("unchecked")
     public <T extends Component<T>> T getComponent(Class<T> componentType) {
-        for (Component<?> component : components) {
-            if (componentType.isInstance(component)) {
-                return (T) component;
-            }
+        int id = ComponentType.idOf(componentType);
+        return id < slots.length ? (T) slots[id] : null;
+    }
+
+    /**
+     * 把组件登记到其类型、各级父类型及实现的接口的下标上（同类型已有组件时保留先加入的），
+     * 与原先按加入顺序查找第一个 isInstance 匹配的结果一致
+     */
+    private void putSlots(Component<?> component) {
+        putSlot(component.getTypeId(), component);
+        for (Class<?> type = component.getClass(); type != Component.class && type != null; type = type.getSuperclass()) {
+            putSlot(ComponentType.idOf(type), component);
+            putInterfaceSlots(type, component);
+        }
+    }
+
+    private void putInterfaceSlots(Class<?> type, Component<?> component) {
+        for (Class<?> implemented : type.getInterfaces()) {
+            putSlot(ComponentType.idOf(implemented), component);
+            putInterfaceSlots(implemented, component);
+        }
+    }
+
+    private void putSlot(int id, Component<?> component) {
+        if (id >= slots.length) {
+            slots = Arrays.copyOf(slots, Math.max(id + 1, slots.length * 2));
+        }
+        if (slots[id] == null) {
+            slots[id] = component;
+        }
+    }
+
+    /**
+     * 当前所有组件的类型（原型存储使用）
+     */
+    Class<?>[] componentTypes() {
+        Class<?>[] types = new Class<?>[components.size()];
+        for (int i = 0; i < types.length; i++) {
+            types[i] = components.get(i).getComponentType();
         }
-        return null;
+        return types;
+    }
+
+    /**
+     * 按类型取组件，规则与 getComponent 相同（原型存储使用）
+     */
+    Component<?> getComponentSlot(Class<?> componentType) {
+        int id = ComponentType.idOf(componentType);
+        return id < slots.length ? slots[id] : null;
+    }
+
+    /**
+     * 获取所在的原型（不在场景中时为 null）
+     */
+    public Archetype getArchetype() {
+        return archetype;
     }
 
     /**
      * 获取所有组件记录
      */
     public String getRecords() {
+        if (cachedRecords != null && cachedRecordsVersion == changeVersion) {
+            return cachedRecords;
+        }
         StringBuilder records = new StringBuilder();
         for (Component<?> component : components) {
             // 生命组件暂时无需记录
@@ -101,7 +193,7 @@ public class GameObject {
             if (component.getComponentType() == RenderComponent.class) continue;
 
             // 组件不完整，则不记录
-            if (!component.isEnabled()) return "";
+            if (!component.isEnabled()) return cacheRecords("");
 
             String recordLine = component.record();
             if (!recordLine.isEmpty()) {
@@ -111,19 +203,70 @@ public class GameObject {
             MovingStepsMap.put(component.getComponentType().getSimpleName(), recordLine);
         }
         MovingStepsMap.put("GameIdentity", this.identity);
-        return MovingStepsMap.toString();
+        return cacheRecords(MovingStepsMap.toString());
     }
-    
+
+    private String cacheRecords(String records) {
+        cachedRecords = records;
+        cachedRecordsVersion = changeVersion;
+        return records;
+    }
+
     /**
-     * 检查是否有指定类型的组件
+     * 标记对象已变化，返回记录的帧号（组件 markChanged 时调用）
      */
-    public <T extends Component<T>> boolean hasComponent(Class<T> componentType) {
+    int markChanged() {
+        changeVersion++;
+        if (storage != null) {
+            changeTick = storage.getChangeTick();
+        }
+        return changeTick;
+    }
+
+    /**
+     * 标记全部组件已变化（加入场景时调用）
+     */
+    void markAllChanged() {
+        markChanged();
         for (Component<?> component : components) {
-            if (componentType.isInstance(component)) {
-                return true;
-            }
+            component.markChanged();
         }
-        return false;
+    }
+
+    /**
+     * 获取变化版本（任一组件修改时加一）
+     */
+    public int getChangeVersion() {
+        return changeVersion;
+    }
+
+    /**
+     * 获取最后一次变化时所在场景的帧号
+     */
+    public int getChangeTick() {
+        return changeTick;
+    }
+
+    /**
+     * 第 tick 帧之后（不含）是否有任一组件修改过
+     */
+    public boolean isChangedSince(int tick) {
+        return changeTick > tick;
+    }
+
+    /**
+     * 指定类型的组件在第 tick 帧之后（不含）是否修改过，没有该组件时返回 false
+     */
+    public <T extends Component<T>> boolean isComponentChangedSince(Class<T> componentType, int tick) {
+        T component = getComponent(componentType);
+        return component != null && component.isChangedSince(tick);
+    }
+    
+    /**
+     * 检查是否有指定类型的组件（类、父类或接口，与 getComponent 相同）
+     */
+    public <T extends Component<T>> boolean hasComponent(Class<T> componentType) {
+        return getComponent(componentType) != null;
     }
     
     /**
@@ -137,6 +280,15 @@ public class GameObject {
         }
     }
     
+    /**
+     * 保存所有组件上一次模拟的状态
+     */
+    public void savePreviousState() {
+        for (Component<?> component : components) {
+            component.savePreviousState();
+        }
+    }
+    
     /**
      * 渲染所有组件
      */
@@ -157,6 +309,37 @@ public class GameObject {
     public void setActive(boolean active) {
         this.active = active;
     }
+
+    /**
+     * 回收对象：来自对象池时归还对象池，否则只设为不活跃（场景下一次更新时移除）
+     * @return 本次调用是否完成了回收（已回收的对象返回 false）
+     */
+    public boolean release() {
+        if (pool != null) {
+            return pool.release(this);
+        }
+        synchronized (this) {
+            boolean wasActive = active;
+            active = false;
+            return wasActive;
+        }
+    }
+
+    /**
+     * 是否来自对象池
+     */
+    public boolean isPooled() {
+        return pool != null;
+    }
+
+    /**
+     * 重置全部组件，归还对象池时调用
+     */
+    void resetComponents() {
+        for (Component<?> component : components) {
+            component.reset();
+        }
+    }
     
     public String getName() {
         return name;
@@ -166,20 +349,77 @@ public class GameObject {
         return identity;
     }
 
+    /**
+     * 获取身份标签，无身份时返回 null
+     */
+    public Tag getIdentityTag() {
+        return identityTag;
+    }
+
     public void setPlayer() {
-        this.identity = "Player";
+        setIdentity(Tag.PLAYER);
     }
 
     public void setEnemy() {
-        this.identity = "Enemy";
+        setIdentity(Tag.ENEMY);
     }
 
     public void setPlayerSkill() {
-        this.identity = "Player Skill";
+        setIdentity(Tag.PLAYER_SKILL);
     }
 
     public void setEnemySkill() {
-        this.identity = "Enemy Skill";
+        setIdentity(Tag.ENEMY_SKILL);
+    }
+
+    /**
+     * 设置身份：替换原有的身份标签，身份字符串同步更新（用于录制）
+     */
+    private void setIdentity(Tag tag) {
+        if (identityTag != null) {
+            removeTag(identityTag);
+        }
+        this.identityTag = tag;
+        this.identity = tag.getName();
+        addTag(tag);
+        markChanged();
+    }
+
+    /**
+     * 添加标签
+     */
+    public void addTag(Tag tag) {
+        long oldMask = tagMask;
+        tagMask |= tag.getMask();
+        if (tagIndex != null && tagMask != oldMask) {
+            tagIndex.update(this, oldMask);
+        }
+    }
+
+    /**
+     * 移除标签
+     */
+    public void removeTag(Tag tag) {
+        long oldMask = tagMask;
+        tagMask &= ~tag.getMask();
+        if (tagIndex != null && tagMask != oldMask) {
+            tagIndex.update(this, oldMask);
+        }
+    }
+
+    public boolean hasTag(Tag tag) {
+        return (tagMask & tag.getMask()) != 0;
+    }
+
+    /**
+     * 是否带有位掩码中的任一标签
+     */
+    public boolean hasAnyTag(long mask) {
+        return (tagMask & mask) != 0;
+    }
+
+    public long getTagMask() {
+        return tagMask;
     }
     
     public void setName(String name) {
@@ -0,0 +1,178 @@
+package com.gameengine.core;
+
+import com.gameengine.scene.Scene;
+
+import java.util.ArrayDeque;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * 游戏对象池
+ * acquire 取出空闲对象（没有时在容量内新建）并放入场景；release 重置组件并设为不活跃，
+ * 场景在下一次 update 中把它移出更新、碰撞与渲染集合，之后可以再次取出复用
+ * acquire/release 加锁，可以在并行的碰撞检测中归还对象
+ */
+public class GameObjectPool<T extends GameObject> {
+    private final Scene scene;
+    private final Supplier<T> factory;
+    private final int capacity;
+    private final ArrayDeque<T> free;
+    private int created;
+    // 因达到容量而取不到对象的次数
+    private int missCount;
+    private Consumer<? super T> onAcquire;
+    private Consumer<? super T> onRelease;
+
+    /**
+     * @param scene 取出的对象加入的场景
+     * @param factory 新建对象（组件在此添加，每个对象只调用一次）
+     * @param capacity 最多创建的对象数量
+     */
+    public GameObjectPool(Scene scene, Supplier<T> factory, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("对象池容量必须为正数: " + capacity);
+        }
+        this.scene = scene;
+        this.factory = factory;
+        this.capacity = capacity;
+        this.free = new ArrayDeque<>();
+        this.created = 0;
+    }
+
+    /**
+     * 用场景中已有的对象建立对象池，不再新建对象（容量即对象数量）
+     * 活跃的对象视为正在使用，回收后才能再次取出；不活跃的对象直接作为空闲对象
+     */
+    public static <T extends GameObject> GameObjectPool<T> of(Scene scene, List<? extends T> objects) {
+        GameObjectPool<T> pool = new GameObjectPool<>(scene, () -> {
+            throw new IllegalStateException("对象池只包含已有对象，不能新建");
+        }, objects.size());
+        for (int i = 0; i < objects.size(); i++) {
+            pool.adopt(objects.get(i));
+        }
+        return pool;
+    }
+
+    private void adopt(T obj) {
+        if (obj.pool != null) {
+            throw new IllegalArgumentException("对象已属于其他对象池: " + obj.getName());
+        }
+        obj.pool = this;
+        created++;
+        if (!obj.isActive()) {
+            obj.pooledFree = true;
+            free.push(obj);
+        }
+    }
+
+    /**
+     * 取出对象时调用（设置位置、速度等本次使用的状态）
+     */
+    public void setOnAcquire(Consumer<? super T> onAcquire) {
+        this.onAcquire = onAcquire;
+    }
+
+    /**
+     * 归还对象时调用（在组件的 reset 之后）
+     */
+    public void setOnRelease(Consumer<? super T> onRelease) {
+        this.onRelease = onRelease;
+    }
+
+    /**
+     * 预先创建对象，避免游戏过程中第一次使用时才创建
+     */
+    public synchronized void prewarm(int count) {
+        while (free.size() < count && created < capacity) {
+            T obj = create();
+            obj.setActive(false);
+            obj.pooledFree = true;
+            free.push(obj);
+        }
+    }
+
+    /**
+     * 取出一个对象并加入场景
+     * @return 对象，池已达到容量且没有空闲对象时返回 null
+     */
+    public synchronized T acquire() {
+        T obj = free.poll();
+        if (obj == null) {
+            if (created >= capacity) {
+                missCount++;
+                return null;
+            }
+            obj = create();
+        }
+        obj.pooledFree = false;
+        obj.setActive(true);
+        if (onAcquire != null) {
+            onAcquire.accept(obj);
+        }
+        // 刚归还、尚未被场景移除的对象仍在场景中，不需要重复加入
+        if (!scene.contains(obj)) {
+            scene.addGameObject(obj);
+        }
+        return obj;
+    }
+
+    /**
+     * 归还对象
+     * @return 是否归还成功（对象不属于本池或已经归还时返回 false）
+     */
+    public synchronized boolean release(GameObject gameObject) {
+        if (gameObject.pool != this || gameObject.pooledFree) {
+            return false;
+        }
+        @SuppressWarnings("unchecked")
+        T obj = (T) gameObject;
+        obj.pooledFree = true;
+        obj.setActive(false);
+        obj.resetComponents();
+        if (onRelease != null) {
+            onRelease.accept(obj);
+        }
+        free.push(obj);
+        return true;
+    }
+
+    private T create() {
+        T obj = factory.get();
+        obj.pool = this;
+        created++;
+        return obj;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * 已创建的对象数量
+     */
+    public synchronized int getCreatedCount() {
+        return created;
+    }
+
+    /**
+     * 空闲对象数量
+     */
+    public synchronized int getFreeCount() {
+        return free.size();
+    }
+
+    /**
+     * acquire 因池已满返回 null 的次数
+     */
+    public synchronized int getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * 正在使用的对象数量
+     */
+    public synchronized int getActiveCount() {
+        return created - free.size();
+    }
+}
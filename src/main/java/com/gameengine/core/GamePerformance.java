@@ -2,10 +2,45 @@ package com.gameengine.core;
 
 import com.gameengine.graphics.IRenderer;
 
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+
 /**
- * 简单的FPS计数器 - 用于测量游戏帧率
+ * 性能统计 - 用于测量游戏帧率以及各阶段耗时分布
+ * 每帧的记录只写入预先分配好的直方图，不分配对象，也不输出到控制台
+ * 除 recordFromRenderThread 外的方法只能在模拟线程（非流水线模式下即主循环线程）上调用
  */
 public class GamePerformance {
+    /**
+     * 统计的阶段
+     */
+    public enum Phase {
+        FRAME("Frame"),
+        POLL_EVENTS("Poll"),
+        UPDATE("Update"),
+        RENDER("Render"),
+        SWAP("Swap"),
+        // 仅流水线模式：OpenGL线程回放快照并交换缓冲
+        PRESENT("Present"),
+        // 帧间隔控制器醒来时间与截止时间的偏差
+        PACING("Pacing");
+
+        private final String label;
+
+        Phase(String label) {
+            this.label = label;
+        }
+
+        public String getLabel() {
+            return label;
+        }
+    }
+
+    private static final double[] PERCENTILES = {50.0, 90.0, 99.0, 99.9};
+    private static final String SUMMARY_PATH = "performance";
+
     private int frameCount = 0;
     private float elapsedTime = 0.0f;
     private float currentFPS = 0.0f;
@@ -14,6 +49,35 @@ public class GamePerformance {
     private int totalFrameCount = 0;
     private float totalElapsedTime = 0.0f;
 
+    // 整个运行期间的分布，以及最近一秒的分布（用于屏幕显示）
+    private final FrameTimeHistogram[] totalHistograms;
+    private final FrameTimeHistogram[] windowHistograms;
+    // 流水线模式下 OpenGL 线程自己的直方图，由模拟线程定期并入上面两组（只在交接时加锁）
+    private final FrameTimeHistogram[] renderThreadHistograms;
+    private final Object renderThreadLock = new Object();
+    // 最近一秒的百分位结果 [阶段][p50, p90, p99, p99.9, max]（毫秒）
+    private final float[][] windowStats;
+    // 屏幕显示用的文字，只在统计刷新时重新格式化，每帧绘制时不分配字符串
+    private String fpsText;
+    private final String[] windowLines;
+    private boolean showDetails = false;
+    private boolean summaryWritten = false;
+
+    public GamePerformance() {
+        int phaseCount = Phase.values().length;
+        this.totalHistograms = new FrameTimeHistogram[phaseCount];
+        this.windowHistograms = new FrameTimeHistogram[phaseCount];
+        this.windowStats = new float[phaseCount][PERCENTILES.length + 1];
+        this.windowLines = new String[phaseCount];
+        this.renderThreadHistograms = new FrameTimeHistogram[phaseCount];
+        for (int i = 0; i < phaseCount; i++) {
+            totalHistograms[i] = new FrameTimeHistogram();
+            windowHistograms[i] = new FrameTimeHistogram();
+            renderThreadHistograms[i] = new FrameTimeHistogram();
+        }
+        formatDisplayText();
+    }
+
     /**
      * 每帧调用此方法更新FPS
      * @param deltaTime 帧间隔时间（秒）
@@ -23,15 +87,71 @@ public class GamePerformance {
         totalFrameCount++;
         elapsedTime += deltaTime;
         totalElapsedTime += deltaTime;
+        record(Phase.FRAME, (long) (deltaTime * 1_000_000_000.0));
+        mergeRenderThreadSamples();
 
-        // 每秒计算一次FPS
+        // 每秒计算一次FPS，并刷新屏幕显示用的百分位
         if (elapsedTime >= 1.0f) {
             currentFPS = frameCount / elapsedTime;
             frameCount = 0;
             elapsedTime = 0.0f;
+            refreshWindowStats();
+        }
+    }
+
+    /**
+     * 记录某个阶段的耗时
+     * @param phase 阶段
+     * @param nanos 耗时（纳秒）
+     */
+    public void record(Phase phase, long nanos) {
+        totalHistograms[phase.ordinal()].record(nanos);
+        windowHistograms[phase.ordinal()].record(nanos);
+    }
+
+    /**
+     * 在 OpenGL 线程上记录某个阶段的耗时（流水线模式下的事件处理与回放）
+     * 样本先写入该线程自己的直方图，模拟线程每帧并入统计，两边不会同时读写同一个直方图
+     */
+    public void recordFromRenderThread(Phase phase, long nanos) {
+        synchronized (renderThreadLock) {
+            renderThreadHistograms[phase.ordinal()].record(nanos);
+        }
+    }
 
-            // 打印到控制台
-            System.out.printf("FPS: %.1f\n", currentFPS);
+    private void mergeRenderThreadSamples() {
+        synchronized (renderThreadLock) {
+            for (int i = 0; i < renderThreadHistograms.length; i++) {
+                FrameTimeHistogram histogram = renderThreadHistograms[i];
+                if (histogram.getCount() == 0) {
+                    continue;
+                }
+                totalHistograms[i].add(histogram);
+                windowHistograms[i].add(histogram);
+                histogram.reset();
+            }
+        }
+    }
+
+    private void refreshWindowStats() {
+        for (int i = 0; i < windowHistograms.length; i++) {
+            FrameTimeHistogram histogram = windowHistograms[i];
+            for (int p = 0; p < PERCENTILES.length; p++) {
+                windowStats[i][p] = histogram.getPercentile(PERCENTILES[p]) / 1_000_000.0f;
+            }
+            windowStats[i][PERCENTILES.length] = histogram.getMax() / 1_000_000.0f;
+            histogram.reset();
+        }
+        formatDisplayText();
+    }
+
+    private void formatDisplayText() {
+        fpsText = String.format("FPS: %.1f", currentFPS);
+        Phase[] phases = Phase.values();
+        for (int i = 0; i < phases.length; i++) {
+            float[] stats = windowStats[i];
+            windowLines[i] = String.format("%-6s %6.2f %6.2f %6.2f %6.2f %6.2f",
+                    phases[i].getLabel(), stats[0], stats[1], stats[2], stats[3], stats[4]);
         }
     }
 
@@ -42,6 +162,24 @@ public class GamePerformance {
         return currentFPS;
     }
 
+    /**
+     * 获取某阶段整个运行期间的分布
+     */
+    public FrameTimeHistogram getHistogram(Phase phase) {
+        return totalHistograms[phase.ordinal()];
+    }
+
+    /**
+     * 切换详细统计的屏幕显示
+     */
+    public void toggleDetails() {
+        this.showDetails = !this.showDetails;
+    }
+
+    public boolean isShowDetails() {
+        return showDetails;
+    }
+
     /**
      * 在屏幕上显示FPS（屏幕左上角，生命条下方）
      */
@@ -49,15 +187,36 @@ public class GamePerformance {
         // 先绘制半透明背景
         renderer.drawRect(20, 50, 100, 20, 0.0f, 0.0f, 0.0f, 0.7f);
         // 在屏幕左上角显示FPS文字，位于生命条下方
-        renderer.drawText(String.format("FPS: %.1f", currentFPS), 25, 65,
+        renderer.drawText(fpsText, 25, 65,
                          14, 1.0f, 1.0f, 1.0f, 1.0f);
+
+        if (!showDetails) {
+            return;
+        }
+
+        // 详细统计：最近一秒各阶段的百分位（毫秒）
+        Phase[] phases = Phase.values();
+        float top = 75;
+        float rowHeight = 18;
+        renderer.drawRect(20, top, 420, rowHeight * (phases.length + 1) + 6, 0.0f, 0.0f, 0.0f, 0.7f);
+        renderer.drawText("ms      p50    p90    p99   p99.9    max", 25, top + 15,
+                         12, 0.8f, 0.8f, 0.8f, 1.0f);
+        for (int i = 0; i < phases.length; i++) {
+            renderer.drawText(windowLines[i], 25, top + 15 + rowHeight * (i + 1),
+                             12, 1.0f, 1.0f, 1.0f, 1.0f);
+        }
     }
 
     /**
-     * 计算并打印整体平均帧率（游戏结束时调用）
+     * 计算并打印整体平均帧率，同时把各阶段分布写入文件（游戏结束时调用）
      */
     public void printSummary() {
+        if (summaryWritten) {
+            return;
+        }
+        mergeRenderThreadSamples();
         if (totalElapsedTime > 0) {
+            summaryWritten = true;
             float averageFPS = totalFrameCount / totalElapsedTime;
             System.out.println("\n================================");
             System.out.println("        游戏性能统计");
@@ -66,6 +225,39 @@ public class GamePerformance {
             System.out.printf("总帧数: %d 帧\n", totalFrameCount);
             System.out.printf("平均帧率: %.2f FPS\n", averageFPS);
             System.out.println("================================\n");
+
+            writeSummaryFile(averageFPS);
+        }
+    }
+
+    private void writeSummaryFile(float averageFPS) {
+        File folder = new File(SUMMARY_PATH);
+        if (!folder.exists() && !folder.mkdirs()) {
+            System.err.println("无法创建性能统计文件夹: " + SUMMARY_PATH);
+            return;
+        }
+        File file = new File(folder, "performance_" + System.currentTimeMillis() + ".txt");
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.printf("总运行时间: %.2f 秒\n", totalElapsedTime);
+            writer.printf("总帧数: %d 帧\n", totalFrameCount);
+            writer.printf("平均帧率: %.2f FPS\n", averageFPS);
+            writer.println();
+            writer.println("phase       count     mean      p50      p90      p99    p99.9      max  (ms)");
+            for (Phase phase : Phase.values()) {
+                FrameTimeHistogram histogram = totalHistograms[phase.ordinal()];
+                writer.printf("%-8s %8d %8.3f %8.3f %8.3f %8.3f %8.3f %8.3f\n",
+                        phase.getLabel(),
+                        histogram.getCount(),
+                        histogram.getMean() / 1_000_000.0,
+                        histogram.getPercentile(50.0) / 1_000_000.0,
+                        histogram.getPercentile(90.0) / 1_000_000.0,
+                        histogram.getPercentile(99.0) / 1_000_000.0,
+                        histogram.getPercentile(99.9) / 1_000_000.0,
+                        histogram.getMax() / 1_000_000.0);
+            }
+            System.out.println("性能统计已写入: " + file.getPath());
+        } catch (IOException e) {
+            System.err.println("写入性能统计文件时出错: " + e.getMessage());
         }
     }
 
@@ -0,0 +1,204 @@
+package com.gameengine.core;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 每帧执行的任务图
+ * 场景初始化时搭建一次（各系统及其依赖），之后每帧通过 JobSystem.run 重复执行，不再分配任务对象
+ * 依赖全部完成的任务进入就绪队列，由工作线程或调用线程领取
+ * 一个任务完成后，它解锁的第一个后续任务直接在同一线程上接着执行（链式的依赖不经过线程池交接），
+ * 其余同时就绪的任务才交给线程池
+ * 标记为主线程的任务（例如会调用渲染器的游戏结束处理）只由调用线程执行
+ */
+public class JobGraph {
+
+    /**
+     * 图中的一个任务
+     */
+    public static final class Job {
+        private final String name;
+        private final Runnable work;
+        private final boolean mainThread;
+        private final List<Job> dependents;
+        private int dependencyCount;
+        private final AtomicInteger remaining;
+
+        private Job(String name, Runnable work, boolean mainThread) {
+            this.name = name;
+            this.work = work;
+            this.mainThread = mainThread;
+            this.dependents = new ArrayList<>();
+            this.remaining = new AtomicInteger();
+        }
+
+        public String getName() {
+            return name;
+        }
+    }
+
+    private final List<Job> jobs;
+    private final ConcurrentLinkedQueue<Job> readyJobs;
+    private final ConcurrentLinkedQueue<Job> readyMainJobs;
+    private final AtomicInteger finishedJobs;
+    private final AtomicReference<Throwable> error;
+    // 提交给工作线程的领取任务，每帧复用
+    private final Runnable drainOne;
+    // 当前执行所用的任务系统（提交给线程池之前写入，对工作线程可见）
+    private JobSystem jobSystem;
+    private boolean running;
+    // 执行 execute 的线程，以及它是否已挂起等待
+    private Thread caller;
+    private volatile boolean callerParked;
+
+    public JobGraph() {
+        this.jobs = new ArrayList<>();
+        this.readyJobs = new ConcurrentLinkedQueue<>();
+        this.readyMainJobs = new ConcurrentLinkedQueue<>();
+        this.finishedJobs = new AtomicInteger();
+        this.error = new AtomicReference<>();
+        this.drainOne = () -> {
+            Job job = readyJobs.poll();
+            if (job != null) {
+                runChain(job);
+            }
+        };
+    }
+
+    /**
+     * 添加任务，可在任意线程执行
+     * @param dependsOn 必须先完成的任务
+     */
+    public Job add(String name, Runnable work, Job... dependsOn) {
+        return addJob(new Job(name, work, false), dependsOn);
+    }
+
+    /**
+     * 添加只能在调用线程（模拟主线程）执行的任务
+     */
+    public Job addOnMainThread(String name, Runnable work, Job... dependsOn) {
+        return addJob(new Job(name, work, true), dependsOn);
+    }
+
+    private Job addJob(Job job, Job... dependsOn) {
+        if (running) {
+            throw new IllegalStateException("任务图执行中无法添加任务");
+        }
+        for (Job dependency : dependsOn) {
+            if (!jobs.contains(dependency)) {
+                throw new IllegalArgumentException("依赖的任务不属于此任务图: " + dependency.getName());
+            }
+            dependency.dependents.add(job);
+            job.dependencyCount++;
+        }
+        jobs.add(job);
+        return job;
+    }
+
+    public int getJobCount() {
+        return jobs.size();
+    }
+
+    void execute(JobSystem jobSystem) {
+        if (jobs.isEmpty()) {
+            return;
+        }
+        this.jobSystem = jobSystem;
+        this.caller = Thread.currentThread();
+        running = true;
+        finishedJobs.set(0);
+        error.set(null);
+        for (Job job : jobs) {
+            job.remaining.set(job.dependencyCount);
+        }
+        // 第一个没有依赖的任务由调用线程直接执行，其余的进入就绪队列
+        Job first = null;
+        for (Job job : jobs) {
+            if (job.dependencyCount == 0) {
+                if (first == null) {
+                    first = job;
+                } else {
+                    enqueue(job);
+                }
+            }
+        }
+        runChain(first);
+
+        // 调用线程协助执行：优先主线程任务，其次普通任务，都没有时先自旋，再挂起等待唤醒
+        int total = jobs.size();
+        int spins = 0;
+        while (finishedJobs.get() < total) {
+            Job job = readyMainJobs.poll();
+            if (job == null) {
+                job = readyJobs.poll();
+            }
+            if (job != null) {
+                runChain(job);
+                spins = 0;
+            } else if (spins < JobSystem.SPIN_LIMIT) {
+                Thread.onSpinWait();
+                spins++;
+            } else {
+                callerParked = true;
+                // 挂起前再检查一次，避免错过在此之前发出的唤醒
+                if (finishedJobs.get() < total && readyMainJobs.isEmpty() && readyJobs.isEmpty()) {
+                    LockSupport.park(this);
+                }
+                callerParked = false;
+            }
+        }
+        running = false;
+
+        JobSystem.rethrow(error.get());
+    }
+
+    private void enqueue(Job job) {
+        if (job.mainThread) {
+            readyMainJobs.add(job);
+        } else {
+            readyJobs.add(job);
+            jobSystem.submit(drainOne);
+        }
+        wakeCaller();
+    }
+
+    /**
+     * 执行任务，并沿依赖链继续执行它解锁的第一个后续任务（主线程任务只在调用线程上接着执行）
+     */
+    private void runChain(Job job) {
+        boolean onCaller = Thread.currentThread() == caller;
+        while (job != null) {
+            // 前面的任务失败后，后续任务只释放依赖，不再执行
+            if (error.get() == null) {
+                try {
+                    job.work.run();
+                } catch (Throwable e) {
+                    error.compareAndSet(null, e);
+                }
+            }
+            Job next = null;
+            for (Job dependent : job.dependents) {
+                if (dependent.remaining.decrementAndGet() == 0) {
+                    if (next == null && (onCaller || !dependent.mainThread)) {
+                        next = dependent;
+                    } else {
+                        enqueue(dependent);
+                    }
+                }
+            }
+            finishedJobs.incrementAndGet();
+            wakeCaller();
+            job = next;
+        }
+    }
+
+    private void wakeCaller() {
+        if (callerParked) {
+            LockSupport.unpark(caller);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.gameengine.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 引擎的任务系统
+ * 由 GameEngine 持有，底层是一个工作窃取线程池（ForkJoinPool），所有场景与系统共用
+ * 提供两种并行方式：
+ *   parallelFor：把区间切成批次，工作线程与调用线程一起领取批次
+ *   JobGraph：每帧按依赖关系执行各系统，调用线程也参与执行
+ * 调用线程不会空等，只有在没有可领取的工作时才等待其他线程完成：先短暂自旋，仍未完成时挂起，
+ * 由完成最后一项工作的线程唤醒，不会在等待期间占满一个核心
+ */
+public class JobSystem {
+    // 等待其他线程时先自旋的次数，之后挂起
+    static final int SPIN_LIMIT = 256;
+
+    private final ForkJoinPool pool;
+    private final int workerCount;
+
+    public JobSystem(int workerCount) {
+        if (workerCount <= 0) {
+            throw new IllegalArgumentException("工作线程数必须大于0: " + workerCount);
+        }
+        this.workerCount = workerCount;
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.pool = new ForkJoinPool(workerCount, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("Job-Worker-" + threadIndex.getAndIncrement());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+    }
+
+    /**
+     * 按可用处理器数量创建（保留一个核心给调用线程）
+     */
+    public JobSystem() {
+        this(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+    }
+
+    /**
+     * 区间任务：处理 [start, end)
+     */
+    public interface RangeTask {
+        void run(int start, int end);
+    }
+
+    public int getWorkerCount() {
+        return workerCount;
+    }
+
+    /**
+     * 并行处理 [0, count)
+     * 区间按 batchSize 切成批次，工作线程与调用线程通过原子计数领取批次，先完成的线程继续领取剩余批次
+     * 只有一个批次或任务系统已关闭时直接在调用线程上执行
+     */
+    public void parallelFor(int count, int batchSize, RangeTask task) {
+        if (count <= 0) {
+            return;
+        }
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("批次大小必须大于0: " + batchSize);
+        }
+        int batches = (count + batchSize - 1) / batchSize;
+        if (batches == 1 || pool.isShutdown()) {
+            task.run(0, count);
+            return;
+        }
+
+        AtomicInteger nextBatch = new AtomicInteger();
+        AtomicInteger finishedBatches = new AtomicInteger();
+        AtomicReference<Throwable> error = new AtomicReference<>();
+        Thread caller = Thread.currentThread();
+        Runnable worker = () -> runBatches(count, batchSize, batches, task,
+                nextBatch, finishedBatches, error, caller);
+
+        int helpers = Math.min(batches - 1, workerCount);
+        for (int i = 0; i < helpers; i++) {
+            pool.execute(worker);
+        }
+        // 调用线程也领取批次
+        worker.run();
+        for (int spins = 0; finishedBatches.get() < batches; spins++) {
+            if (spins < SPIN_LIMIT) {
+                Thread.onSpinWait();
+            } else {
+                // 完成最后一个批次的线程会唤醒调用线程
+                LockSupport.park(this);
+            }
+        }
+
+        rethrow(error.get());
+    }
+
+    private static void runBatches(int count, int batchSize, int batches, RangeTask task,
+                                   AtomicInteger nextBatch, AtomicInteger finishedBatches,
+                                   AtomicReference<Throwable> error, Thread caller) {
+        int batch;
+        while ((batch = nextBatch.getAndIncrement()) < batches) {
+            int start = batch * batchSize;
+            int end = Math.min(start + batchSize, count);
+            try {
+                task.run(start, end);
+            } catch (Throwable e) {
+                error.compareAndSet(null, e);
+            } finally {
+                if (finishedBatches.incrementAndGet() == batches) {
+                    LockSupport.unpark(caller);
+                }
+            }
+        }
+    }
+
+    /**
+     * 执行一帧的任务图，返回时图中所有任务都已完成
+     * 调用线程负责只能在主线程执行的任务，空闲时也执行普通任务
+     */
+    public void run(JobGraph graph) {
+        graph.execute(this);
+    }
+
+    void submit(Runnable runnable) {
+        if (pool.isShutdown()) {
+            // 已关闭时由调用线程在 JobGraph 的协助循环中执行
+            return;
+        }
+        pool.execute(runnable);
+    }
+
+    /**
+     * 关闭线程池（随 GameEngine 结束时调用）
+     */
+    public void shutdown() {
+        pool.shutdown();
+        try {
+            if (!pool.awaitTermination(1, TimeUnit.SECONDS)) {
+                pool.shutdownNow();
+            }
+        } catch (InterruptedException e) {
+            pool.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean isShutdown() {
+        return pool.isShutdown();
+    }
+
+    static void rethrow(Throwable error) {
+        if (error == null) {
+            return;
+        }
+        if (error instanceof RuntimeException) {
+            throw (RuntimeException) error;
+        }
+        if (error instanceof Error) {
+            throw (Error) error;
+        }
+        throw new RuntimeException(error);
+    }
+}
@@ -1,81 +1,45 @@
 package com.gameengine.core;
 
 import com.gameengine.graphics.IRenderer;
+import com.gameengine.math.Kernels;
 import com.gameengine.math.Vector2;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Iterator;
+import java.util.Arrays;
 import java.util.Random;
 
+/**
+ * 粒子系统
+ * 粒子按字段分别存放在连续的 float 数组中（结构数组），更新由 Kernels 批量完成，生成与销毁粒子不分配对象
+ */
 public class ParticleSystem {
-    private List<Particle> particles;
+    private static final int INITIAL_CAPACITY = 64;
+    // 存活粒子每次更新的速度衰减
+    private static final float DAMPING = 0.98f;
+    // 速度低于此值置零，避免长寿命粒子的速度衰减到非规格化浮点数
+    private static final float REST_VELOCITY = 1e-4f;
+
     private Random random;
     private IRenderer renderer;
     private float spawnRate;
     private float timeSinceLastSpawn;
-    private Vector2 position;
+    private final Vector2 position;
     private boolean active;
+    private Kernels kernels = Kernels.get();
     
     private Config config;
-    
-    private static class Particle {
-        private Vector2 position;
-        private Vector2 velocity;
-        private float life;
-        private float maxLife;
-        private float size;
-        private float r, g, b, a;
-        
-        public Particle(Vector2 position, Vector2 velocity, float life, float size, float r, float g, float b) {
-            this.position = new Vector2(position);
-            this.velocity = new Vector2(velocity);
-            this.maxLife = life;
-            this.life = life;
-            this.size = size;
-            this.r = r;
-            this.g = g;
-            this.b = b;
-            this.a = 1.0f;
-        }
-        
-        public void update(float deltaTime) {
-            position = position.add(velocity.multiply(deltaTime));
-            life -= deltaTime;
-            
-            if (life > 0) {
-                a = life / maxLife;
-                velocity = velocity.multiply(0.98f);
-            }
-        }
-        
-        public boolean isAlive() {
-            return life > 0;
-        }
-        
-        public Vector2 getPosition() {
-            return new Vector2(position);
-        }
-        
-        public float getSize() {
-            return size;
-        }
-        
-        public float getR() {
-            return r;
-        }
-        
-        public float getG() {
-            return g;
-        }
-        
-        public float getB() {
-            return b;
-        }
-        
-        public float getA() {
-            return a;
-        }
-    }
+
+    // 粒子数据：第 i 个粒子的各字段位于各数组的第 i 个位置，有效范围为 [0, count)
+    private int count;
+    private float[] x;
+    private float[] y;
+    private float[] vx;
+    private float[] vy;
+    private float[] life;
+    private float[] maxLife;
+    private float[] size;
+    private float[] r;
+    private float[] g;
+    private float[] b;
+    private float[] a;
     
     public static class Config {
         public float spawnRate = 0.015f;
@@ -145,8 +109,19 @@ public class ParticleSystem {
     }
     
     public ParticleSystem(IRenderer renderer, Vector2 position, Config config) {
-        this.particles = new ArrayList<>();
-        this.random = new Random();
+        this(renderer, position, config, new Random());
+    }
+
+    /**
+     * @param seed 随机种子，确定性模式下由场景的随机数流提供
+     */
+    public ParticleSystem(IRenderer renderer, Vector2 position, Config config, long seed) {
+        this(renderer, position, config, new Random(seed));
+    }
+
+    private ParticleSystem(IRenderer renderer, Vector2 position, Config config, Random random) {
+        allocate(INITIAL_CAPACITY);
+        this.random = random;
         this.renderer = renderer;
         this.position = new Vector2(position);
         this.config = config;
@@ -162,12 +137,26 @@ public class ParticleSystem {
     public void setActive(boolean active) {
         this.active = active;
     }
+
+    /**
+     * 指定粒子更新的实现（默认为 Kernels.get()）
+     */
+    public void setKernels(Kernels kernels) {
+        if (kernels == null) {
+            throw new IllegalArgumentException("kernels 不能为 null");
+        }
+        this.kernels = kernels;
+    }
     
     public void setPosition(Vector2 position) {
         if (position != null) {
-            this.position = new Vector2(position);
+            this.position.set(position);
         }
     }
+
+    public void setPosition(float x, float y) {
+        position.set(x, y);
+    }
     
     public void update(float deltaTime) {
         if (active) {
@@ -178,14 +167,85 @@ public class ParticleSystem {
             }
         }
         
-        Iterator<Particle> iterator = particles.iterator();
-        while (iterator.hasNext()) {
-            Particle particle = iterator.next();
-            particle.update(deltaTime);
-            if (!particle.isAlive()) {
-                iterator.remove();
+        kernels.updateParticles(x, y, vx, vy, life, maxLife, a, count, deltaTime, DAMPING, REST_VELOCITY);
+        
+        // 原地压缩掉死亡的粒子，保持存活粒子的顺序
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            if (life[i] > 0) {
+                if (kept != i) {
+                    move(i, kept);
+                }
+                kept++;
             }
         }
+        count = kept;
+    }
+
+    private void move(int from, int to) {
+        x[to] = x[from];
+        y[to] = y[from];
+        vx[to] = vx[from];
+        vy[to] = vy[from];
+        life[to] = life[from];
+        maxLife[to] = maxLife[from];
+        size[to] = size[from];
+        r[to] = r[from];
+        g[to] = g[from];
+        b[to] = b[from];
+        a[to] = a[from];
+    }
+
+    private void allocate(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        vx = new float[capacity];
+        vy = new float[capacity];
+        life = new float[capacity];
+        maxLife = new float[capacity];
+        size = new float[capacity];
+        r = new float[capacity];
+        g = new float[capacity];
+        b = new float[capacity];
+        a = new float[capacity];
+    }
+
+    private void ensureCapacity(int capacity) {
+        if (capacity <= x.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, x.length * 2);
+        x = Arrays.copyOf(x, newCapacity);
+        y = Arrays.copyOf(y, newCapacity);
+        vx = Arrays.copyOf(vx, newCapacity);
+        vy = Arrays.copyOf(vy, newCapacity);
+        life = Arrays.copyOf(life, newCapacity);
+        maxLife = Arrays.copyOf(maxLife, newCapacity);
+        size = Arrays.copyOf(size, newCapacity);
+        r = Arrays.copyOf(r, newCapacity);
+        g = Arrays.copyOf(g, newCapacity);
+        b = Arrays.copyOf(b, newCapacity);
+        a = Arrays.copyOf(a, newCapacity);
+    }
+
+    /**
+     * 在末尾加入一个粒子（从系统当前位置出发，透明度为1）
+     */
+    private void addParticle(float velocityX, float velocityY, float particleLife, float particleSize,
+                             float red, float green, float blue) {
+        ensureCapacity(count + 1);
+        int i = count++;
+        x[i] = position.x;
+        y[i] = position.y;
+        vx[i] = velocityX;
+        vy[i] = velocityY;
+        life[i] = particleLife;
+        maxLife[i] = particleLife;
+        size[i] = particleSize;
+        r[i] = red;
+        g[i] = green;
+        b[i] = blue;
+        a[i] = 1.0f;
     }
     
     private void spawnParticle() {
@@ -193,10 +253,8 @@ public class ParticleSystem {
         
         float angle = (float) (random.nextFloat() * 2.0 * Math.PI);
         float speed = config.speedMin + random.nextFloat() * (config.speedMax - config.speedMin);
-        Vector2 velocity = new Vector2(
-            (float) (Math.cos(angle) * speed),
-            (float) (Math.sin(angle) * speed)
-        );
+        float velocityX = (float) (Math.cos(angle) * speed);
+        float velocityY = (float) (Math.sin(angle) * speed);
         
         float life = config.lifeMin + random.nextFloat() * (config.lifeMax - config.lifeMin);
         float size = config.sizeMin + random.nextFloat() * (config.sizeMax - config.sizeMin);
@@ -212,8 +270,7 @@ public class ParticleSystem {
             g = config.g + random.nextFloat() * 0.2f;
         }
         
-        Particle particle = new Particle(new Vector2(position), velocity, life, size, r, g, b);
-        particles.add(particle);
+        addParticle(velocityX, velocityY, life, size, r, g, b);
     }
     
     public void setSpawnRate(float rate) {
@@ -223,22 +280,23 @@ public class ParticleSystem {
     public void render() {
         if (renderer == null) return;
         
-        for (Particle particle : particles) {
-            Vector2 pos = particle.getPosition();
-            float size = particle.getSize();
+        for (int i = 0; i < count; i++) {
+            float x = this.x[i];
+            float y = this.y[i];
+            float size = this.size[i];
             
-            float r = Math.min(1.0f, Math.max(0.0f, particle.getR()));
-            float g = Math.min(1.0f, Math.max(0.0f, particle.getG()));
-            float b = Math.min(1.0f, Math.max(0.0f, particle.getB()));
-            float a = Math.min(1.0f, Math.max(0.0f, particle.getA())) * config.opacityMultiplier;
+            float r = Math.min(1.0f, Math.max(0.0f, this.r[i]));
+            float g = Math.min(1.0f, Math.max(0.0f, this.g[i]));
+            float b = Math.min(1.0f, Math.max(0.0f, this.b[i]));
+            float a = Math.min(1.0f, Math.max(0.0f, this.a[i])) * config.opacityMultiplier;
             
             float maxW = renderer != null ? renderer.getWidth() : 1920;
             float maxH = renderer != null ? renderer.getHeight() : 1080;
-            if (a > 0.01f && pos.x >= -50 && pos.x <= maxW + 50 && pos.y >= -50 && pos.y <= maxH + 50) {
+            if (a > 0.01f && x >= -50 && x <= maxW + 50 && y >= -50 && y <= maxH + 50) {
                 float renderSize = Math.max(config.minRenderSize, size * a);
                 try {
                     renderer.drawRect(
-                        pos.x - renderSize * 0.5f, pos.y - renderSize * 0.5f, 
+                        x - renderSize * 0.5f, y - renderSize * 0.5f, 
                         renderSize, renderSize,
                         r, g, b, a
                     );
@@ -249,13 +307,12 @@ public class ParticleSystem {
     }
     
     public void burst(int count) {
+        ensureCapacity(this.count + count);
         for (int i = 0; i < count; i++) {
             float angle = (float) (random.nextFloat() * 2.0 * Math.PI);
             float speed = config.burstSpeedMin + random.nextFloat() * (config.burstSpeedMax - config.burstSpeedMin);
-            Vector2 velocity = new Vector2(
-                (float) (Math.cos(angle) * speed),
-                (float) (Math.sin(angle) * speed)
-            );
+            float velocityX = (float) (Math.cos(angle) * speed);
+            float velocityY = (float) (Math.sin(angle) * speed);
             
             float life = config.burstLifeMin + random.nextFloat() * (config.burstLifeMax - config.burstLifeMin);
             float size = config.burstSizeMin + random.nextFloat() * (config.burstSizeMax - config.burstSizeMin);
@@ -264,16 +321,15 @@ public class ParticleSystem {
             float g = config.burstGMin + random.nextFloat() * (config.burstGMax - config.burstGMin);
             float b = config.burstB;
             
-            Particle particle = new Particle(new Vector2(position), velocity, life, size, r, g, b);
-            particles.add(particle);
+            addParticle(velocityX, velocityY, life, size, r, g, b);
         }
     }
     
     public int getParticleCount() {
-        return particles.size();
+        return count;
     }
     
     public void clear() {
-        particles.clear();
+        count = 0;
     }
 }
@@ -0,0 +1,222 @@
+package com.gameengine.core;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.math.Kernels;
+import com.gameengine.scene.Scene;
+
+import java.util.List;
+
+/**
+ * 物理系统：统一完成积分（加速度、重力、摩擦）与边界反弹
+ * 通过 Transform+Physics 查询按原型遍历，每次取出一块（CHUNK_SIZE 个）对象的状态放进连续的 float 数组，
+ * 在数组上完成本帧全部计算后再写回组件，整个过程只遍历一次对象
+ * 数组上的计算由 Kernels 完成（可用时为 SIMD 实现，否则为标量实现，两者结果一致）
+ * 对象数量达到并行阈值时按块分给任务系统的工作线程，每个对象的计算互不依赖，结果与串行一致
+ */
+public class PhysicsSystem {
+    // 每块处理的对象数量，块内数组可以放进一级缓存
+    public static final int CHUNK_SIZE = 256;
+    // 速度绝对值低于此值视为静止并置零：摩擦使速度不断衰减，最终停在非规格化浮点数上（最小值乘0.9仍舍入为自身），
+    // 非规格化数的运算比正常浮点数慢一到两个数量级
+    public static final float REST_VELOCITY = 1e-4f;
+
+    private final Scene scene;
+    private final JobSystem jobSystem;
+    private EntityQuery query;
+    private boolean parallel = true;
+    private int parallelThreshold = 20;
+    // 每帧积分的次数（每次都使用完整的 deltaTime）
+    private int stepsPerTick = 1;
+    private boolean hasBounds;
+    private float minX;
+    private float minY;
+    private float maxX;
+    private float maxY;
+    private Kernels kernels = Kernels.get();
+    // 每个线程各自的块缓冲，避免每帧分配
+    private final ThreadLocal<Chunk> chunks = ThreadLocal.withInitial(Chunk::new);
+
+    public PhysicsSystem(Scene scene, JobSystem jobSystem) {
+        this.scene = scene;
+        this.jobSystem = jobSystem;
+    }
+
+    /**
+     * 设置边界：对象到达边界时速度反向并被限制在边界内
+     */
+    public void setBounds(float minX, float minY, float maxX, float maxY) {
+        if (minX > maxX || minY > maxY) {
+            throw new IllegalArgumentException("边界范围无效: " + minX + "," + minY + " - " + maxX + "," + maxY);
+        }
+        this.minX = minX;
+        this.minY = minY;
+        this.maxX = maxX;
+        this.maxY = maxY;
+        this.hasBounds = true;
+    }
+
+    /**
+     * 取消边界
+     */
+    public void clearBounds() {
+        this.hasBounds = false;
+    }
+
+    /**
+     * 设置每帧积分的次数
+     */
+    public void setStepsPerTick(int stepsPerTick) {
+        if (stepsPerTick <= 0) {
+            throw new IllegalArgumentException("每帧积分次数必须大于0: " + stepsPerTick);
+        }
+        this.stepsPerTick = stepsPerTick;
+    }
+
+    public int getStepsPerTick() {
+        return stepsPerTick;
+    }
+
+    /**
+     * 启用/禁用并行路径（禁用后始终串行）
+     */
+    public void setParallel(boolean parallel) {
+        this.parallel = parallel;
+    }
+
+    public boolean isParallel() {
+        return parallel;
+    }
+
+    /**
+     * 指定数组计算的实现（默认为 Kernels.get()）
+     */
+    public void setKernels(Kernels kernels) {
+        if (kernels == null) {
+            throw new IllegalArgumentException("kernels 不能为 null");
+        }
+        this.kernels = kernels;
+    }
+
+    public Kernels getKernels() {
+        return kernels;
+    }
+
+    /**
+     * 设置启用并行的最少对象数量
+     */
+    public void setParallelThreshold(int parallelThreshold) {
+        this.parallelThreshold = Math.max(1, parallelThreshold);
+    }
+
+    /**
+     * 更新全部拥有 Transform 与 Physics 组件的活跃对象
+     */
+    public void update(float deltaTime) {
+        if (query == null) {
+            query = scene.query(TransformComponent.class, PhysicsComponent.class);
+        }
+        int total = query.count();
+        if (total == 0) {
+            return;
+        }
+        boolean runParallel = parallel && total >= parallelThreshold;
+
+        List<Archetype> archetypes = query.getArchetypes();
+        for (int i = 0; i < archetypes.size(); i++) {
+            Archetype archetype = archetypes.get(i);
+            TransformComponent[] transforms = archetype.getColumn(TransformComponent.class);
+            PhysicsComponent[] physics = archetype.getColumn(PhysicsComponent.class);
+            int size = archetype.size();
+            if (size == 0) {
+                continue;
+            }
+            if (runParallel) {
+                jobSystem.parallelFor(size, CHUNK_SIZE,
+                        (start, end) -> updateRange(archetype, transforms, physics, start, end, deltaTime));
+            } else {
+                updateRange(archetype, transforms, physics, 0, size, deltaTime);
+            }
+        }
+    }
+
+    private void updateRange(Archetype archetype, TransformComponent[] transforms, PhysicsComponent[] physics,
+                             int start, int end, float deltaTime) {
+        Chunk chunk = chunks.get();
+        for (int chunkStart = start; chunkStart < end; chunkStart += CHUNK_SIZE) {
+            int chunkEnd = Math.min(end, chunkStart + CHUNK_SIZE);
+            chunk.gather(archetype, transforms, physics, chunkStart, chunkEnd);
+            if (chunk.count == 0) {
+                continue;
+            }
+            for (int step = 0; step < stepsPerTick; step++) {
+                kernels.integrate(chunk.x, chunk.y, chunk.vx, chunk.vy, chunk.ax, chunk.ay, chunk.gx, chunk.gy,
+                        chunk.friction, chunk.count, deltaTime, REST_VELOCITY);
+            }
+            if (hasBounds) {
+                kernels.resolveBounds(chunk.x, chunk.y, chunk.vx, chunk.vy, chunk.count, minX, minY, maxX, maxY);
+            }
+            chunk.scatter(transforms, physics);
+        }
+    }
+
+    /**
+     * 一块对象的连续状态（结构数组），rows 记录每个元素对应的原型行
+     */
+    private static final class Chunk {
+        final int[] rows = new int[CHUNK_SIZE];
+        final float[] x = new float[CHUNK_SIZE];
+        final float[] y = new float[CHUNK_SIZE];
+        final float[] vx = new float[CHUNK_SIZE];
+        final float[] vy = new float[CHUNK_SIZE];
+        final float[] ax = new float[CHUNK_SIZE];
+        final float[] ay = new float[CHUNK_SIZE];
+        final float[] gx = new float[CHUNK_SIZE];
+        final float[] gy = new float[CHUNK_SIZE];
+        final float[] friction = new float[CHUNK_SIZE];
+        int count;
+
+        /**
+         * 取出 [start, end) 中活跃且物理组件启用的对象
+         */
+        void gather(Archetype archetype, TransformComponent[] transforms, PhysicsComponent[] physics,
+                    int start, int end) {
+            int n = 0;
+            for (int row = start; row < end; row++) {
+                PhysicsComponent p = physics[row];
+                if (!p.isEnabled() || !archetype.getEntity(row).isActive()) {
+                    continue;
+                }
+                TransformComponent t = transforms[row];
+                rows[n] = row;
+                x[n] = t.getX();
+                y[n] = t.getY();
+                vx[n] = p.getVelocityX();
+                vy[n] = p.getVelocityY();
+                ax[n] = p.getAccelerationX();
+                ay[n] = p.getAccelerationY();
+                if (p.isUseGravity()) {
+                    gx[n] = p.getGravityX();
+                    gy[n] = p.getGravityY();
+                } else {
+                    gx[n] = 0;
+                    gy[n] = 0;
+                }
+                friction[n] = p.getFriction();
+                n++;
+            }
+            count = n;
+        }
+
+        /**
+         * 写回组件（状态未变的组件不会被标记为已修改）
+         */
+        void scatter(TransformComponent[] transforms, PhysicsComponent[] physics) {
+            for (int i = 0; i < count; i++) {
+                int row = rows[i];
+                transforms[row].setXY(x[i], y[i]);
+                physics[row].setIntegratedVelocity(vx[i], vy[i]);
+            }
+        }
+    }
+}
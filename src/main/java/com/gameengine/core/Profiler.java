@@ -0,0 +1,218 @@
+package com.gameengine.core;
+
+import com.gameengine.graphics.IRenderer;
+
+import java.util.Arrays;
+
+/**
+ * 命名区段性能分析器
+ * 每个区段在注册时分配固定长度的环形缓冲区，记录最近若干次的耗时（纳秒）
+ * begin/end 只做数组读写，不分配对象，可以在每帧的热路径上调用
+ */
+public class Profiler {
+    private static final int DEFAULT_CAPACITY = 120;
+    // 柱状图旁的数字每隔这么久重新格式化一次，绘制时不必每帧分配字符串
+    private static final long LABEL_REFRESH_NANOS = 500_000_000L;
+
+    private final int capacity;
+    private String[] names;
+    private long[][] samples;
+    private int[] writeIndex;
+    private int[] sampleCount;
+    private long[] startNanos;
+    private int spanCount;
+    private boolean enabled;
+    private boolean showOverlay;
+    private String[] averageLabels;
+    private long labelRefreshTime;
+
+    public Profiler() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * @param capacity 每个区段保留的样本数
+     */
+    public Profiler(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.names = new String[8];
+        this.samples = new long[8][];
+        this.writeIndex = new int[8];
+        this.sampleCount = new int[8];
+        this.startNanos = new long[8];
+        this.averageLabels = new String[8];
+        this.spanCount = 0;
+        this.enabled = true;
+        this.showOverlay = false;
+    }
+
+    /**
+     * 注册一个区段，同名区段只注册一次
+     * @return 区段编号，传给 begin/end 使用
+     */
+    public int registerSpan(String name) {
+        for (int i = 0; i < spanCount; i++) {
+            if (names[i].equals(name)) {
+                return i;
+            }
+        }
+        if (spanCount == names.length) {
+            int newLength = names.length * 2;
+            names = Arrays.copyOf(names, newLength);
+            samples = Arrays.copyOf(samples, newLength);
+            writeIndex = Arrays.copyOf(writeIndex, newLength);
+            sampleCount = Arrays.copyOf(sampleCount, newLength);
+            startNanos = Arrays.copyOf(startNanos, newLength);
+            averageLabels = Arrays.copyOf(averageLabels, newLength);
+        }
+        names[spanCount] = name;
+        samples[spanCount] = new long[capacity];
+        return spanCount++;
+    }
+
+    /**
+     * 开始计时
+     */
+    public void begin(int spanId) {
+        if (enabled) {
+            startNanos[spanId] = System.nanoTime();
+        }
+    }
+
+    /**
+     * 结束计时并记录
+     */
+    public void end(int spanId) {
+        if (enabled) {
+            record(spanId, System.nanoTime() - startNanos[spanId]);
+        }
+    }
+
+    /**
+     * 直接记录一次耗时
+     */
+    public void record(int spanId, long nanos) {
+        long[] buffer = samples[spanId];
+        buffer[writeIndex[spanId]] = nanos;
+        writeIndex[spanId] = (writeIndex[spanId] + 1) % capacity;
+        if (sampleCount[spanId] < capacity) {
+            sampleCount[spanId]++;
+        }
+    }
+
+    /**
+     * 获取区段最近一次的耗时（纳秒）
+     */
+    public long getLastNanos(int spanId) {
+        if (sampleCount[spanId] == 0) {
+            return 0;
+        }
+        return samples[spanId][(writeIndex[spanId] - 1 + capacity) % capacity];
+    }
+
+    /**
+     * 获取区段在缓冲区内的平均耗时（纳秒）
+     */
+    public double getAverageNanos(int spanId) {
+        int count = sampleCount[spanId];
+        if (count == 0) {
+            return 0.0;
+        }
+        long[] buffer = samples[spanId];
+        long sum = 0;
+        for (int i = 0; i < count; i++) {
+            sum += buffer[i];
+        }
+        return (double) sum / count;
+    }
+
+    /**
+     * 获取区段在缓冲区内的最大耗时（纳秒）
+     */
+    public long getMaxNanos(int spanId) {
+        int count = sampleCount[spanId];
+        long[] buffer = samples[spanId];
+        long max = 0;
+        for (int i = 0; i < count; i++) {
+            if (buffer[i] > max) {
+                max = buffer[i];
+            }
+        }
+        return max;
+    }
+
+    public int getSpanCount() {
+        return spanCount;
+    }
+
+    public String getSpanName(int spanId) {
+        return names[spanId];
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 切换柱状图显示
+     */
+    public void toggleOverlay() {
+        this.showOverlay = !this.showOverlay;
+    }
+
+    public boolean isShowOverlay() {
+        return showOverlay;
+    }
+
+    /**
+     * 绘制各区段平均耗时的柱状图（屏幕左侧，性能统计下方）
+     * 浅色为平均值，深色延伸到最大值
+     */
+    public void render(IRenderer renderer) {
+        if (!showOverlay || spanCount == 0) {
+            return;
+        }
+
+        float left = 20;
+        float top = 200;
+        float rowHeight = 18;
+        float labelWidth = 170;
+        float barMaxWidth = 200;
+
+        // 以最大的平均值作为满格，至少0.1毫秒
+        double scale = 100_000.0;
+        for (int i = 0; i < spanCount; i++) {
+            scale = Math.max(scale, getAverageNanos(i));
+        }
+
+        long now = System.nanoTime();
+        boolean refreshLabels = now - labelRefreshTime >= LABEL_REFRESH_NANOS;
+        if (refreshLabels) {
+            labelRefreshTime = now;
+        }
+
+        renderer.drawRect(left, top, labelWidth + barMaxWidth + 90, rowHeight * spanCount + 8,
+                          0.0f, 0.0f, 0.0f, 0.7f);
+        for (int i = 0; i < spanCount; i++) {
+            double average = getAverageNanos(i);
+            long max = getMaxNanos(i);
+            float y = top + 4 + rowHeight * i;
+            float barX = left + labelWidth;
+            float averageWidth = (float) (average / scale * barMaxWidth);
+            float maxWidth = (float) Math.min(barMaxWidth, max / scale * barMaxWidth);
+
+            renderer.drawRect(barX, y + 3, maxWidth, rowHeight - 6, 0.6f, 0.3f, 0.1f, 0.8f);
+            renderer.drawRect(barX, y + 3, averageWidth, rowHeight - 6, 1.0f, 0.7f, 0.2f, 1.0f);
+            renderer.drawText(names[i], left + 5, y + 13, 12, 1.0f, 1.0f, 1.0f, 1.0f);
+            if (refreshLabels || averageLabels[i] == null) {
+                averageLabels[i] = String.format("%.3f ms", average / 1_000_000.0);
+            }
+            renderer.drawText(averageLabels[i],
+                              barX + barMaxWidth + 8, y + 13, 12, 1.0f, 1.0f, 1.0f, 1.0f);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.gameengine.core;
+
+import java.util.Random;
+
+/**
+ * 随机数流
+ * 由一个主种子为每个系统派生独立的随机数生成器：
+ * 同一主种子、同一名称得到的序列完全相同，各系统之间的消耗互不影响
+ */
+public final class RandomStreams {
+    private final long seed;
+
+    public RandomStreams(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * 获取主种子
+     */
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * 为指定系统创建随机数生成器
+     * @param name 系统名称（如 "GameLogic"）
+     */
+    public Random create(String name) {
+        return new Random(deriveSeed(name));
+    }
+
+    /**
+     * 为指定系统派生子种子
+     */
+    public long deriveSeed(String name) {
+        return mix(seed ^ mix(name.hashCode()));
+    }
+
+    // SplitMix64 的混合函数，使相近的输入得到差异很大的输出
+    private static long mix(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,270 @@
+package com.gameengine.core;
+
+import com.gameengine.components.TransformComponent;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 均匀空间哈希网格（碰撞粗筛）
+ * 按固定边长把平面划分为格子，格子坐标经哈希映射到桶；每帧由 rebuild 或 clear/add/build 重新建立（计数排序，O(n)），
+ * 查询只检查与查询圆的包围盒相交的格子，碰撞检测的开销与附近对象的数量相关，而不是与对象总数相关
+ *
+ * 每个条目带有一个编号（通常是对象在来源列表中的下标），查询结果按编号从小到大排列，
+ * 因此“按列表顺序找第一个命中”的逻辑改用网格后结果不变
+ * 建立网格后可以被多个线程同时查询（每个线程使用各自的 Query）
+ */
+public class SpatialHashGrid {
+    private final float cellSize;
+    private final float inverseCellSize;
+
+    // 条目（按加入顺序）
+    private int count;
+    private GameObject[] objects;
+    private int[] ids;
+    private float[] xs;
+    private float[] ys;
+    private int[] cellXs;
+    private int[] cellYs;
+    private int[] buckets;
+
+    // 计数排序后的桶：sorted[bucketStart[b], bucketStart[b + 1]) 为落在桶 b 的条目
+    private int[] bucketStart;
+    private int[] sorted;
+    private int bucketMask;
+    private boolean built;
+
+    /**
+     * 查询结果（按编号从小到大），每个线程各用一个
+     */
+    public static final class Query {
+        private GameObject[] objects = new GameObject[16];
+        private int[] ids = new int[16];
+        private int size;
+
+        public int size() {
+            return size;
+        }
+
+        public GameObject getGameObject(int i) {
+            return objects[i];
+        }
+
+        public int getId(int i) {
+            return ids[i];
+        }
+
+        void clear() {
+            size = 0;
+        }
+
+        /**
+         * 按编号插入，保持有序（结果通常只有几个，插入排序足够）
+         */
+        void insert(GameObject object, int id) {
+            if (size == ids.length) {
+                objects = Arrays.copyOf(objects, size * 2);
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            int i = size++;
+            while (i > 0 && ids[i - 1] > id) {
+                objects[i] = objects[i - 1];
+                ids[i] = ids[i - 1];
+                i--;
+            }
+            objects[i] = object;
+            ids[i] = id;
+        }
+    }
+
+    /**
+     * @param cellSize 格子边长，通常取碰撞半径的两倍左右
+     */
+    public SpatialHashGrid(float cellSize) {
+        if (!(cellSize > 0)) {
+            throw new IllegalArgumentException("格子边长必须大于0: " + cellSize);
+        }
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1.0f / cellSize;
+        this.objects = new GameObject[16];
+        this.ids = new int[16];
+        this.xs = new float[16];
+        this.ys = new float[16];
+        this.cellXs = new int[16];
+        this.cellYs = new int[16];
+        this.buckets = new int[16];
+        this.sorted = new int[16];
+        this.bucketStart = new int[2];
+    }
+
+    public float getCellSize() {
+        return cellSize;
+    }
+
+    /**
+     * 条目数量
+     */
+    public int size() {
+        return count;
+    }
+
+    /**
+     * 清空条目，之后用 add 加入并调用 build
+     */
+    public void clear() {
+        Arrays.fill(objects, 0, count, null);
+        count = 0;
+        built = false;
+    }
+
+    /**
+     * 加入一个条目（调用 build 后才能查询）
+     */
+    public void add(GameObject object, int id, float x, float y) {
+        if (count == ids.length) {
+            int capacity = count * 2;
+            objects = Arrays.copyOf(objects, capacity);
+            ids = Arrays.copyOf(ids, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            cellXs = Arrays.copyOf(cellXs, capacity);
+            cellYs = Arrays.copyOf(cellYs, capacity);
+            buckets = Arrays.copyOf(buckets, capacity);
+            sorted = Arrays.copyOf(sorted, capacity);
+        }
+        int i = count++;
+        objects[i] = object;
+        ids[i] = id;
+        xs[i] = x;
+        ys[i] = y;
+        cellXs[i] = cellCoord(x);
+        cellYs[i] = cellCoord(y);
+        built = false;
+    }
+
+    /**
+     * 用列表中活跃且带有 TransformComponent 的对象重建网格，编号为对象在列表中的下标
+     */
+    public void rebuild(List<GameObject> source) {
+        clear();
+        for (int i = 0; i < source.size(); i++) {
+            GameObject object = source.get(i);
+            if (!object.isActive()) {
+                continue;
+            }
+            TransformComponent transform = object.getComponent(TransformComponent.class);
+            if (transform != null) {
+                add(object, i, transform.getX(), transform.getY());
+            }
+        }
+        build();
+    }
+
+    /**
+     * 按桶计数排序，建立查询结构
+     */
+    public void build() {
+        int bucketCount = Integer.highestOneBit(Math.max(1, count) * 2 - 1) << 1;
+        if (bucketStart.length < bucketCount + 1) {
+            bucketStart = new int[bucketCount + 1];
+        } else {
+            Arrays.fill(bucketStart, 0, bucketCount + 1, 0);
+        }
+        bucketMask = bucketCount - 1;
+
+        for (int i = 0; i < count; i++) {
+            int bucket = hash(cellXs[i], cellYs[i]) & bucketMask;
+            buckets[i] = bucket;
+            bucketStart[bucket + 1]++;
+        }
+        for (int b = 0; b < bucketCount; b++) {
+            bucketStart[b + 1] += bucketStart[b];
+        }
+        // 逐个放入（借用 bucketStart 作为写指针，放完后每个桶的起点右移到下一个桶的起点）
+        for (int i = 0; i < count; i++) {
+            sorted[bucketStart[buckets[i]]++] = i;
+        }
+        for (int b = bucketCount; b > 0; b--) {
+            bucketStart[b] = bucketStart[b - 1];
+        }
+        bucketStart[0] = 0;
+        built = true;
+    }
+
+    /**
+     * 查找与 (x, y) 距离小于 radius 的活跃条目中编号最小的一个
+     * @return 条目编号，没有时返回 -1
+     */
+    public int findFirst(float x, float y, float radius) {
+        checkBuilt();
+        float radiusSquared = radius * radius;
+        int best = -1;
+        int minCellX = cellCoord(x - radius);
+        int maxCellX = cellCoord(x + radius);
+        int minCellY = cellCoord(y - radius);
+        int maxCellY = cellCoord(y + radius);
+        for (int cy = minCellY; cy <= maxCellY; cy++) {
+            for (int cx = minCellX; cx <= maxCellX; cx++) {
+                int bucket = hash(cx, cy) & bucketMask;
+                for (int k = bucketStart[bucket], end = bucketStart[bucket + 1]; k < end; k++) {
+                    int i = sorted[k];
+                    if (cellXs[i] != cx || cellYs[i] != cy || (best >= 0 && ids[i] >= best)) {
+                        continue;
+                    }
+                    float dx = x - xs[i];
+                    float dy = y - ys[i];
+                    if (dx * dx + dy * dy < radiusSquared && objects[i].isActive()) {
+                        best = ids[i];
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * 查找与 (x, y) 距离小于 radius 的全部活跃条目，结果按编号从小到大写入 result
+     * @return 结果数量
+     */
+    public int query(float x, float y, float radius, Query result) {
+        checkBuilt();
+        result.clear();
+        float radiusSquared = radius * radius;
+        int minCellX = cellCoord(x - radius);
+        int maxCellX = cellCoord(x + radius);
+        int minCellY = cellCoord(y - radius);
+        int maxCellY = cellCoord(y + radius);
+        for (int cy = minCellY; cy <= maxCellY; cy++) {
+            for (int cx = minCellX; cx <= maxCellX; cx++) {
+                int bucket = hash(cx, cy) & bucketMask;
+                for (int k = bucketStart[bucket], end = bucketStart[bucket + 1]; k < end; k++) {
+                    int i = sorted[k];
+                    if (cellXs[i] != cx || cellYs[i] != cy) {
+                        continue;
+                    }
+                    float dx = x - xs[i];
+                    float dy = y - ys[i];
+                    if (dx * dx + dy * dy < radiusSquared && objects[i].isActive()) {
+                        result.insert(objects[i], ids[i]);
+                    }
+                }
+            }
+        }
+        return result.size();
+    }
+
+    private void checkBuilt() {
+        if (!built) {
+            throw new IllegalStateException("空间哈希网格尚未建立，请先调用 build 或 rebuild");
+        }
+    }
+
+    private int cellCoord(float v) {
+        return (int) Math.floor(v * inverseCellSize);
+    }
+
+    private static int hash(int cellX, int cellY) {
+        int h = cellX * 0x9E3779B1 ^ cellY * 0x85EBCA77;
+        return h ^ (h >>> 15);
+    }
+}
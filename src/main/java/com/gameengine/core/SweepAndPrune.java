@@ -0,0 +1,299 @@
+package com.gameengine.core;
+
+import java.util.Arrays;
+
+/**
+ * 扫掠剪枝（Sweep and Prune）碰撞粗筛
+ * 每个分组的条目各自按 x 坐标排序；对允许成对的两个分组做归并式扫描，只比较 x 方向距离小于碰撞半径的条目，
+ * 同一分组内部（例如敌人与敌人）不需要比较的组合不会被扫描
+ * 排序结果在帧之间保留：对象平滑移动时顺序几乎不变，每帧对上一帧的顺序做插入排序，接近 O(n)；
+ * 条目数量、条目对应的对象或分组变化时才整体重新排序
+ * 所有条目的碰撞范围相同（半径为 radius 的圆），因此包围区间左端点与右端点的顺序一致，每个分组只需维护一个有序数组
+ *
+ * 使用方法：每帧 begin(count)，对每个条目调用 set，再调用 findPairs；
+ * 配对按 (a, b) 从小到大排列（a < b），调用方按条目编号的约定（例如先玩家后敌人）即可得到与逐个比较相同的命中顺序
+ */
+public class SweepAndPrune {
+    private final float radius;
+    private final int[] groupMasks = new int[32];
+
+    private int count;
+    private GameObject[] objects = new GameObject[16];
+    private float[] xs = new float[16];
+    private float[] ys = new float[16];
+    private int[] groups = new int[16];
+    private boolean[] enabled = new boolean[16];
+
+    // 每个分组按 x 排好的条目与对应的 x（扫描时顺序读取）
+    private final int[][] orders = new int[32][];
+    private final float[][] sortedXs = new float[32][];
+    private final int[] groupSizes = new int[32];
+    private boolean orderValid;
+    private long[] sortKeys = new long[0];
+    private int swapCount;
+
+    // 配对：(a << 32) | b
+    private long[] pairs = new long[64];
+    private int pairCount;
+
+    /**
+     * @param radius 两个条目中心距离小于此值时成对
+     */
+    public SweepAndPrune(float radius) {
+        if (!(radius > 0)) {
+            throw new IllegalArgumentException("碰撞半径必须大于0: " + radius);
+        }
+        this.radius = radius;
+    }
+
+    /**
+     * 允许两个分组之间成对（分组为 0 到 31）；未设置的分组组合不会产生配对
+     */
+    public void setPairFilter(int groupA, int groupB) {
+        checkGroup(groupA);
+        checkGroup(groupB);
+        groupMasks[groupA] |= 1 << groupB;
+        groupMasks[groupB] |= 1 << groupA;
+    }
+
+    /**
+     * 开始新的一帧
+     * @param count 本帧的条目数量（与上一帧不同时整体重新排序）
+     */
+    public void begin(int count) {
+        if (count != this.count) {
+            orderValid = false;
+        }
+        if (count > objects.length) {
+            int capacity = Math.max(count, objects.length * 2);
+            objects = Arrays.copyOf(objects, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            groups = Arrays.copyOf(groups, capacity);
+            enabled = Arrays.copyOf(enabled, capacity);
+        }
+        for (int i = count; i < this.count; i++) {
+            objects[i] = null;
+        }
+        this.count = count;
+    }
+
+    /**
+     * 设置条目
+     * @param enabled 为 false 时条目保留在排序中但不参与配对（例如暂时不活跃的对象）
+     */
+    public void set(int entry, GameObject object, int group, float x, float y, boolean enabled) {
+        checkGroup(group);
+        if (objects[entry] != object || groups[entry] != group) {
+            objects[entry] = object;
+            orderValid = false;
+        }
+        groups[entry] = group;
+        xs[entry] = x;
+        ys[entry] = y;
+        this.enabled[entry] = enabled;
+    }
+
+    public GameObject getGameObject(int entry) {
+        return objects[entry];
+    }
+
+    /**
+     * 更新排序并生成本帧的全部配对
+     * @return 配对数量
+     */
+    public int findPairs() {
+        updateOrder();
+
+        pairCount = 0;
+        for (int groupA = 0; groupA < 32; groupA++) {
+            int mask = groupMasks[groupA];
+            if (mask == 0 || groupSizes[groupA] == 0) {
+                continue;
+            }
+            if ((mask & (1 << groupA)) != 0) {
+                sweepGroup(groupA);
+            }
+            for (int groupB = groupA + 1; groupB < 32; groupB++) {
+                if ((mask & (1 << groupB)) != 0 && groupSizes[groupB] != 0) {
+                    sweepGroups(groupA, groupB);
+                }
+            }
+        }
+        Arrays.sort(pairs, 0, pairCount);
+        return pairCount;
+    }
+
+    /**
+     * 同一分组内部的配对
+     */
+    private void sweepGroup(int group) {
+        int[] order = orders[group];
+        float[] sortedX = sortedXs[group];
+        int size = groupSizes[group];
+        for (int k = 0; k < size; k++) {
+            int a = order[k];
+            if (!enabled[a]) {
+                continue;
+            }
+            float ax = sortedX[k];
+            for (int m = k + 1; m < size; m++) {
+                float dx = sortedX[m] - ax;
+                if (dx >= radius) {
+                    break;
+                }
+                testPair(a, order[m], dx);
+            }
+        }
+    }
+
+    /**
+     * 两个分组之间的配对：A 从左到右扫描，B 中窗口的左端随之单调右移
+     */
+    private void sweepGroups(int groupA, int groupB) {
+        int[] orderA = orders[groupA];
+        float[] sortedA = sortedXs[groupA];
+        int sizeA = groupSizes[groupA];
+        int[] orderB = orders[groupB];
+        float[] sortedB = sortedXs[groupB];
+        int sizeB = groupSizes[groupB];
+        int start = 0;
+        for (int k = 0; k < sizeA; k++) {
+            int a = orderA[k];
+            if (!enabled[a]) {
+                continue;
+            }
+            float ax = sortedA[k];
+            while (start < sizeB && ax - sortedB[start] >= radius) {
+                start++;
+            }
+            for (int m = start; m < sizeB; m++) {
+                float dx = sortedB[m] - ax;
+                if (dx >= radius) {
+                    break;
+                }
+                testPair(a, orderB[m], dx);
+            }
+        }
+    }
+
+    /**
+     * dx 与精确检测使用同一个差值：|dx| >= radius 时距离一定不小于 radius，扫描可以据此提前结束
+     */
+    private void testPair(int a, int b, float dx) {
+        if (!enabled[b]) {
+            return;
+        }
+        float dy = ys[b] - ys[a];
+        if (dx * dx + dy * dy < radius * radius) {
+            addPair(Math.min(a, b), Math.max(a, b));
+        }
+    }
+
+    public int getPairCount() {
+        return pairCount;
+    }
+
+    /**
+     * 第 k 个配对中编号较小的条目
+     */
+    public int getPairA(int k) {
+        return (int) (pairs[k] >>> 32);
+    }
+
+    /**
+     * 第 k 个配对中编号较大的条目
+     */
+    public int getPairB(int k) {
+        return (int) pairs[k];
+    }
+
+    /**
+     * 上一次 findPairs 中插入排序的交换次数（整体重新排序时为 -1），用于观察帧间的顺序变化
+     */
+    public int getSwapCount() {
+        return swapCount;
+    }
+
+    private void addPair(int a, int b) {
+        if (pairCount == pairs.length) {
+            pairs = Arrays.copyOf(pairs, pairCount * 2);
+        }
+        pairs[pairCount++] = ((long) a << 32) | b;
+    }
+
+    private void updateOrder() {
+        if (!orderValid) {
+            sortAll();
+            orderValid = true;
+            swapCount = -1;
+            return;
+        }
+
+        // 上一帧的顺序基本有序，插入排序只移动位置交换过的条目
+        int swaps = 0;
+        for (int group = 0; group < 32; group++) {
+            int[] order = orders[group];
+            float[] sortedX = sortedXs[group];
+            int size = groupSizes[group];
+            for (int k = 0; k < size; k++) {
+                sortedX[k] = xs[order[k]];
+            }
+            for (int k = 1; k < size; k++) {
+                int entry = order[k];
+                float x = sortedX[k];
+                int m = k - 1;
+                while (m >= 0 && sortedX[m] > x) {
+                    order[m + 1] = order[m];
+                    sortedX[m + 1] = sortedX[m];
+                    m--;
+                    swaps++;
+                }
+                order[m + 1] = entry;
+                sortedX[m + 1] = x;
+            }
+        }
+        swapCount = swaps;
+    }
+
+    /**
+     * 整体排序：把可比较的 float 位与条目编号打包成 long 排序，再按顺序分到各个分组
+     */
+    private void sortAll() {
+        if (sortKeys.length < count) {
+            sortKeys = new long[objects.length];
+        }
+        Arrays.fill(groupSizes, 0);
+        for (int i = 0; i < count; i++) {
+            groupSizes[groups[i]]++;
+            int bits = Float.floatToIntBits(xs[i]);
+            // 负数翻转除符号位以外的位，使整数顺序与浮点数顺序一致
+            int key = bits < 0 ? bits ^ Integer.MAX_VALUE : bits;
+            sortKeys[i] = ((long) key << 32) | i;
+        }
+        Arrays.sort(sortKeys, 0, count);
+
+        for (int group = 0; group < 32; group++) {
+            int size = groupSizes[group];
+            if (orders[group] == null || orders[group].length < size) {
+                orders[group] = new int[Math.max(16, size)];
+                sortedXs[group] = new float[Math.max(16, size)];
+            }
+            groupSizes[group] = 0;
+        }
+        // 按 x 的顺序依次放入各自的分组，分组内仍然有序
+        for (int k = 0; k < count; k++) {
+            int entry = (int) sortKeys[k];
+            int group = groups[entry];
+            int index = groupSizes[group]++;
+            orders[group][index] = entry;
+            sortedXs[group][index] = xs[entry];
+        }
+    }
+
+    private static void checkGroup(int group) {
+        if (group < 0 || group >= 32) {
+            throw new IllegalArgumentException("分组必须在0到31之间: " + group);
+        }
+    }
+}
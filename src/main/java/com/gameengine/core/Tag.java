@@ -0,0 +1,76 @@
+package com.gameengine.core;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 游戏对象标签
+ * 同名标签只创建一次（驻留），每个标签占用位掩码中的一位，比较时只需比较引用或位
+ */
+public final class Tag {
+    /**
+     * 标签数量上限（对应 long 位掩码的位数）
+     */
+    public static final int MAX_TAGS = 64;
+
+    private static final Map<String, Tag> TAGS = new HashMap<>();
+
+    // 游戏对象身份
+    public static final Tag PLAYER = of("Player");
+    public static final Tag ENEMY = of("Enemy");
+    public static final Tag PLAYER_SKILL = of("Player Skill");
+    public static final Tag ENEMY_SKILL = of("Enemy Skill");
+    // 敌人国王（身份仍为 Enemy）
+    public static final Tag ENEMY_KING = of("EnemyKing");
+
+    private final String name;
+    private final int id;
+    private final long mask;
+
+    private Tag(String name, int id) {
+        this.name = name;
+        this.id = id;
+        this.mask = 1L << id;
+    }
+
+    /**
+     * 获取指定名称的标签，不存在时创建
+     */
+    public static synchronized Tag of(String name) {
+        if (name == null || name.isEmpty()) {
+            throw new IllegalArgumentException("标签名称不能为空");
+        }
+        Tag tag = TAGS.get(name);
+        if (tag == null) {
+            if (TAGS.size() >= MAX_TAGS) {
+                throw new IllegalStateException("标签数量超过上限: " + MAX_TAGS);
+            }
+            tag = new Tag(name, TAGS.size());
+            TAGS.put(name, tag);
+        }
+        return tag;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 标签编号（0 到 MAX_TAGS-1）
+     */
+    public int getId() {
+        return id;
+    }
+
+    /**
+     * 标签对应的位
+     */
+    public long getMask() {
+        return mask;
+    }
+
+    @Override
+    public String toString() {
+        return name;
+    }
+}
@@ -0,0 +1,135 @@
+package com.gameengine.core;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 按标签分桶的游戏对象索引
+ * 对象加入/离开场景以及增删标签时增量维护，删除时用桶内最后一个对象填补空位
+ * get 返回桶的只读视图，按下标遍历不产生分配
+ */
+public final class TagIndex {
+    private final Bucket[] buckets;
+
+    public TagIndex() {
+        this.buckets = new Bucket[Tag.MAX_TAGS];
+    }
+
+    /**
+     * 加入游戏对象（已在本索引中则忽略）
+     */
+    public void add(GameObject gameObject) {
+        if (gameObject.tagIndex == this) {
+            return;
+        }
+        if (gameObject.tagIndex != null) {
+            gameObject.tagIndex.remove(gameObject);
+        }
+        if (gameObject.tagRows == null) {
+            gameObject.tagRows = new int[Tag.MAX_TAGS];
+            Arrays.fill(gameObject.tagRows, -1);
+        }
+        gameObject.tagIndex = this;
+        insert(gameObject, gameObject.getTagMask());
+    }
+
+    /**
+     * 移除游戏对象（不在本索引中则忽略）
+     */
+    public void remove(GameObject gameObject) {
+        if (gameObject.tagIndex != this) {
+            return;
+        }
+        delete(gameObject, gameObject.getTagMask());
+        gameObject.tagIndex = null;
+    }
+
+    /**
+     * 标签变化后调整对象所在的桶
+     */
+    void update(GameObject gameObject, long oldMask) {
+        long newMask = gameObject.getTagMask();
+        delete(gameObject, oldMask & ~newMask);
+        insert(gameObject, newMask & ~oldMask);
+    }
+
+    /**
+     * 获取带有指定标签的全部对象（只读，随场景更新而变化）
+     */
+    public List<GameObject> get(Tag tag) {
+        Bucket bucket = buckets[tag.getId()];
+        return bucket != null ? bucket.view : Collections.emptyList();
+    }
+
+    private void insert(GameObject gameObject, long bits) {
+        while (bits != 0) {
+            int id = Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            if (buckets[id] == null) {
+                buckets[id] = new Bucket(id);
+            }
+            gameObject.tagRows[id] = buckets[id].add(gameObject);
+        }
+    }
+
+    private void delete(GameObject gameObject, long bits) {
+        while (bits != 0) {
+            int id = Long.numberOfTrailingZeros(bits);
+            bits &= bits - 1;
+            buckets[id].remove(gameObject.tagRows[id]);
+            gameObject.tagRows[id] = -1;
+        }
+    }
+
+    /**
+     * 单个标签的对象桶
+     */
+    private static final class Bucket {
+        private final int tagId;
+        private GameObject[] objects;
+        private int size;
+        private final List<GameObject> view;
+
+        Bucket(int tagId) {
+            this.tagId = tagId;
+            this.objects = new GameObject[16];
+            this.view = new View();
+        }
+
+        int add(GameObject gameObject) {
+            if (size == objects.length) {
+                objects = Arrays.copyOf(objects, size * 2);
+            }
+            objects[size] = gameObject;
+            return size++;
+        }
+
+        void remove(int row) {
+            int last = --size;
+            if (row != last) {
+                GameObject moved = objects[last];
+                objects[row] = moved;
+                moved.tagRows[tagId] = row;
+            }
+            objects[last] = null;
+        }
+
+        private final class View extends AbstractList<GameObject> implements RandomAccess {
+            @Override
+            public GameObject get(int index) {
+                if (index >= size) {
+                    throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+                }
+                return objects[index];
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package com.gameengine.graphics;
+
+import java.util.Arrays;
+
+/**
+ * 一帧的绘制快照
+ * 把场景渲染时发出的绘制调用按顺序压缩存放在基本类型数组中（操作码 + 参数），
+ * 发布后只读，由渲染线程回放到真正的渲染器上
+ * 数组按需扩容并在帧之间复用，稳定运行后不再分配
+ */
+public final class FrameSnapshot {
+    static final byte OP_RECT = 0;
+    static final byte OP_CIRCLE = 1;
+    static final byte OP_LINE = 2;
+    static final byte OP_TEXT = 3;
+    static final byte OP_HEALTH_BAR = 4;
+
+    private byte[] ops;
+    private int opCount;
+    private float[] floats;
+    private int floatCount;
+    private int[] ints;
+    private int intCount;
+    private String[] texts;
+    private int textCount;
+    private long sequence;
+
+    FrameSnapshot() {
+        this.ops = new byte[256];
+        this.floats = new float[256 * 8];
+        this.ints = new int[256];
+        this.texts = new String[64];
+    }
+
+    /**
+     * 清空快照，准备记录新的一帧
+     */
+    void clear(long sequence) {
+        // 释放对文字的引用
+        for (int i = 0; i < textCount; i++) {
+            texts[i] = null;
+        }
+        opCount = 0;
+        floatCount = 0;
+        intCount = 0;
+        textCount = 0;
+        this.sequence = sequence;
+    }
+
+    void addRect(float x, float y, float width, float height, float r, float g, float b, float a) {
+        addOp(OP_RECT);
+        addFloats8(x, y, width, height, r, g, b, a);
+    }
+
+    void addCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+        addOp(OP_CIRCLE);
+        addFloats8(x, y, radius, r, g, b, a, 0);
+        addInt(segments);
+    }
+
+    void addLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        addOp(OP_LINE);
+        addFloats8(x1, y1, x2, y2, r, g, b, a);
+    }
+
+    void addText(String text, float x, float y, float size, float r, float g, float b, float a) {
+        addOp(OP_TEXT);
+        addFloats8(x, y, size, r, g, b, a, 0);
+        if (textCount == texts.length) {
+            texts = Arrays.copyOf(texts, texts.length * 2);
+        }
+        texts[textCount++] = text;
+    }
+
+    void addHealthBar(float x, float y, float width, float height, int currentHealth, int maxHealth) {
+        addOp(OP_HEALTH_BAR);
+        addFloats8(x, y, width, height, 0, 0, 0, 0);
+        addInt(currentHealth);
+        addInt(maxHealth);
+    }
+
+    /**
+     * 按记录顺序把所有绘制调用回放到目标渲染器
+     */
+    public void replay(IRenderer target) {
+        int f = 0;
+        int n = 0;
+        int t = 0;
+        for (int i = 0; i < opCount; i++) {
+            switch (ops[i]) {
+                case OP_RECT:
+                    target.drawRect(floats[f], floats[f + 1], floats[f + 2], floats[f + 3],
+                                    floats[f + 4], floats[f + 5], floats[f + 6], floats[f + 7]);
+                    break;
+                case OP_CIRCLE:
+                    target.drawCircle(floats[f], floats[f + 1], floats[f + 2], ints[n++],
+                                      floats[f + 3], floats[f + 4], floats[f + 5], floats[f + 6]);
+                    break;
+                case OP_LINE:
+                    target.drawLine(floats[f], floats[f + 1], floats[f + 2], floats[f + 3],
+                                    floats[f + 4], floats[f + 5], floats[f + 6], floats[f + 7]);
+                    break;
+                case OP_TEXT:
+                    target.drawText(texts[t++], floats[f], floats[f + 1], floats[f + 2],
+                                    floats[f + 3], floats[f + 4], floats[f + 5], floats[f + 6]);
+                    break;
+                case OP_HEALTH_BAR:
+                    target.drawHealthBar(floats[f], floats[f + 1], floats[f + 2], floats[f + 3],
+                                         ints[n], ints[n + 1]);
+                    n += 2;
+                    break;
+                default:
+                    break;
+            }
+            f += 8;
+        }
+    }
+
+    /**
+     * 获取绘制调用数量
+     */
+    public int getCommandCount() {
+        return opCount;
+    }
+
+    /**
+     * 获取快照序号（单调递增）
+     */
+    public long getSequence() {
+        return sequence;
+    }
+
+    private void addOp(byte op) {
+        if (opCount == ops.length) {
+            ops = Arrays.copyOf(ops, ops.length * 2);
+        }
+        ops[opCount++] = op;
+    }
+
+    private void addFloats8(float a0, float a1, float a2, float a3, float a4, float a5, float a6, float a7) {
+        if (floatCount + 8 > floats.length) {
+            floats = Arrays.copyOf(floats, floats.length * 2);
+        }
+        float[] buffer = floats;
+        int i = floatCount;
+        buffer[i] = a0;
+        buffer[i + 1] = a1;
+        buffer[i + 2] = a2;
+        buffer[i + 3] = a3;
+        buffer[i + 4] = a4;
+        buffer[i + 5] = a5;
+        buffer[i + 6] = a6;
+        buffer[i + 7] = a7;
+        floatCount = i + 8;
+    }
+
+    private void addInt(int value) {
+        if (intCount == ints.length) {
+            ints = Arrays.copyOf(ints, ints.length * 2);
+        }
+        ints[intCount++] = value;
+    }
+}
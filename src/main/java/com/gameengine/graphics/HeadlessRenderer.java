@@ -0,0 +1,156 @@
+package com.gameengine.graphics;
+
+import com.gameengine.input.InputManager;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * 无窗口渲染器
+ * 所有绘制调用均为空操作，用于服务器模拟、压力测试、AI训练和基准测试
+ * 输入通过代码注入，在 pollEvents 时统一派发给 InputManager（与 GLFW 回调时机一致）
+ */
+public class HeadlessRenderer implements IRenderer {
+    private int width;
+    private int height;
+    private String title;
+    private InputManager inputManager;
+    private Queue<Runnable> pendingEvents;
+    private Consumer<HeadlessRenderer> inputSource;
+    private volatile boolean closeRequested;
+    private long frameCount;
+
+    public HeadlessRenderer(int width, int height, String title) {
+        this.width = width;
+        this.height = height;
+        this.title = title;
+        this.inputManager = InputManager.getInstance();
+        this.pendingEvents = new ConcurrentLinkedQueue<>();
+        this.inputSource = null;
+        this.closeRequested = false;
+        this.frameCount = 0;
+    }
+
+    @Override
+    public void beginFrame() {
+    }
+
+    @Override
+    public void endFrame() {
+        frameCount++;
+    }
+
+    @Override
+    public void drawRect(float x, float y, float width, float height, float r, float g, float b, float a) {
+    }
+
+    @Override
+    public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+    }
+
+    @Override
+    public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, float size, float r, float g, float b, float a) {
+    }
+
+    @Override
+    public void drawHealthBar(float x, float y, float width, float height, int currentHealth, int maxHealth) {
+    }
+
+    @Override
+    public boolean shouldClose() {
+        return closeRequested;
+    }
+
+    @Override
+    public void pollEvents() {
+        // 先让输入源产生本帧的输入，再按顺序派发
+        if (inputSource != null) {
+            inputSource.accept(this);
+        }
+        Runnable event;
+        while ((event = pendingEvents.poll()) != null) {
+            event.run();
+        }
+    }
+
+    @Override
+    public void cleanup() {
+        pendingEvents.clear();
+    }
+
+    /**
+     * 设置输入源，每次 pollEvents 时调用一次，可在其中调用 pressKey 等方法
+     */
+    public void setInputSource(Consumer<HeadlessRenderer> inputSource) {
+        this.inputSource = inputSource;
+    }
+
+    /**
+     * 模拟按下按键
+     */
+    public void pressKey(int keyCode) {
+        pendingEvents.add(() -> inputManager.onKeyPressed(keyCode));
+    }
+
+    /**
+     * 模拟释放按键
+     */
+    public void releaseKey(int keyCode) {
+        pendingEvents.add(() -> inputManager.onKeyReleased(keyCode));
+    }
+
+    /**
+     * 模拟鼠标移动
+     */
+    public void moveMouse(float x, float y) {
+        pendingEvents.add(() -> inputManager.onMouseMoved(x, y));
+    }
+
+    /**
+     * 模拟按下鼠标按键
+     */
+    public void pressMouse(int button) {
+        pendingEvents.add(() -> inputManager.onMousePressed(button));
+    }
+
+    /**
+     * 模拟释放鼠标按键
+     */
+    public void releaseMouse(int button) {
+        pendingEvents.add(() -> inputManager.onMouseReleased(button));
+    }
+
+    /**
+     * 请求关闭（等价于关闭窗口）
+     */
+    public void requestClose() {
+        this.closeRequested = true;
+    }
+
+    /**
+     * 获取已结束的帧数
+     */
+    public long getFrameCount() {
+        return frameCount;
+    }
+
+    @Override
+    public int getWidth() {
+        return width;
+    }
+
+    @Override
+    public int getHeight() {
+        return height;
+    }
+
+    @Override
+    public String getTitle() {
+        return title;
+    }
+}
@@ -0,0 +1,119 @@
+package com.gameengine.graphics;
+
+/**
+ * 流水线渲染器
+ * 模拟线程上的场景照常调用绘制接口，但调用只被记录到 FrameSnapshot 中；
+ * endFrame 时发布快照，渲染线程（持有 OpenGL 上下文的线程）取最新快照回放到真正的渲染器
+ * 采用三缓冲：模拟线程写一份、渲染线程读一份、中间待取一份，双方互不等待
+ */
+public class PipelinedRenderer implements IRenderer {
+    private final IRenderer target;
+    private FrameSnapshot writing;
+    private FrameSnapshot pending;
+    private FrameSnapshot reading;
+    private boolean fresh;
+    private long sequence;
+
+    public PipelinedRenderer(IRenderer target) {
+        this.target = target;
+        this.writing = new FrameSnapshot();
+        this.pending = new FrameSnapshot();
+        this.reading = new FrameSnapshot();
+        this.fresh = false;
+        this.sequence = 0;
+    }
+
+    @Override
+    public void beginFrame() {
+        writing.clear(++sequence);
+    }
+
+    @Override
+    public void endFrame() {
+        publish();
+    }
+
+    private synchronized void publish() {
+        FrameSnapshot published = writing;
+        writing = pending;
+        pending = published;
+        fresh = true;
+    }
+
+    /**
+     * 取出最新发布的快照（渲染线程调用）
+     * @return 自上次调用以来有新快照则返回它，否则返回 null
+     */
+    public synchronized FrameSnapshot acquireLatest() {
+        if (!fresh) {
+            return null;
+        }
+        FrameSnapshot latest = pending;
+        pending = reading;
+        reading = latest;
+        fresh = false;
+        return latest;
+    }
+
+    /**
+     * 获取被包装的真正渲染器
+     */
+    public IRenderer getTarget() {
+        return target;
+    }
+
+    @Override
+    public void drawRect(float x, float y, float width, float height, float r, float g, float b, float a) {
+        writing.addRect(x, y, width, height, r, g, b, a);
+    }
+
+    @Override
+    public void drawCircle(float x, float y, float radius, int segments, float r, float g, float b, float a) {
+        writing.addCircle(x, y, radius, segments, r, g, b, a);
+    }
+
+    @Override
+    public void drawLine(float x1, float y1, float x2, float y2, float r, float g, float b, float a) {
+        writing.addLine(x1, y1, x2, y2, r, g, b, a);
+    }
+
+    @Override
+    public void drawText(String text, float x, float y, float size, float r, float g, float b, float a) {
+        writing.addText(text, x, y, size, r, g, b, a);
+    }
+
+    @Override
+    public void drawHealthBar(float x, float y, float width, float height, int currentHealth, int maxHealth) {
+        writing.addHealthBar(x, y, width, height, currentHealth, maxHealth);
+    }
+
+    @Override
+    public boolean shouldClose() {
+        return target.shouldClose();
+    }
+
+    @Override
+    public void pollEvents() {
+        // 事件由渲染线程在回放前处理
+    }
+
+    @Override
+    public void cleanup() {
+        // 真正的渲染器由渲染线程在退出时清理
+    }
+
+    @Override
+    public int getWidth() {
+        return target.getWidth();
+    }
+
+    @Override
+    public int getHeight() {
+        return target.getHeight();
+    }
+
+    @Override
+    public String getTitle() {
+        return target.getTitle();
+    }
+}
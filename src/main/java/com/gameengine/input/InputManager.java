@@ -1,33 +1,52 @@
 package com.gameengine.input;
 
 import com.gameengine.math.Vector2;
+import java.util.Arrays;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeSet;
 
 /**
  * 输入管理器，处理键盘和鼠标输入
+ * 流水线模式下事件在渲染线程写入、在模拟线程读取，因此公开方法均加锁
+ * 输入状态分为两份：事件只写入实时状态，游戏代码读取的是本次模拟的冻结状态
+ * 模拟线程在每次模拟开始时调用 beginTick，把实时状态复制为冻结状态，并换入之后到达的“刚按下”边沿；
+ * 同一次模拟中所有读取（包括工作线程上的系统、录制与回放）看到的都是同一份状态，
+ * 模拟进行中到达的事件留到下一次模拟，不会被读到一半，也不会在本次模拟结束时被清除而丢失
  */
 public class InputManager {
     private static InputManager instance;
+    // 本次模拟的冻结状态（游戏代码读取）
     private Set<Integer> pressedKeys;
     private Set<Integer> justPressedKeys;
-    private Map<Integer, Boolean> keyStates;
     private Vector2 mousePosition;
     private boolean[] mouseButtons;
     private boolean[] mouseButtonsJustPressed;
+    // 实时状态（窗口事件写入）
+    private Set<Integer> livePressedKeys;
+    private Set<Integer> pendingJustPressedKeys;
+    private Map<Integer, Boolean> keyStates;
+    private Vector2 liveMousePosition;
+    private boolean[] liveMouseButtons;
+    private boolean[] pendingMouseButtonsJustPressed;
     
     private InputManager() {
         pressedKeys = new HashSet<>();
         justPressedKeys = new HashSet<>();
-        keyStates = new HashMap<>();
         mousePosition = new Vector2();
         mouseButtons = new boolean[3]; // 左键、右键、中键
         mouseButtonsJustPressed = new boolean[3];
+        livePressedKeys = new HashSet<>();
+        pendingJustPressedKeys = new HashSet<>();
+        keyStates = new HashMap<>();
+        liveMousePosition = new Vector2();
+        liveMouseButtons = new boolean[3];
+        pendingMouseButtonsJustPressed = new boolean[3];
     }
     
-    public static InputManager getInstance() {
+    public static synchronized InputManager getInstance() {
         if (instance == null) {
             instance = new InputManager();
         }
@@ -35,9 +54,29 @@ public class InputManager {
     }
     
     /**
-     * 更新输入状态
+     * 开始一次模拟：冻结当前的实时状态，并换入上次模拟之后到达的“刚按下”事件，本次模拟中读取的都是这一份
+     */
+    public synchronized void beginTick() {
+        pressedKeys.clear();
+        pressedKeys.addAll(livePressedKeys);
+        mousePosition.x = liveMousePosition.x;
+        mousePosition.y = liveMousePosition.y;
+        System.arraycopy(liveMouseButtons, 0, mouseButtons, 0, mouseButtons.length);
+
+        Set<Integer> keys = justPressedKeys;
+        keys.clear();
+        justPressedKeys = pendingJustPressedKeys;
+        pendingJustPressedKeys = keys;
+        for (int i = 0; i < mouseButtonsJustPressed.length; i++) {
+            mouseButtonsJustPressed[i] = pendingMouseButtonsJustPressed[i];
+            pendingMouseButtonsJustPressed[i] = false;
+        }
+    }
+
+    /**
+     * 结束一次模拟：清除本次模拟的“刚按下”状态（在场景update之后）
      */
-    public void update() {
+    public synchronized void update() {
         justPressedKeys.clear();
         for (int i = 0; i < mouseButtonsJustPressed.length; i++) {
             mouseButtonsJustPressed[i] = false;
@@ -47,69 +86,69 @@ public class InputManager {
     /**
      * 处理键盘按下事件
      */
-    public void onKeyPressed(int keyCode) {
-        if (!pressedKeys.contains(keyCode)) {
-            justPressedKeys.add(keyCode);
+    public synchronized void onKeyPressed(int keyCode) {
+        if (!livePressedKeys.contains(keyCode)) {
+            pendingJustPressedKeys.add(keyCode);
         }
-        pressedKeys.add(keyCode);
+        livePressedKeys.add(keyCode);
         keyStates.put(keyCode, true);
     }
     
     /**
      * 处理键盘释放事件
      */
-    public void onKeyReleased(int keyCode) {
-        pressedKeys.remove(keyCode);
+    public synchronized void onKeyReleased(int keyCode) {
+        livePressedKeys.remove(keyCode);
         keyStates.put(keyCode, false);
     }
     
     /**
      * 处理鼠标移动事件
      */
-    public void onMouseMoved(float x, float y) {
-        mousePosition.x = x;
-        mousePosition.y = y;
+    public synchronized void onMouseMoved(float x, float y) {
+        liveMousePosition.x = x;
+        liveMousePosition.y = y;
     }
     
     /**
      * 处理鼠标按下事件
      */
-    public void onMousePressed(int button) {
+    public synchronized void onMousePressed(int button) {
         if (button >= 0 && button < mouseButtons.length) {
-            if (!mouseButtons[button]) {
-                mouseButtonsJustPressed[button] = true;
+            if (!liveMouseButtons[button]) {
+                pendingMouseButtonsJustPressed[button] = true;
             }
-            mouseButtons[button] = true;
+            liveMouseButtons[button] = true;
         }
     }
     
     /**
      * 处理鼠标释放事件
      */
-    public void onMouseReleased(int button) {
-        if (button >= 0 && button < mouseButtons.length) {
-            mouseButtons[button] = false;
+    public synchronized void onMouseReleased(int button) {
+        if (button >= 0 && button < liveMouseButtons.length) {
+            liveMouseButtons[button] = false;
         }
     }
     
     /**
      * 检查按键是否被按下
      */
-    public boolean isKeyPressed(int keyCode) {
+    public synchronized boolean isKeyPressed(int keyCode) {
         return pressedKeys.contains(keyCode);
     }
     
     /**
      * 检查按键是否刚刚被按下（只在这一帧为true）
      */
-    public boolean isKeyJustPressed(int keyCode) {
+    public synchronized boolean isKeyJustPressed(int keyCode) {
         return justPressedKeys.contains(keyCode);
     }
     
     /**
      * 检查鼠标按键是否被按下
      */
-    public boolean isMouseButtonPressed(int button) {
+    public synchronized boolean isMouseButtonPressed(int button) {
         if (button >= 0 && button < mouseButtons.length) {
             return mouseButtons[button];
         }
@@ -119,7 +158,7 @@ public class InputManager {
     /**
      * 检查鼠标按键是否刚刚被按下
      */
-    public boolean isMouseButtonJustPressed(int button) {
+    public synchronized boolean isMouseButtonJustPressed(int button) {
         if (button >= 0 && button < mouseButtons.length) {
             return mouseButtonsJustPressed[button];
         }
@@ -129,21 +168,105 @@ public class InputManager {
     /**
      * 获取鼠标位置
      */
-    public Vector2 getMousePosition() {
+    public synchronized Vector2 getMousePosition() {
         return new Vector2(mousePosition);
     }
     
     /**
      * 获取鼠标X坐标
      */
-    public float getMouseX() {
+    public synchronized float getMouseX() {
         return mousePosition.x;
     }
     
     /**
      * 获取鼠标Y坐标
      */
-    public float getMouseY() {
+    public synchronized float getMouseY() {
         return mousePosition.y;
     }
+
+    /**
+     * 把本次模拟的输入状态编码为一行文本
+     * 格式: 按下的键|刚按下的键|鼠标x,鼠标y|鼠标按键位|刚按下的鼠标按键位
+     * 按键按编号排序，同一状态总是得到同一编码
+     */
+    public synchronized String encodeState() {
+        StringBuilder builder = new StringBuilder();
+        appendKeys(builder, pressedKeys);
+        builder.append('|');
+        appendKeys(builder, justPressedKeys);
+        builder.append('|').append(mousePosition.x).append(',').append(mousePosition.y);
+        builder.append('|').append(toBits(mouseButtons));
+        builder.append('|').append(toBits(mouseButtonsJustPressed));
+        return builder.toString();
+    }
+
+    /**
+     * 用编码的状态覆盖本次模拟的输入状态（确定性回放时使用）
+     * 只修改冻结状态，回放期间到达的窗口事件不会影响本次模拟
+     */
+    public synchronized void restoreState(String encoded) {
+        String[] parts = encoded.split("\\|", -1);
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("无效的输入状态: " + encoded);
+        }
+        pressedKeys.clear();
+        justPressedKeys.clear();
+        parseKeys(parts[0], pressedKeys);
+        parseKeys(parts[1], justPressedKeys);
+        String[] mouse = parts[2].split(",");
+        mousePosition.x = Float.parseFloat(mouse[0]);
+        mousePosition.y = Float.parseFloat(mouse[1]);
+        fromBits(Integer.parseInt(parts[3]), mouseButtons);
+        fromBits(Integer.parseInt(parts[4]), mouseButtonsJustPressed);
+    }
+
+    /**
+     * 清空本次模拟的输入状态（回放到第一条录制之前时使用）
+     */
+    public synchronized void clearTickState() {
+        pressedKeys.clear();
+        justPressedKeys.clear();
+        mousePosition.x = 0;
+        mousePosition.y = 0;
+        Arrays.fill(mouseButtons, false);
+        Arrays.fill(mouseButtonsJustPressed, false);
+    }
+
+    private static void appendKeys(StringBuilder builder, Set<Integer> keys) {
+        boolean first = true;
+        for (Integer key : new TreeSet<>(keys)) {
+            if (!first) {
+                builder.append(',');
+            }
+            builder.append(key);
+            first = false;
+        }
+    }
+
+    private static void parseKeys(String text, Set<Integer> keys) {
+        if (text.isEmpty()) {
+            return;
+        }
+        for (String key : text.split(",")) {
+            keys.add(Integer.parseInt(key));
+        }
+    }
+
+    private static int toBits(boolean[] buttons) {
+        int bits = 0;
+        for (int i = 0; i < buttons.length; i++) {
+            if (buttons[i]) {
+                bits |= 1 << i;
+            }
+        }
+        return bits;
+    }
+
+    private static void fromBits(int bits, boolean[] buttons) {
+        for (int i = 0; i < buttons.length; i++) {
+            buttons[i] = (bits & (1 << i)) != 0;
+        }
+    }
 }
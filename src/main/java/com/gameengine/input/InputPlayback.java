@@ -0,0 +1,108 @@
+package com.gameengine.input;
+
+import java.io.BufferedReader;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 确定性回放：读取 InputRecorder 写出的文件，按模拟序号还原输入状态
+ * 配合相同的种子与模拟频率，回放结果与录制时逐位一致
+ */
+public class InputPlayback {
+    private final long seed;
+    private final float tickRate;
+    private final long[] ticks;
+    private final String[] states;
+    private int cursor;
+
+    private InputPlayback(long seed, float tickRate, long[] ticks, String[] states) {
+        this.seed = seed;
+        this.tickRate = tickRate;
+        this.ticks = ticks;
+        this.states = states;
+        this.cursor = -1;
+    }
+
+    /**
+     * 判断文件是否为确定性录制
+     */
+    public static boolean isLockstepRecording(String path) {
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            String header = reader.readLine();
+            return header != null && header.startsWith(InputRecorder.HEADER);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    /**
+     * 加载确定性录制文件
+     */
+    public static InputPlayback load(String path) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new FileReader(path))) {
+            String header = reader.readLine();
+            if (header == null || !header.startsWith(InputRecorder.HEADER)) {
+                throw new IOException("不是确定性录制文件: " + path);
+            }
+            long seed = 0;
+            float tickRate = 60.0f;
+            for (String field : header.substring(InputRecorder.HEADER.length()).trim().split(" ")) {
+                if (field.startsWith("seed=")) {
+                    seed = Long.parseLong(field.substring(5));
+                } else if (field.startsWith("tickRate=")) {
+                    tickRate = Float.parseFloat(field.substring(9));
+                }
+            }
+
+            List<Long> tickList = new ArrayList<>();
+            List<String> stateList = new ArrayList<>();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                int space = line.indexOf(' ');
+                if (space <= 0) {
+                    continue;
+                }
+                tickList.add(Long.parseLong(line.substring(0, space)));
+                stateList.add(line.substring(space + 1));
+            }
+
+            long[] ticks = new long[tickList.size()];
+            for (int i = 0; i < ticks.length; i++) {
+                ticks[i] = tickList.get(i);
+            }
+            return new InputPlayback(seed, tickRate, ticks, stateList.toArray(new String[0]));
+        }
+    }
+
+    /**
+     * 把第 tick 次模拟的输入状态写入输入管理器（tick 需单调递增）
+     */
+    public void apply(long tick, InputManager inputManager) {
+        while (cursor + 1 < ticks.length && ticks[cursor + 1] <= tick) {
+            cursor++;
+        }
+        if (cursor >= 0) {
+            inputManager.restoreState(states[cursor]);
+        } else {
+            // 录制开始之前没有输入，不能沿用回放时真实的键盘状态
+            inputManager.clearTickState();
+        }
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public float getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * 获取录制中最后一次输入变化的模拟序号
+     */
+    public long getLastTick() {
+        return ticks.length > 0 ? ticks[ticks.length - 1] : 0;
+    }
+}
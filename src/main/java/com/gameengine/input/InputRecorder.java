@@ -0,0 +1,51 @@
+package com.gameengine.input;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileWriter;
+import java.io.IOException;
+
+/**
+ * 确定性录制：只记录随机种子与每次模拟开始时的输入状态
+ * 输入状态与上一次相同时不写入，文件大小只与输入变化次数有关
+ * 文件格式:
+ *   #lockstep seed=种子 tickRate=模拟频率
+ *   模拟序号 输入状态（见 InputManager.encodeState）
+ */
+public class InputRecorder implements Closeable {
+    public static final String HEADER = "#lockstep";
+
+    private final BufferedWriter writer;
+    private String lastState;
+
+    public InputRecorder(String path, long seed, float tickRate) throws IOException {
+        this.writer = new BufferedWriter(new FileWriter(path));
+        writer.write(HEADER + " seed=" + seed + " tickRate=" + tickRate);
+        writer.newLine();
+        writer.flush();
+    }
+
+    /**
+     * 记录第 tick 次模拟看到的输入状态
+     */
+    public void record(long tick, InputManager inputManager) {
+        String state = inputManager.encodeState();
+        if (state.equals(lastState)) {
+            return;
+        }
+        lastState = state;
+        try {
+            writer.write(tick + " " + state);
+            writer.newLine();
+            // 只在输入变化时写入，直接刷新以免异常退出时丢失
+            writer.flush();
+        } catch (IOException e) {
+            System.err.println("写入输入录制时出错: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+}
@@ -0,0 +1,105 @@
+package com.gameengine.math;
+
+/**
+ * 作用在连续 float 数组上的批量计算（物理积分、边界反弹、粒子更新）
+ * 两种实现：ScalarKernels 逐元素计算；VectorKernels 使用 jdk.incubator.vector 按 SIMD 通道批量计算
+ * 两种实现的每一步运算顺序相同（不使用乘加融合），结果逐位一致，确定性模式下可以任意切换
+ *
+ * get() 在运行时选择：JVM 以 --add-modules jdk.incubator.vector 启动且硬件至少有4个 float 通道时使用向量实现，
+ * 否则使用标量实现；可用 -Dgameengine.simd=false 强制使用标量实现
+ */
+public abstract class Kernels {
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+    private static final String VECTOR_IMPL = "com.gameengine.math.VectorKernels";
+
+    private static final Kernels SCALAR = new ScalarKernels();
+    private static final Kernels PREFERRED = selectPreferred();
+
+    /**
+     * 运行时选择的实现
+     */
+    public static Kernels get() {
+        return PREFERRED;
+    }
+
+    /**
+     * 标量实现
+     */
+    public static Kernels scalar() {
+        return SCALAR;
+    }
+
+    /**
+     * 向量实现，不可用时返回 null
+     */
+    public static Kernels vector() {
+        return PREFERRED != SCALAR ? PREFERRED : loadVector();
+    }
+
+    private static Kernels selectPreferred() {
+        if (!Boolean.parseBoolean(System.getProperty("gameengine.simd", "true"))) {
+            return SCALAR;
+        }
+        Kernels vector = loadVector();
+        return vector != null ? vector : SCALAR;
+    }
+
+    /**
+     * 只有模块存在时才加载向量实现，避免在没有该模块的 JVM 上触发类加载错误
+     */
+    private static Kernels loadVector() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            Kernels kernels = (Kernels) Class.forName(VECTOR_IMPL).getDeclaredConstructor().newInstance();
+            return kernels.getLaneCount() >= 4 ? kernels : null;
+        } catch (ReflectiveOperationException | LinkageError e) {
+            System.err.println("向量计算不可用，使用标量实现: " + e);
+            return null;
+        }
+    }
+
+    /**
+     * 实现名称（scalar 或 vector）
+     */
+    public abstract String getName();
+
+    /**
+     * 每次运算处理的 float 数量（标量实现为1）
+     */
+    public abstract int getLaneCount();
+
+    /**
+     * 前 n 个元素按整条向量处理、其余按标量处理的比例，用于观察通道利用率
+     */
+    public float getLaneUtilization(int n) {
+        int lanes = getLaneCount();
+        if (n <= 0 || lanes <= 1) {
+            return 0f;
+        }
+        return (float) (n - n % lanes) / n;
+    }
+
+    /**
+     * 对前 n 个物体积分一次：
+     * 加速度 = a + g；速度 = (v + 加速度 * dt) * friction（绝对值低于 restVelocity 时置零）；位置 += 速度 * dt；之后清空 a
+     */
+    public abstract void integrate(float[] x, float[] y, float[] vx, float[] vy,
+                                   float[] ax, float[] ay, float[] gx, float[] gy,
+                                   float[] friction, int n, float deltaTime, float restVelocity);
+
+    /**
+     * 边界反弹：位置到达或越过边界时对应方向的速度反向，位置限制在 [min, max] 内
+     */
+    public abstract void resolveBounds(float[] x, float[] y, float[] vx, float[] vy, int n,
+                                       float minX, float minY, float maxX, float maxY);
+
+    /**
+     * 更新前 n 个粒子：位置 += 速度 * dt，寿命 -= dt；
+     * 仍存活的粒子透明度 = 寿命 / 最大寿命，速度乘以 damping（绝对值低于 restVelocity 时置零）
+     */
+    public abstract void updateParticles(float[] x, float[] y, float[] vx, float[] vy,
+                                         float[] life, float[] maxLife, float[] alpha,
+                                         int n, float deltaTime, float damping, float restVelocity);
+}
@@ -0,0 +1,94 @@
+package com.gameengine.math;
+
+/**
+ * 逐元素计算的实现，也用于向量实现处理不足一条向量的尾部
+ */
+final class ScalarKernels extends Kernels {
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+
+    @Override
+    public int getLaneCount() {
+        return 1;
+    }
+
+    @Override
+    public void integrate(float[] x, float[] y, float[] vx, float[] vy,
+                          float[] ax, float[] ay, float[] gx, float[] gy,
+                          float[] friction, int n, float deltaTime, float restVelocity) {
+        integrateRange(x, y, vx, vy, ax, ay, gx, gy, friction, 0, n, deltaTime, restVelocity);
+    }
+
+    static void integrateRange(float[] x, float[] y, float[] vx, float[] vy,
+                               float[] ax, float[] ay, float[] gx, float[] gy,
+                               float[] friction, int from, int to, float deltaTime, float restVelocity) {
+        for (int i = from; i < to; i++) {
+            float accelerationX = ax[i] + gx[i];
+            float accelerationY = ay[i] + gy[i];
+            float velocityX = (vx[i] + accelerationX * deltaTime) * friction[i];
+            float velocityY = (vy[i] + accelerationY * deltaTime) * friction[i];
+            if (Math.abs(velocityX) < restVelocity) {
+                velocityX = 0;
+            }
+            if (Math.abs(velocityY) < restVelocity) {
+                velocityY = 0;
+            }
+            vx[i] = velocityX;
+            vy[i] = velocityY;
+            x[i] += velocityX * deltaTime;
+            y[i] += velocityY * deltaTime;
+            ax[i] = 0;
+            ay[i] = 0;
+        }
+    }
+
+    @Override
+    public void resolveBounds(float[] x, float[] y, float[] vx, float[] vy, int n,
+                              float minX, float minY, float maxX, float maxY) {
+        resolveBoundsRange(x, y, vx, vy, 0, n, minX, minY, maxX, maxY);
+    }
+
+    static void resolveBoundsRange(float[] x, float[] y, float[] vx, float[] vy, int from, int to,
+                                   float minX, float minY, float maxX, float maxY) {
+        for (int i = from; i < to; i++) {
+            float px = x[i];
+            float py = y[i];
+            if (px <= minX || px >= maxX) {
+                vx[i] = -vx[i];
+            }
+            if (py <= minY || py >= maxY) {
+                vy[i] = -vy[i];
+            }
+            x[i] = Math.min(Math.max(px, minX), maxX);
+            y[i] = Math.min(Math.max(py, minY), maxY);
+        }
+    }
+
+    @Override
+    public void updateParticles(float[] x, float[] y, float[] vx, float[] vy,
+                                float[] life, float[] maxLife, float[] alpha,
+                                int n, float deltaTime, float damping, float restVelocity) {
+        updateParticlesRange(x, y, vx, vy, life, maxLife, alpha, 0, n, deltaTime, damping, restVelocity);
+    }
+
+    static void updateParticlesRange(float[] x, float[] y, float[] vx, float[] vy,
+                                     float[] life, float[] maxLife, float[] alpha,
+                                     int from, int to, float deltaTime, float damping, float restVelocity) {
+        for (int i = from; i < to; i++) {
+            x[i] += vx[i] * deltaTime;
+            y[i] += vy[i] * deltaTime;
+            float remaining = life[i] - deltaTime;
+            life[i] = remaining;
+            if (remaining > 0) {
+                alpha[i] = remaining / maxLife[i];
+                float velocityX = vx[i] * damping;
+                float velocityY = vy[i] * damping;
+                vx[i] = Math.abs(velocityX) < restVelocity ? 0 : velocityX;
+                vy[i] = Math.abs(velocityY) < restVelocity ? 0 : velocityY;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.gameengine.math;
 
 /**
  * 2D向量类，用于表示位置、速度等
+ * add/subtract/multiply/normalize 返回新向量；以 Local 结尾的方法原地修改并返回自身，热路径中使用以避免分配
  */
 public class Vector2 {
     public float x;
@@ -21,6 +22,86 @@ public class Vector2 {
         this.y = other.y;
     }
     
+    public float getX() {
+        return x;
+    }
+
+    public float getY() {
+        return y;
+    }
+
+    /**
+     * 设置分量
+     */
+    public Vector2 set(float x, float y) {
+        this.x = x;
+        this.y = y;
+        return this;
+    }
+
+    /**
+     * 复制另一个向量的分量
+     */
+    public Vector2 set(Vector2 other) {
+        this.x = other.x;
+        this.y = other.y;
+        return this;
+    }
+
+    /**
+     * 原地加法
+     */
+    public Vector2 addLocal(Vector2 other) {
+        this.x += other.x;
+        this.y += other.y;
+        return this;
+    }
+
+    public Vector2 addLocal(float x, float y) {
+        this.x += x;
+        this.y += y;
+        return this;
+    }
+
+    /**
+     * 原地加上 other * scalar
+     */
+    public Vector2 addScaledLocal(Vector2 other, float scalar) {
+        this.x += other.x * scalar;
+        this.y += other.y * scalar;
+        return this;
+    }
+
+    /**
+     * 原地减法
+     */
+    public Vector2 subtractLocal(Vector2 other) {
+        this.x -= other.x;
+        this.y -= other.y;
+        return this;
+    }
+
+    /**
+     * 原地标量乘法
+     */
+    public Vector2 scaleLocal(float scalar) {
+        this.x *= scalar;
+        this.y *= scalar;
+        return this;
+    }
+
+    /**
+     * 原地标准化（零向量保持不变）
+     */
+    public Vector2 normalizeLocal() {
+        float mag = magnitude();
+        if (mag != 0) {
+            this.x /= mag;
+            this.y /= mag;
+        }
+        return this;
+    }
+
     /**
      * 向量加法
      */
@@ -69,19 +150,44 @@ public class Vector2 {
      * 计算距离
      */
     public float distance(Vector2 other) {
-        return this.subtract(other).magnitude();
+        float dx = this.x - other.x;
+        float dy = this.y - other.y;
+        return (float) Math.sqrt(dx * dx + dy * dy);
+    }
+
+    /**
+     * 计算距离的平方（只比较远近时不需要开方）
+     */
+    public float distanceSquared(Vector2 other) {
+        float dx = this.x - other.x;
+        float dy = this.y - other.y;
+        return dx * dx + dy * dy;
     }
 
     /**
      * 计算方向(-pi到pi)
      */
     public float angle() {
-        float angle = (float) Math.atan2(this.y, this.x);
+        return angle(this.x, this.y);
+    }
+
+    /**
+     * 计算 (x, y) 的方向，与 angle() 相同但不需要向量对象
+     */
+    public static float angle(float x, float y) {
+        float angle = (float) Math.atan2(y, x);
         if (angle < 0) {
             angle += 2 * Math.PI;
         }
         return angle;
     }
+
+    /**
+     * 计算 (x, y) 的长度
+     */
+    public static float magnitude(float x, float y) {
+        return (float) Math.sqrt(x * x + y * y);
+    }
     
     @Override
     public String toString() {
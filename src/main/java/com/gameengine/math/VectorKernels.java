@@ -0,0 +1,104 @@
+package com.gameengine.math;
+
+import jdk.incubator.vector.FloatVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * 使用 jdk.incubator.vector 的实现：按硬件首选宽度（AVX2 为8个、AVX-512 为16个 float）批量计算，
+ * 不足一条向量的尾部交给 ScalarKernels
+ * 只能由 Kernels 在确认模块存在后通过反射加载，其他类不要直接引用
+ */
+final class VectorKernels extends Kernels {
+    private static final VectorSpecies<Float> SPECIES = FloatVector.SPECIES_PREFERRED;
+
+    @Override
+    public String getName() {
+        return "vector";
+    }
+
+    @Override
+    public int getLaneCount() {
+        return SPECIES.length();
+    }
+
+    @Override
+    public void integrate(float[] x, float[] y, float[] vx, float[] vy,
+                          float[] ax, float[] ay, float[] gx, float[] gy,
+                          float[] friction, int n, float deltaTime, float restVelocity) {
+        FloatVector zero = FloatVector.zero(SPECIES);
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector f = FloatVector.fromArray(SPECIES, friction, i);
+
+            FloatVector velocityX = FloatVector.fromArray(SPECIES, vx, i)
+                    .add(FloatVector.fromArray(SPECIES, ax, i).add(FloatVector.fromArray(SPECIES, gx, i)).mul(deltaTime))
+                    .mul(f);
+            velocityX = velocityX.blend(zero, velocityX.abs().lt(restVelocity));
+            velocityX.intoArray(vx, i);
+            FloatVector.fromArray(SPECIES, x, i).add(velocityX.mul(deltaTime)).intoArray(x, i);
+
+            FloatVector velocityY = FloatVector.fromArray(SPECIES, vy, i)
+                    .add(FloatVector.fromArray(SPECIES, ay, i).add(FloatVector.fromArray(SPECIES, gy, i)).mul(deltaTime))
+                    .mul(f);
+            velocityY = velocityY.blend(zero, velocityY.abs().lt(restVelocity));
+            velocityY.intoArray(vy, i);
+            FloatVector.fromArray(SPECIES, y, i).add(velocityY.mul(deltaTime)).intoArray(y, i);
+
+            zero.intoArray(ax, i);
+            zero.intoArray(ay, i);
+        }
+        ScalarKernels.integrateRange(x, y, vx, vy, ax, ay, gx, gy, friction, i, n, deltaTime, restVelocity);
+    }
+
+    @Override
+    public void resolveBounds(float[] x, float[] y, float[] vx, float[] vy, int n,
+                              float minX, float minY, float maxX, float maxY) {
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector px = FloatVector.fromArray(SPECIES, x, i);
+            VectorMask<Float> hitX = px.compare(VectorOperators.LE, minX).or(px.compare(VectorOperators.GE, maxX));
+            FloatVector.fromArray(SPECIES, vx, i).lanewise(VectorOperators.NEG, hitX).intoArray(vx, i);
+            px.max(minX).min(maxX).intoArray(x, i);
+
+            FloatVector py = FloatVector.fromArray(SPECIES, y, i);
+            VectorMask<Float> hitY = py.compare(VectorOperators.LE, minY).or(py.compare(VectorOperators.GE, maxY));
+            FloatVector.fromArray(SPECIES, vy, i).lanewise(VectorOperators.NEG, hitY).intoArray(vy, i);
+            py.max(minY).min(maxY).intoArray(y, i);
+        }
+        ScalarKernels.resolveBoundsRange(x, y, vx, vy, i, n, minX, minY, maxX, maxY);
+    }
+
+    @Override
+    public void updateParticles(float[] x, float[] y, float[] vx, float[] vy,
+                                float[] life, float[] maxLife, float[] alpha,
+                                int n, float deltaTime, float damping, float restVelocity) {
+        FloatVector zero = FloatVector.zero(SPECIES);
+        int bound = SPECIES.loopBound(n);
+        int i = 0;
+        for (; i < bound; i += SPECIES.length()) {
+            FloatVector velocityX = FloatVector.fromArray(SPECIES, vx, i);
+            FloatVector velocityY = FloatVector.fromArray(SPECIES, vy, i);
+            FloatVector.fromArray(SPECIES, x, i).add(velocityX.mul(deltaTime)).intoArray(x, i);
+            FloatVector.fromArray(SPECIES, y, i).add(velocityY.mul(deltaTime)).intoArray(y, i);
+
+            FloatVector remaining = FloatVector.fromArray(SPECIES, life, i).sub(deltaTime);
+            remaining.intoArray(life, i);
+            VectorMask<Float> alive = remaining.compare(VectorOperators.GT, 0f);
+
+            FloatVector.fromArray(SPECIES, alpha, i)
+                    .blend(remaining.div(FloatVector.fromArray(SPECIES, maxLife, i)), alive)
+                    .intoArray(alpha, i);
+            FloatVector dampedX = velocityX.mul(damping);
+            dampedX = dampedX.blend(zero, dampedX.abs().lt(restVelocity));
+            velocityX.blend(dampedX, alive).intoArray(vx, i);
+            FloatVector dampedY = velocityY.mul(damping);
+            dampedY = dampedY.blend(zero, dampedY.abs().lt(restVelocity));
+            velocityY.blend(dampedY, alive).intoArray(vy, i);
+        }
+        ScalarKernels.updateParticlesRange(x, y, vx, vy, life, maxLife, alpha, i, n, deltaTime, damping, restVelocity);
+    }
+}
@@ -1,30 +1,55 @@
 package com.gameengine.scene;
 
+import com.gameengine.core.ArchetypeStorage;
+import com.gameengine.core.EntityQuery;
 import com.gameengine.core.GameObject;
+import com.gameengine.core.Tag;
+import com.gameengine.core.TagIndex;
 import com.gameengine.core.Component;
 // 移除具体游戏逻辑的import
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.function.Consumer;
 
 /**
  * 场景类，管理游戏对象和组件
  */
 public class Scene {
+    /**
+     * 批量移除对象时的压缩方式
+     */
+    public enum RemovalMode {
+        // 保持剩余对象的相对顺序（渲染与遍历顺序不变）
+        STABLE,
+        // 用末尾对象填补空位，移动更少但会打乱顺序
+        SWAP
+    }
+
     private String name;
-    private List<GameObject> gameObjects;
-    private List<GameObject> objectsToAdd;
+    private final ArrayList<GameObject> gameObjects;
+    // gameObjects 的只读视图（同一实例反复返回）
+    private final List<GameObject> gameObjectsView;
+    // 结构版本：gameObjects 每次增删加一，遍历过程中发生变化即判定为并发修改
+    private int structureVersion;
+    private ArrayList<GameObject> objectsToAdd;
     private List<GameObject> objectsToRemove;
+    private RemovalMode removalMode = RemovalMode.STABLE;
     private boolean initialized;
     private float time;
-    // 移除未使用的组件索引
+    private float renderAlpha = 1.0f;
+    // 按组件组合紧凑存放的组件索引，供多组件查询使用
+    private final ArchetypeStorage storage;
+    // 按标签分桶的对象索引
+    private final TagIndex tags;
     
     public Scene(String name) {
         this.name = name;
         this.gameObjects = new ArrayList<>();
+        this.gameObjectsView = Collections.unmodifiableList(gameObjects);
         this.objectsToAdd = new ArrayList<>();
         this.objectsToRemove = new ArrayList<>();
         this.initialized = false;
-        // 移除组件索引初始化
+        this.storage = new ArchetypeStorage();
+        this.tags = new TagIndex();
     }
     
     /**
@@ -36,36 +61,126 @@ public class Scene {
         }
         initialized = true;
     }
+
+    /**
+     * 场景结束（被其他场景替换或引擎停止）时调用，用于归还场景借用的引擎设置等
+     */
+    public void exit() {
+    }
     
     /**
      * 更新场景
      */
     public void update(float deltaTime) {
-        // 添加新对象
-        for (GameObject obj : objectsToAdd) {
+        // 进入新的一帧，本帧内的组件修改都记录为该帧号
+        storage.advanceChangeTick();
+        
+        // 添加新对象（先按新增数量扩容，避免逐个加入时反复扩容）
+        gameObjects.ensureCapacity(gameObjects.size() + objectsToAdd.size());
+        for (int i = 0; i < objectsToAdd.size(); i++) {
+            GameObject obj = objectsToAdd.get(i);
+            // 对象池中刚归还又被取出的对象可能仍在场景中
+            if (storage.contains(obj)) {
+                continue;
+            }
             gameObjects.add(obj);
+            structureVersion++;
+            storage.add(obj);
+            tags.add(obj);
             if (initialized) {
                 obj.initialize();
             }
         }
         objectsToAdd.clear();
         
-        // 移除标记的对象
-        for (GameObject obj : objectsToRemove) {
-            gameObjects.remove(obj);
+        // 移除标记的对象：先逐个脱离索引，再一次压缩对象列表
+        boolean removed = false;
+        for (int i = 0; i < objectsToRemove.size(); i++) {
+            removed |= detach(objectsToRemove.get(i));
         }
         objectsToRemove.clear();
+        if (removed) {
+            compact();
+        }
+        
+        // 保存上一次模拟的状态，用于渲染插值
+        for (GameObject obj : gameObjects) {
+            if (obj.isActive()) {
+                obj.savePreviousState();
+            }
+        }
         
-        // 更新所有活跃的游戏对象
-        Iterator<GameObject> iterator = gameObjects.iterator();
-        while (iterator.hasNext()) {
-            GameObject obj = iterator.next();
+        // 更新所有活跃的游戏对象，不活跃的对象脱离索引后统一压缩移除
+        boolean inactive = false;
+        for (int i = 0; i < gameObjects.size(); i++) {
+            GameObject obj = gameObjects.get(i);
             if (obj.isActive()) {
                 obj.update(deltaTime);
             } else {
-                iterator.remove();
+                inactive |= detach(obj);
             }
         }
+        if (inactive) {
+            compact();
+        }
+    }
+
+    /**
+     * 对象脱离原型存储与标签索引
+     * @return 对象原本是否在场景中
+     */
+    private boolean detach(GameObject obj) {
+        if (!storage.contains(obj)) {
+            return false;
+        }
+        storage.remove(obj);
+        tags.remove(obj);
+        return true;
+    }
+
+    /**
+     * 一次遍历移除列表中所有已脱离场景的对象，整体为 O(n)
+     */
+    private void compact() {
+        int size = gameObjects.size();
+        int kept;
+        if (removalMode == RemovalMode.STABLE) {
+            kept = 0;
+            for (int i = 0; i < size; i++) {
+                GameObject obj = gameObjects.get(i);
+                if (storage.contains(obj)) {
+                    gameObjects.set(kept++, obj);
+                }
+            }
+        } else {
+            kept = size;
+            int i = 0;
+            while (i < kept) {
+                if (storage.contains(gameObjects.get(i))) {
+                    i++;
+                } else {
+                    gameObjects.set(i, gameObjects.get(--kept));
+                }
+            }
+        }
+        if (kept < size) {
+            gameObjects.subList(kept, size).clear();
+            structureVersion++;
+        }
+    }
+
+    /**
+     * 设置批量移除对象时的压缩方式（默认 STABLE）
+     */
+    public void setRemovalMode(RemovalMode removalMode) {
+        if (removalMode == null) {
+            throw new IllegalArgumentException("移除方式不能为空");
+        }
+        this.removalMode = removalMode;
+    }
+
+    public RemovalMode getRemovalMode() {
+        return removalMode;
     }
     
     /**
@@ -79,6 +194,22 @@ public class Scene {
         }
     }
 
+    /**
+     * 按插值系数渲染场景
+     * @param alpha 当前时刻位于上一次与本次模拟之间的比例（0到1）
+     */
+    public void render(float alpha) {
+        this.renderAlpha = alpha;
+        render();
+    }
+
+    /**
+     * 获取本次渲染使用的插值系数
+     */
+    public float getRenderAlpha() {
+        return renderAlpha;
+    }
+
     public float getTime() {
         return this.time;
     }
@@ -89,31 +220,115 @@ public class Scene {
     public void addGameObject(GameObject gameObject) {
         objectsToAdd.add(gameObject);
     }
+
+    /**
+     * 批量添加游戏对象（下一次 update 时加入场景）
+     */
+    public void addGameObjects(Collection<? extends GameObject> gameObjects) {
+        objectsToAdd.addAll(gameObjects);
+    }
+
+    /**
+     * 从场景移除游戏对象（下一次 update 时与其他待移除对象一起批量移除）
+     */
+    public void removeGameObject(GameObject gameObject) {
+        objectsToRemove.add(gameObject);
+    }
+
+    /**
+     * 预留容量：预计场景将包含 capacity 个对象时提前扩容，批量加入时不再逐步扩容
+     */
+    public void ensureCapacity(int capacity) {
+        gameObjects.ensureCapacity(capacity);
+        objectsToAdd.ensureCapacity(capacity - gameObjects.size());
+    }
+    
+    /**
+     * 对象是否已在场景中（不包括尚未经过 update 加入的对象）
+     */
+    public boolean contains(GameObject gameObject) {
+        return storage.contains(gameObject);
+    }
     
     /**
      * 根据组件类型查找游戏对象
+     * 返回场景维护的只读视图，随 update 中的增删自动变化，不要在遍历时更新场景
      */
     public <T extends Component<T>> List<GameObject> findGameObjectsByComponent(Class<T> componentType) {
-        return gameObjects.stream()
-            .filter(obj -> obj.hasComponent(componentType))
-            .collect(Collectors.toList());
+        return storage.index(componentType).getGameObjects();
     }
     
     /**
      * 获取所有具有指定组件的游戏对象
+     * 返回场景维护的只读视图，与 findGameObjectsByComponent 下标一一对应
      */
     public <T extends Component<T>> List<T> getComponents(Class<T> componentType) {
-        return findGameObjectsByComponent(componentType).stream()
-            .map(obj -> obj.getComponent(componentType))
-            .filter(Objects::nonNull)
-            .collect(Collectors.toList());
+        return storage.index(componentType).getComponents();
     }
     
+    /**
+     * 获取当前帧号（每次 update 加一），配合 findGameObjectsChangedSince 使用
+     */
+    public int getChangeTick() {
+        return storage.getChangeTick();
+    }
+
+    /**
+     * 查找第 tick 帧之后（不含）有组件修改或新加入场景的对象
+     * 调用方记下本次处理时的 getChangeTick()，下次以它为参数即可只处理变化的对象
+     */
+    public List<GameObject> findGameObjectsChangedSince(int tick) {
+        List<GameObject> result = new ArrayList<>();
+        for (int i = 0; i < gameObjects.size(); i++) {
+            GameObject obj = gameObjects.get(i);
+            if (obj.isChangedSince(tick)) {
+                result.add(obj);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 获取第 tick 帧之后（不含）修改过的指定类型组件
+     */
+    public <T extends Component<T>> List<T> getComponentsChangedSince(Class<T> componentType, int tick) {
+        List<T> components = getComponents(componentType);
+        List<T> result = new ArrayList<>();
+        for (int i = 0; i < components.size(); i++) {
+            T component = components.get(i);
+            if (component.isChangedSince(tick)) {
+                result.add(component);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 获取带有指定标签的游戏对象
+     * 返回场景维护的只读视图，可能包含本帧刚失活、下次 update 才移除的对象
+     */
+    public List<GameObject> findGameObjectsByTag(Tag tag) {
+        return tags.get(tag);
+    }
+    
+    /**
+     * 获取同时拥有全部指定组件的对象查询
+     * 查询由场景缓存并随对象增删自动更新，可长期持有
+     */
+    public EntityQuery query(Class<?>... componentTypes) {
+        return storage.query(componentTypes);
+    }
+
     /**
      * 清空场景
      */
     public void clear() {
+        storage.clear();
+        for (GameObject obj : gameObjects) {
+            tags.remove(obj);
+        }
         gameObjects.clear();
+        structureVersion++;
         objectsToAdd.clear();
         objectsToRemove.clear();
     }
@@ -126,11 +341,57 @@ public class Scene {
     }
     
     /**
-     * 获取所有游戏对象
+     * 获取所有游戏对象的副本
+     * 每帧遍历请使用 getGameObjectsView 或 forEachGameObject，避免复制
      */
     public List<GameObject> getGameObjects() {
         return new ArrayList<>(gameObjects);
     }
+
+    /**
+     * 获取所有游戏对象的只读视图（不复制）
+     * 视图随场景更新而变化；迭代器在场景结构变化后抛出 ConcurrentModificationException
+     */
+    public List<GameObject> getGameObjectsView() {
+        return gameObjectsView;
+    }
+
+    /**
+     * 按顺序遍历所有游戏对象，不产生分配
+     * 回调中不能直接增删场景对象（请使用 addGameObject 等延迟接口），否则抛出 ConcurrentModificationException
+     */
+    public void forEachGameObject(Consumer<? super GameObject> action) {
+        int version = structureVersion;
+        int size = gameObjects.size();
+        for (int i = 0; i < size; i++) {
+            action.accept(gameObjects.get(i));
+            if (structureVersion != version) {
+                throw new ConcurrentModificationException("遍历过程中场景对象发生了增删");
+            }
+        }
+    }
+
+    /**
+     * 场景对象数量
+     */
+    public int getGameObjectCount() {
+        return gameObjects.size();
+    }
+
+    /**
+     * 获取第 index 个场景对象
+     */
+    public GameObject getGameObject(int index) {
+        return gameObjects.get(index);
+    }
+
+    /**
+     * 获取结构版本，场景对象每次增删都会改变
+     * 跨帧持有视图或下标时，可以用它判断内容是否已经变化
+     */
+    public int getStructureVersion() {
+        return structureVersion;
+    }
     
     // 移除具体游戏逻辑，让子类实现
 }
\ No newline at end of file
@@ -0,0 +1,302 @@
+package com.gameengine.core;
+
+import com.gameengine.components.LifeFeatureComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.graphics.RenderBackend;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 碰撞结果与粗筛方式、串行/并行无关：
+ * 同一种子的场景分别用三种粗筛方式串行与并行运行，世界状态的哈希必须相同；
+ * 同时检查网格查询按编号排序、扫掠剪枝的配对按编号排序，这是“按列表顺序找第一个命中”成立的前提
+ */
+class CollisionDeterminismTest {
+    private static final float WORLD_WIDTH = 1600;
+    private static final float WORLD_HEIGHT = 1200;
+    private static final float TICK = 1.0f / 60.0f;
+    private static final int TICKS = 50;
+
+    private static GameEngine engine;
+
+    @BeforeAll
+    static void createEngine() {
+        engine = new GameEngine((int) WORLD_WIDTH, (int) WORLD_HEIGHT, "collision-test", RenderBackend.HEADLESS);
+    }
+
+    @AfterAll
+    static void shutdownEngine() {
+        engine.getJobSystem().shutdown();
+    }
+
+    @Test
+    void broadphasesAgreeSerialAndParallel() {
+        for (int enemyCount : new int[] {10, 1000, 3000}) {
+            Result expected = simulate(GameLogic.Broadphase.NESTED_LOOPS, false, enemyCount);
+            // 场景足够密集，确实发生了命中
+            assertTrue(expected.playerHits > 0 && expected.enemyHits > 0,
+                    "敌人数量 " + enemyCount + " 时没有发生碰撞");
+            for (GameLogic.Broadphase broadphase : GameLogic.Broadphase.values()) {
+                for (boolean parallel : new boolean[] {false, true}) {
+                    Result actual = simulate(broadphase, parallel, enemyCount);
+                    String label = broadphase + (parallel ? " 并行" : " 串行") + "，敌人数量 " + enemyCount;
+                    assertEquals(expected.hash, actual.hash, label);
+                    assertEquals(expected.playerHits, actual.playerHits, label);
+                    assertEquals(expected.enemyHits, actual.enemyHits, label);
+                }
+            }
+        }
+    }
+
+    @Test
+    void firstEnemyInListOrderHitsPlayer() {
+        Scene scene = new Scene("first-hit");
+        Random random = new Random(1);
+        GameObject player = createEntity("Player", 100, 100, 100, random);
+        player.setPlayer();
+        // 后加入的敌人更近，但命中的是列表中靠前的一个：玩家只被处理一次
+        GameObject first = createEntity("Enemy 0", 110, 100, 100, random);
+        first.setEnemy();
+        GameObject second = createEntity("Enemy 1", 101, 100, 100, random);
+        second.setEnemy();
+        scene.addGameObject(player);
+        scene.addGameObject(first);
+        scene.addGameObject(second);
+        scene.update(0);
+
+        for (GameLogic.Broadphase broadphase : GameLogic.Broadphase.values()) {
+            for (boolean parallel : new boolean[] {false, true}) {
+                player.getComponent(TransformComponent.class).setXY(100, 100);
+                player.getComponent(LifeFeatureComponent.class).blood = 100;
+                GameLogic logic = new GameLogic(scene, engine, new Random(2));
+                logic.setBroadphase(broadphase);
+                collide(logic, parallel);
+                TransformComponent transform = player.getComponent(TransformComponent.class);
+                assertEquals(800, transform.getX(), broadphase.toString());
+                assertEquals(600, transform.getY(), broadphase.toString());
+                assertEquals(90, player.getComponent(LifeFeatureComponent.class).blood, broadphase.toString());
+            }
+        }
+    }
+
+    @Test
+    void spatialHashQueriesSortedById() {
+        Random random = new Random(3);
+        List<GameObject> objects = new ArrayList<>();
+        for (int i = 0; i < 2000; i++) {
+            // 一部分对象重叠在同一位置
+            float x = i % 10 == 0 ? 400 : random.nextFloat() * WORLD_WIDTH;
+            float y = i % 10 == 0 ? 300 : random.nextFloat() * WORLD_HEIGHT;
+            GameObject obj = createEntity("Object " + i, x, y, 1, random);
+            obj.setActive(random.nextInt(8) != 0);
+            objects.add(obj);
+        }
+        SpatialHashGrid grid = new SpatialHashGrid(50);
+        SpatialHashGrid.Query query = new SpatialHashGrid.Query();
+        grid.rebuild(objects);
+
+        for (int q = 0; q < 500; q++) {
+            float x = q % 50 == 0 ? 400 : random.nextFloat() * WORLD_WIDTH;
+            float y = q % 50 == 0 ? 300 : random.nextFloat() * WORLD_HEIGHT;
+            float radius = 1 + random.nextFloat() * 80;
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < objects.size(); i++) {
+                GameObject obj = objects.get(i);
+                TransformComponent transform = obj.getComponent(TransformComponent.class);
+                float dx = x - transform.getX();
+                float dy = y - transform.getY();
+                if (obj.isActive() && dx * dx + dy * dy < radius * radius) {
+                    expected.add(i);
+                }
+            }
+
+            assertEquals(expected.size(), grid.query(x, y, radius, query));
+            for (int k = 0; k < query.size(); k++) {
+                assertEquals((int) expected.get(k), query.getId(k));
+                assertEquals(objects.get(expected.get(k)), query.getGameObject(k));
+            }
+            assertEquals(expected.isEmpty() ? -1 : expected.get(0), grid.findFirst(x, y, radius));
+        }
+    }
+
+    @Test
+    void sweepAndPrunePairsSortedAndComplete() {
+        final float radius = 25;
+        final int groups = 4;
+        Random random = new Random(4);
+        SweepAndPrune sweep = new SweepAndPrune(radius);
+        sweep.setPairFilter(0, 1);
+        sweep.setPairFilter(0, 2);
+        sweep.setPairFilter(1, 3);
+        boolean[][] allowed = new boolean[groups][groups];
+        allowed[0][1] = allowed[1][0] = true;
+        allowed[0][2] = allowed[2][0] = true;
+        allowed[1][3] = allowed[3][1] = true;
+
+        int count = 1500;
+        GameObject[] objects = new GameObject[count];
+        int[] entryGroups = new int[count];
+        float[] xs = new float[count];
+        float[] ys = new float[count];
+        boolean[] enabled = new boolean[count];
+        for (int i = 0; i < count; i++) {
+            objects[i] = new GameObject("Entry " + i);
+            entryGroups[i] = random.nextInt(groups);
+            xs[i] = random.nextFloat() * WORLD_WIDTH;
+            ys[i] = random.nextFloat() * WORLD_HEIGHT;
+        }
+
+        // 多帧：平滑移动（插入排序）、偶尔跳跃、换组与停用
+        for (int frame = 0; frame < 20; frame++) {
+            for (int i = 0; i < count; i++) {
+                if (random.nextInt(50) == 0) {
+                    xs[i] = random.nextFloat() * WORLD_WIDTH;
+                } else {
+                    xs[i] += random.nextFloat() * 10 - 5;
+                }
+                ys[i] += random.nextFloat() * 10 - 5;
+                if (frame % 5 == 4 && random.nextInt(100) == 0) {
+                    entryGroups[i] = random.nextInt(groups);
+                }
+                enabled[i] = random.nextInt(10) != 0;
+            }
+            sweep.begin(count);
+            for (int i = 0; i < count; i++) {
+                sweep.set(i, objects[i], entryGroups[i], xs[i], ys[i], enabled[i]);
+            }
+            int pairCount = sweep.findPairs();
+            assertEquals(pairCount, sweep.getPairCount());
+
+            List<long[]> expected = new ArrayList<>();
+            for (int a = 0; a < count; a++) {
+                for (int b = a + 1; b < count; b++) {
+                    float dx = xs[b] - xs[a];
+                    float dy = ys[b] - ys[a];
+                    if (enabled[a] && enabled[b] && allowed[entryGroups[a]][entryGroups[b]]
+                            && dx * dx + dy * dy < radius * radius) {
+                        expected.add(new long[] {a, b});
+                    }
+                }
+            }
+            assertEquals(expected.size(), pairCount, "第 " + frame + " 帧");
+            for (int k = 0; k < pairCount; k++) {
+                assertEquals(expected.get(k)[0], sweep.getPairA(k), "第 " + frame + " 帧");
+                assertEquals(expected.get(k)[1], sweep.getPairB(k), "第 " + frame + " 帧");
+            }
+        }
+    }
+
+    /**
+     * 命中次数与世界状态的哈希
+     */
+    private static final class Result {
+        long hash;
+        int playerHits;
+        int enemyHits;
+    }
+
+    private static Result simulate(GameLogic.Broadphase broadphase, boolean parallel, int enemyCount) {
+        Scene scene = populatedScene(enemyCount, 5L);
+        GameLogic logic = new GameLogic(scene, engine, new Random(6));
+        logic.setBroadphase(broadphase);
+
+        Result result = new Result();
+        for (int tick = 0; tick < TICKS; tick++) {
+            logic.updatePhysics(TICK);
+            int playerBlood = totalBlood(logic.getPlayers());
+            int enemyBlood = totalBlood(logic.getEnemies());
+            collide(logic, parallel);
+            result.playerHits += (playerBlood - totalBlood(logic.getPlayers())) / 10;
+            result.enemyHits += (enemyBlood - totalBlood(logic.getEnemies())) / 20;
+
+            List<GameObject> objects = scene.getGameObjectsView();
+            for (int i = 0; i < objects.size(); i++) {
+                GameObject obj = objects.get(i);
+                TransformComponent transform = obj.getComponent(TransformComponent.class);
+                LifeFeatureComponent life = obj.getComponent(LifeFeatureComponent.class);
+                result.hash = result.hash * 31 + (obj.isActive() ? 1 : 0);
+                result.hash = result.hash * 31 + life.blood;
+                result.hash = result.hash * 31 + Float.floatToIntBits(transform.getX());
+                result.hash = result.hash * 31 + Float.floatToIntBits(transform.getY());
+            }
+            // 玩家回满血，整个过程中都参与碰撞
+            List<GameObject> players = logic.getPlayers();
+            for (int i = 0; i < players.size(); i++) {
+                players.get(i).getComponent(LifeFeatureComponent.class).blood = 100;
+            }
+        }
+        return result;
+    }
+
+    private static void collide(GameLogic logic, boolean parallel) {
+        if (parallel) {
+            logic.checkAiCollisionsParallel(logic.getPlayers(), logic.getEnemies(), logic.getSkills());
+        } else {
+            logic.checkAiCollisionsSerial(logic.getPlayers(), logic.getEnemies(), logic.getSkills());
+        }
+    }
+
+    private static int totalBlood(List<GameObject> objects) {
+        int total = 0;
+        for (int i = 0; i < objects.size(); i++) {
+            total += objects.get(i).getComponent(LifeFeatureComponent.class).blood;
+        }
+        return total;
+    }
+
+    /**
+     * 30个玩家、enemyCount个敌人、各400个玩家技能与敌人技能，分布在整张地图上
+     */
+    private static Scene populatedScene(int enemyCount, long seed) {
+        Random random = new Random(seed);
+        Scene scene = new Scene("Collision");
+        for (int i = 0; i < 30; i++) {
+            GameObject player = createEntity("Player " + i,
+                    random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT, 100, random);
+            player.setPlayer();
+            scene.addGameObject(player);
+        }
+        for (int i = 0; i < enemyCount; i++) {
+            GameObject enemy = createEntity("EnemySoldier",
+                    random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT, 100, random);
+            enemy.setEnemy();
+            scene.addGameObject(enemy);
+        }
+        for (int i = 0; i < 400; i++) {
+            GameObject playerSkill = createEntity("Attacking SkillJ " + i,
+                    random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT, 1, random);
+            playerSkill.setPlayerSkill();
+            scene.addGameObject(playerSkill);
+            GameObject enemySkill = createEntity("Attacking Skill " + i,
+                    random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT, 1, random);
+            enemySkill.setEnemySkill();
+            scene.addGameObject(enemySkill);
+        }
+        scene.initialize();
+        scene.update(0);
+        return scene;
+    }
+
+    private static GameObject createEntity(String name, float x, float y, int blood, Random random) {
+        GameObject obj = new GameObject(name);
+        obj.addComponent(new TransformComponent(new Vector2(x, y)));
+        PhysicsComponent physics = obj.addComponent(new PhysicsComponent(0.5f));
+        physics.setVelocity(new Vector2(
+                (random.nextFloat() - 0.5f) * 100,
+                (random.nextFloat() - 0.5f) * 100));
+        physics.setFriction(0.98f);
+        obj.addComponent(new LifeFeatureComponent(blood));
+        return obj;
+    }
+}
@@ -0,0 +1,420 @@
+package com.gameengine.core;
+
+import com.gameengine.components.RenderComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * DynamicAabbTree：增删与移动后的结构检查，以及各类查询与逐个比较结果的一致性
+ */
+class DynamicAabbTreeTest {
+    private static final float WORLD_WIDTH = 1600;
+    private static final float WORLD_HEIGHT = 1200;
+    private static final Tag[] TAGS = {Tag.PLAYER, Tag.ENEMY, Tag.ENEMY_SKILL, null};
+
+    private Random random;
+    private Scene scene;
+    private DynamicAabbTree tree;
+
+    @BeforeEach
+    void setUp() {
+        random = new Random(20240601L);
+        scene = new Scene("tree-test");
+        tree = new DynamicAabbTree();
+    }
+
+    @Test
+    void emptyTree() {
+        tree.sync(scene);
+        List<GameObject> result = new ArrayList<>();
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.getHeight());
+        assertEquals(0, tree.queryRegion(0, 0, WORLD_WIDTH, WORLD_HEIGHT, null, result));
+        assertEquals(0, tree.queryRadius(0, 0, 1000, null, result));
+        assertEquals(0, tree.findNearest(0, 0, 5, null, result));
+        assertNull(tree.findNearest(0, 0, null));
+        assertFalse(tree.raycast(0, 0, WORLD_WIDTH, WORLD_HEIGHT, null, null, null));
+    }
+
+    @Test
+    void negativeMarginRejected() {
+        assertThrows(IllegalArgumentException.class, () -> tree.setMargin(-1));
+    }
+
+    @Test
+    void insertRemoveAndMove() {
+        List<GameObject> objects = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            objects.add(createObject(i));
+        }
+        // 没有变换组件的对象不进入树
+        GameObject bare = new GameObject("bare");
+        scene.addGameObjects(objects);
+        scene.addGameObject(bare);
+        scene.update(0);
+        tree.sync(scene);
+        checkTree();
+
+        // 删除三分之一
+        for (int i = 0; i < objects.size(); i += 3) {
+            scene.removeGameObject(objects.get(i));
+        }
+        scene.update(0);
+        tree.sync(scene);
+        checkTree();
+
+        // 再加入一批，复用空闲节点
+        for (int i = 0; i < 200; i++) {
+            scene.addGameObject(createObject(1000 + i));
+        }
+        scene.update(0);
+        tree.sync(scene);
+        checkTree();
+
+        // 小幅移动（留在胖包围盒内）与大幅移动（重新插入）
+        for (int round = 0; round < 5; round++) {
+            List<GameObject> view = scene.getGameObjectsView();
+            for (int i = 0; i < view.size(); i++) {
+                TransformComponent transform = view.get(i).getComponent(TransformComponent.class);
+                if (transform == null) {
+                    continue;
+                }
+                if (random.nextInt(4) == 0) {
+                    transform.setXY(random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT);
+                } else {
+                    transform.translate(random.nextFloat() * 6 - 3, random.nextFloat() * 6 - 3);
+                }
+            }
+            tree.sync(scene);
+            checkTree();
+        }
+
+        // 改变大小与标签
+        List<GameObject> view = scene.getGameObjectsView();
+        for (int i = 0; i < view.size(); i += 5) {
+            GameObject obj = view.get(i);
+            RenderComponent render = obj.getComponent(RenderComponent.class);
+            if (render != null) {
+                render.setSize(new Vector2(random.nextFloat() * 80, random.nextFloat() * 80));
+            }
+            if (obj.hasTag(Tag.ENEMY)) {
+                obj.removeTag(Tag.ENEMY);
+                obj.addTag(Tag.ENEMY_SKILL);
+            } else {
+                obj.addTag(Tag.ENEMY);
+            }
+        }
+        tree.sync(scene);
+        checkTree();
+
+        // 失活但尚未被场景移除的对象不出现在查询结果中
+        for (int i = 0; i < view.size(); i += 7) {
+            view.get(i).setActive(false);
+        }
+        tree.sync(scene);
+        checkTree();
+
+        tree.clear();
+        assertEquals(0, tree.size());
+        assertEquals(0, tree.getHeight());
+        tree.sync(scene);
+        checkTree();
+    }
+
+    @Test
+    void marginDoesNotChangeResults() {
+        tree.setMargin(0);
+        for (int i = 0; i < 300; i++) {
+            scene.addGameObject(createObject(i));
+        }
+        scene.update(0);
+        tree.sync(scene);
+        checkTree();
+        List<GameObject> view = scene.getGameObjectsView();
+        for (int i = 0; i < view.size(); i++) {
+            view.get(i).getComponent(TransformComponent.class).translate(0.5f, -0.5f);
+        }
+        tree.sync(scene);
+        checkTree();
+    }
+
+    @Test
+    void rayStartingInsideBoxHitsAtStart() {
+        GameObject box = createBox(100, 100, 50, 50);
+        GameObject behind = createBox(300, 110, 20, 20);
+        scene.addGameObject(box);
+        scene.addGameObject(behind);
+        scene.update(0);
+        tree.sync(scene);
+
+        DynamicAabbTree.RayHit hit = new DynamicAabbTree.RayHit();
+        assertTrue(tree.raycast(120, 120, 400, 120, null, null, hit));
+        assertSame(box, hit.getGameObject());
+        assertEquals(0, hit.getFraction());
+        assertEquals(120, hit.getX());
+        assertEquals(120, hit.getY());
+
+        // 排除发起者后命中后面的对象
+        assertTrue(tree.raycast(120, 120, 400, 120, null, box, hit));
+        assertSame(behind, hit.getGameObject());
+    }
+
+    private static GameObject createBox(float x, float y, float width, float height) {
+        GameObject obj = new GameObject("box");
+        obj.addComponent(new TransformComponent(new Vector2(x, y)));
+        obj.addComponent(new RenderComponent(RenderComponent.RenderType.RECTANGLE,
+                new Vector2(width, height), new RenderComponent.Color(1, 1, 1)));
+        return obj;
+    }
+
+    private GameObject createObject(int id) {
+        GameObject obj = new GameObject("object-" + id);
+        obj.addComponent(new TransformComponent(new Vector2(
+                random.nextFloat() * WORLD_WIDTH, random.nextFloat() * WORLD_HEIGHT)));
+        int shape = random.nextInt(4);
+        if (shape == 1) {
+            obj.addComponent(new RenderComponent(RenderComponent.RenderType.RECTANGLE,
+                    new Vector2(5 + random.nextFloat() * 60, 5 + random.nextFloat() * 60),
+                    new RenderComponent.Color(1, 1, 1)));
+        } else if (shape == 2) {
+            // 线段的大小可能为负
+            obj.addComponent(new RenderComponent(RenderComponent.RenderType.LINE,
+                    new Vector2(random.nextFloat() * 80 - 40, random.nextFloat() * 80 - 40),
+                    new RenderComponent.Color(1, 1, 1)));
+        } else if (shape == 3) {
+            obj.addComponent(new RenderComponent(RenderComponent.RenderType.CIRCLE,
+                    new Vector2(20, 20), new RenderComponent.Color(1, 1, 1)));
+        }
+        // shape == 0：没有渲染组件，包围盒为一个点
+        int tag = random.nextInt(3);
+        if (tag == 0) {
+            obj.addTag(Tag.PLAYER);
+        } else if (tag == 1) {
+            obj.addTag(Tag.ENEMY);
+        } else {
+            obj.addTag(Tag.ENEMY_SKILL);
+        }
+        return obj;
+    }
+
+    /**
+     * 检查叶子数量、高度，并用随机查询与逐个比较的结果对照
+     */
+    private void checkTree() {
+        List<GameObject> all = new ArrayList<>();
+        List<GameObject> view = scene.getGameObjectsView();
+        for (int i = 0; i < view.size(); i++) {
+            if (view.get(i).hasComponent(TransformComponent.class)) {
+                all.add(view.get(i));
+            }
+        }
+        assertEquals(all.size(), tree.size());
+        if (all.isEmpty()) {
+            assertEquals(0, tree.getHeight());
+        } else {
+            // 平衡的二叉树：高度为 O(log n)
+            int bound = 2 * (32 - Integer.numberOfLeadingZeros(all.size())) + 2;
+            assertTrue(tree.getHeight() <= bound, "树高 " + tree.getHeight() + " 超过 " + bound);
+        }
+
+        List<GameObject> result = new ArrayList<>();
+        for (int q = 0; q < 40; q++) {
+            Tag tag = TAGS[random.nextInt(TAGS.length)];
+            List<GameObject> candidates = candidates(all, tag);
+
+            float x0 = random.nextFloat() * WORLD_WIDTH;
+            float y0 = random.nextFloat() * WORLD_HEIGHT;
+            float x1 = x0 + random.nextFloat() * 400 - 100;
+            float y1 = y0 + random.nextFloat() * 400 - 100;
+            checkRegion(candidates, Math.min(x0, x1), Math.min(y0, y1), Math.max(x0, x1), Math.max(y0, y1), tag, result);
+
+            float radius = random.nextFloat() * 200;
+            checkRadius(candidates, x0, y0, radius, tag, result);
+
+            GameObject ignore = candidates.isEmpty() || random.nextBoolean()
+                    ? null : candidates.get(random.nextInt(candidates.size()));
+            checkRaycast(candidates, x0, y0, x1, y1, tag, ignore);
+            // 水平与竖直射线
+            checkRaycast(candidates, x0, y0, x1, y0, tag, null);
+            checkRaycast(candidates, x0, y0, x0, y1, tag, null);
+
+            checkNearest(candidates, x0, y0, 1 + random.nextInt(12), tag, result);
+        }
+    }
+
+    private static List<GameObject> candidates(List<GameObject> all, Tag tag) {
+        List<GameObject> candidates = new ArrayList<>();
+        for (GameObject obj : all) {
+            if (obj.isActive() && (tag == null || obj.hasTag(tag))) {
+                candidates.add(obj);
+            }
+        }
+        return candidates;
+    }
+
+    private void checkRegion(List<GameObject> candidates, float minX, float minY, float maxX, float maxY,
+                             Tag tag, List<GameObject> result) {
+        List<GameObject> expected = new ArrayList<>();
+        for (GameObject obj : candidates) {
+            float[] box = bounds(obj);
+            if (box[0] <= maxX && box[2] >= minX && box[1] <= maxY && box[3] >= minY) {
+                expected.add(obj);
+            }
+        }
+        int count = tree.queryRegion(minX, minY, maxX, maxY, tag, result);
+        assertEquals(result.size(), count);
+        assertSameObjects(expected, result);
+    }
+
+    private void checkRadius(List<GameObject> candidates, float x, float y, float radius,
+                             Tag tag, List<GameObject> result) {
+        List<GameObject> expected = new ArrayList<>();
+        for (GameObject obj : candidates) {
+            if (distanceSquared(x, y, bounds(obj)) <= radius * radius) {
+                expected.add(obj);
+            }
+        }
+        int count = tree.queryRadius(x, y, radius, tag, result);
+        assertEquals(result.size(), count);
+        assertSameObjects(expected, result);
+    }
+
+    private void checkRaycast(List<GameObject> candidates, float x0, float y0, float x1, float y1,
+                              Tag tag, GameObject ignore) {
+        float best = Float.POSITIVE_INFINITY;
+        for (GameObject obj : candidates) {
+            if (obj != ignore) {
+                best = Math.min(best, rayEntry(x0, y0, x1, y1, bounds(obj)));
+            }
+        }
+        DynamicAabbTree.RayHit hit = new DynamicAabbTree.RayHit();
+        boolean hasHit = tree.raycast(x0, y0, x1, y1, tag, ignore, hit);
+        assertEquals(best != Float.POSITIVE_INFINITY, hasHit);
+        assertEquals(hasHit, tree.raycast(x0, y0, x1, y1, tag, ignore, null));
+        if (!hasHit) {
+            return;
+        }
+        // 距离相同的对象可能有多个，只比较命中比例
+        assertEquals(best, hit.getFraction());
+        assertTrue(candidates.contains(hit.getGameObject()));
+        assertFalse(hit.getGameObject() == ignore);
+        assertEquals(best, rayEntry(x0, y0, x1, y1, bounds(hit.getGameObject())));
+    }
+
+    private void checkNearest(List<GameObject> candidates, float x, float y, int k,
+                              Tag tag, List<GameObject> result) {
+        float[] expected = new float[candidates.size()];
+        for (int i = 0; i < candidates.size(); i++) {
+            expected[i] = distanceSquared(x, y, bounds(candidates.get(i)));
+        }
+        Arrays.sort(expected);
+
+        int count = tree.findNearest(x, y, k, tag, result);
+        assertEquals(Math.min(k, candidates.size()), count);
+        assertEquals(count, result.size());
+        assertEquals(count, distinct(result));
+        // 按距离从近到远，距离依次等于逐个比较得到的前 k 个
+        for (int i = 0; i < count; i++) {
+            assertTrue(candidates.contains(result.get(i)));
+            assertEquals(expected[i], distanceSquared(x, y, bounds(result.get(i))));
+        }
+
+        GameObject nearest = tree.findNearest(x, y, tag);
+        if (candidates.isEmpty()) {
+            assertNull(nearest);
+        } else {
+            assertNotNull(nearest);
+            assertEquals(expected[0], distanceSquared(x, y, bounds(nearest)));
+        }
+    }
+
+    private static int distinct(List<GameObject> objects) {
+        Map<GameObject, Boolean> seen = new IdentityHashMap<>();
+        for (GameObject obj : objects) {
+            seen.put(obj, Boolean.TRUE);
+        }
+        return seen.size();
+    }
+
+    private static void assertSameObjects(List<GameObject> expected, List<GameObject> actual) {
+        assertEquals(expected.size(), actual.size());
+        assertEquals(actual.size(), distinct(actual));
+        Map<GameObject, Boolean> expectedSet = new IdentityHashMap<>();
+        for (GameObject obj : expected) {
+            expectedSet.put(obj, Boolean.TRUE);
+        }
+        for (GameObject obj : actual) {
+            assertTrue(expectedSet.containsKey(obj), "多余的结果: " + obj.getName());
+        }
+    }
+
+    /**
+     * 精确包围盒 {minX, minY, maxX, maxY}
+     */
+    private static float[] bounds(GameObject obj) {
+        TransformComponent transform = obj.getComponent(TransformComponent.class);
+        RenderComponent render = obj.getComponent(RenderComponent.class);
+        float x = transform.getX();
+        float y = transform.getY();
+        float width = render == null ? 0 : render.getWidth();
+        float height = render == null ? 0 : render.getHeight();
+        return new float[] {
+                Math.min(x, x + width), Math.min(y, y + height),
+                Math.max(x, x + width), Math.max(y, y + height)};
+    }
+
+    private static float distanceSquared(float x, float y, float[] box) {
+        float dx = Math.max(Math.max(box[0] - x, x - box[2]), 0);
+        float dy = Math.max(Math.max(box[1] - y, y - box[3]), 0);
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * 线段进入包围盒的比例（与树中的计算相同），不相交时为正无穷
+     */
+    private static float rayEntry(float x0, float y0, float x1, float y1, float[] box) {
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        float tMin = 0;
+        float tMax = 1;
+        if (dx == 0) {
+            if (x0 < box[0] || x0 > box[2]) {
+                return Float.POSITIVE_INFINITY;
+            }
+        } else {
+            float t1 = (box[0] - x0) * (1.0f / dx);
+            float t2 = (box[2] - x0) * (1.0f / dx);
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        if (dy == 0) {
+            if (y0 < box[1] || y0 > box[3]) {
+                return Float.POSITIVE_INFINITY;
+            }
+        } else {
+            float t1 = (box[1] - y0) * (1.0f / dy);
+            float t2 = (box[3] - y0) * (1.0f / dy);
+            tMin = Math.max(tMin, Math.min(t1, t2));
+            tMax = Math.min(tMax, Math.max(t1, t2));
+        }
+        return tMin <= tMax ? tMin : Float.POSITIVE_INFINITY;
+    }
+}
@@ -0,0 +1,112 @@
+package com.gameengine.core;
+
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+import org.junit.jupiter.api.Test;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 多组件查询与 GameObject.getComponent 使用相同的类型规则：子类组件也匹配父类与接口
+ */
+class EntityQueryTest {
+
+    interface Marker {
+    }
+
+    static class BoostedPhysics extends PhysicsComponent implements Marker {
+        BoostedPhysics() {
+            super(1.0f);
+        }
+    }
+
+    @Test
+    void subclassMatchesQueryCreatedBeforeAndAfter() {
+        Scene scene = new Scene("query");
+        EntityQuery before = scene.query(TransformComponent.class, PhysicsComponent.class);
+
+        GameObject plain = createEntity("plain", new PhysicsComponent(1.0f));
+        GameObject boosted = createEntity("boosted", new BoostedPhysics());
+        scene.addGameObject(plain);
+        scene.addGameObject(boosted);
+        scene.update(0);
+        EntityQuery after = scene.query(PhysicsComponent.class, TransformComponent.class);
+
+        for (EntityQuery query : new EntityQuery[] {before, after}) {
+            assertEquals(2, query.count());
+            assertMatchesGetComponent(query);
+        }
+        assertEquals(1, scene.query(Marker.class).count());
+        assertEquals(1, scene.query(BoostedPhysics.class, TransformComponent.class).count());
+
+        // 已有原型之后加入的对象也放入新增的列
+        GameObject late = createEntity("late", new BoostedPhysics());
+        scene.addGameObject(late);
+        scene.update(0);
+        assertEquals(3, after.count());
+        assertMatchesGetComponent(after);
+    }
+
+    @Test
+    void firstAddedComponentWins() {
+        Scene scene = new Scene("query");
+        GameObject obj = new GameObject("both");
+        obj.addComponent(new TransformComponent(new Vector2(0, 0)));
+        BoostedPhysics boosted = new BoostedPhysics();
+        obj.addComponent(boosted);
+        obj.addComponent(new PhysicsComponent(1.0f));
+        scene.addGameObject(obj);
+        scene.update(0);
+
+        EntityQuery query = scene.query(TransformComponent.class, PhysicsComponent.class);
+        assertEquals(1, query.count());
+        assertSame(boosted, obj.getComponent(PhysicsComponent.class));
+        assertMatchesGetComponent(query);
+    }
+
+    @Test
+    void physicsSystemIntegratesSubclass() {
+        Scene scene = new Scene("physics");
+        GameObject plain = createEntity("plain", new PhysicsComponent(1.0f));
+        GameObject boosted = createEntity("boosted", new BoostedPhysics());
+        scene.addGameObject(plain);
+        scene.addGameObject(boosted);
+        scene.update(0);
+
+        JobSystem jobSystem = new JobSystem(1);
+        try {
+            new PhysicsSystem(scene, jobSystem).update(1.0f / 60.0f);
+        } finally {
+            jobSystem.shutdown();
+        }
+        for (GameObject obj : new GameObject[] {plain, boosted}) {
+            TransformComponent transform = obj.getComponent(TransformComponent.class);
+            assertTrue(transform.getX() > 100, obj.getName() + " 没有移动");
+        }
+    }
+
+    private static GameObject createEntity(String name, PhysicsComponent physics) {
+        GameObject obj = new GameObject(name);
+        obj.addComponent(new TransformComponent(new Vector2(100, 100)));
+        obj.addComponent(physics);
+        physics.setVelocity(new Vector2(60, 0));
+        return obj;
+    }
+
+    private static void assertMatchesGetComponent(EntityQuery query) {
+        Map<GameObject, Boolean> seen = new IdentityHashMap<>();
+        query.forEach(TransformComponent.class, PhysicsComponent.class, (obj, transform, physics) -> {
+            seen.put(obj, Boolean.TRUE);
+            assertSame(obj.getComponent(TransformComponent.class), transform);
+            assertSame(obj.getComponent(PhysicsComponent.class), physics);
+        });
+        assertEquals(query.count(), seen.size());
+    }
+}
@@ -0,0 +1,121 @@
+package com.gameengine.core;
+
+import com.gameengine.components.LifeFeatureComponent;
+import com.gameengine.components.PhysicsComponent;
+import com.gameengine.components.TransformComponent;
+import com.gameengine.graphics.RenderBackend;
+import com.gameengine.math.Vector2;
+import com.gameengine.scene.Scene;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 没有设置技能对象池时，场景中已有的技能在命中或生命周期结束后仍能再次发射
+ */
+class SkillVolleyTest {
+    private static GameEngine engine;
+
+    @BeforeAll
+    static void createEngine() {
+        engine = new GameEngine(1600, 1200, "skill-test", RenderBackend.HEADLESS);
+    }
+
+    @AfterAll
+    static void shutdownEngine() {
+        engine.getJobSystem().shutdown();
+    }
+
+    @Test
+    void existingSkillsReusedAfterExpiry() {
+        Scene scene = new Scene("skills");
+        GameObject player = createEntity("Player", 400, 300);
+        player.setPlayer();
+        GameObject king = createEntity("EnemyKing", 1200, 900);
+        king.setEnemy();
+        king.addTag(Tag.ENEMY_KING);
+        scene.addGameObject(player);
+        scene.addGameObject(king);
+        for (int i = 0; i < 2; i++) {
+            GameObject skill = createEntity("Attacking SkillJ " + i, -1000, -1000);
+            skill.setPlayerSkill();
+            skill.getComponent(LifeFeatureComponent.class).setLifetime(1);
+            scene.addGameObject(skill);
+        }
+        for (int i = 0; i < 5; i++) {
+            GameObject skill = createEntity("Attacking Skill " + i, -1000, -1000);
+            skill.setEnemySkill();
+            skill.getComponent(LifeFeatureComponent.class).setLifetime(1);
+            scene.addGameObject(skill);
+        }
+        scene.update(0);
+        GameLogic logic = new GameLogic(scene, engine, new Random(1));
+
+        for (int round = 0; round < 3; round++) {
+            logic.handlePlayerAttackJ();
+            logic.handleEnemyAttack();
+            scene.update(0);
+            assertVolley(scene.findGameObjectsByTag(Tag.PLAYER_SKILL), 2, 400, 300);
+            assertVolley(scene.findGameObjectsByTag(Tag.ENEMY_SKILL), 5, 1200, 900);
+
+            // 生命周期结束：技能被回收并移出场景，冷却也已完成
+            logic.updateAttack(1.1f);
+            scene.update(0);
+            assertTrue(scene.findGameObjectsByTag(Tag.PLAYER_SKILL).isEmpty());
+            assertTrue(scene.findGameObjectsByTag(Tag.ENEMY_SKILL).isEmpty());
+        }
+    }
+
+    @Test
+    void poolOfExistingObjects() {
+        Scene scene = new Scene("pool");
+        GameObject active = createEntity("active", 0, 0);
+        GameObject inactive = createEntity("inactive", 0, 0);
+        inactive.setActive(false);
+        GameObjectPool<GameObject> pool = GameObjectPool.of(scene, List.of(active, inactive));
+
+        assertEquals(2, pool.getCapacity());
+        assertEquals(1, pool.getActiveCount());
+        assertSame(inactive, pool.acquire());
+        assertTrue(inactive.isActive());
+        // 容量已满，不会新建对象
+        assertNull(pool.acquire());
+        assertEquals(1, pool.getMissCount());
+
+        assertTrue(active.release());
+        assertFalse(active.isActive());
+        assertFalse(active.release());
+        assertSame(active, pool.acquire());
+
+        assertThrows(IllegalArgumentException.class, () -> GameObjectPool.of(scene, List.of(active)));
+    }
+
+    private static void assertVolley(List<GameObject> skills, int count, float x, float y) {
+        assertEquals(count, skills.size());
+        for (int i = 0; i < skills.size(); i++) {
+            GameObject skill = skills.get(i);
+            TransformComponent transform = skill.getComponent(TransformComponent.class);
+            assertTrue(skill.isActive(), skill.getName());
+            assertEquals(x, transform.getX(), skill.getName());
+            assertEquals(y, transform.getY(), skill.getName());
+        }
+    }
+
+    private static GameObject createEntity(String name, float x, float y) {
+        GameObject obj = new GameObject(name);
+        obj.addComponent(new TransformComponent(new Vector2(x, y)));
+        obj.addComponent(new PhysicsComponent(0.5f));
+        obj.addComponent(new LifeFeatureComponent(100));
+        return obj;
+    }
+}